@@ -16,18 +16,46 @@
 
 import ballerina/constraint;
 import ballerina/jballerina.java;
-import ballerina/task;
-import ballerina/time;
 
 # Represents configurations for the `cache:Cache` object.
 #
-# + capacity - Maximum number of entries allowed in the cache
+# + capacity - Maximum number of entries allowed in the cache. This is not used if the `maxWeight` is set
 # + evictionFactor - The factor by which the entries will be evicted once the cache is full
 # + evictionPolicy - The policy which is used to evict entries once the cache is full
 # + defaultMaxAge - The max-age in seconds which all the cache entries are valid. '-1' means, the entries are
 #                   valid forever. This will be overwritten by the `maxAge` property set when inserting item into
 #                   the cache
-# + cleanupInterval - Interval (in seconds) of the timer task, which will clean up the cache
+# + cleanupInterval - Interval (in seconds) at which the expired entries of the cache are removed by the cleanup
+#                     thread, which is shared by all the caches
+# + refreshAfter - The age in seconds after which an entry read with `getOrLoad` is reloaded in the background. The
+#                  current value is returned while the entry is reloaded, and continues to be returned until it
+#                  expires if the reload fails
+# + recordStats - Whether the statistics of the cache are recorded, which are retrieved with `stats()`
+# + maxWeight - Maximum total weight of the entries allowed in the cache. If set, the cache is bounded by the weights
+#               of its values instead of by the number of its entries, which are measured by the weigher given when
+#               initializing the cache or, by default, are the approximate sizes of the values in bytes
+# + asyncMaintenance - Whether the maintenance of the cache, which evicts the entries once the cache is full and
+#                      removes the expired entries, is run on a shared background thread instead of on the strands
+#                      which access the cache. The cache may briefly exceed its capacity until the maintenance is run
+# + offHeap - Whether the `string`, `byte[]` and `json` values of the cache are stored serialized in direct memory
+#             outside the heap, so that they do not add to the heap size and the garbage collection time. The values
+#             are deserialized when they are read, and the values of the other types are stored on the heap
+# + maxOffHeapSize - The maximum amount (in bytes) of the direct memory which the values of an off-heap cache take up.
+#                    The memory is allocated in slabs of 1 MB, and the values which do not fit in it are stored on the
+#                    heap. If not set, the direct memory is only bounded by the maximum direct memory of the JVM
+# + flushSize - The maximum number of entries written by the `writer` of the cache at once. The entries put to the cache
+#               are flushed once this many of them are waiting to be written
+# + flushInterval - The interval (in seconds) at which the entries put to the cache are flushed to its `writer`
+# + segments - The number of segments which the entries of the cache are hashed to. Each segment is evicted
+#              independently with its share of the capacity, so that the concurrent writes to different segments do
+#              not wait for each other, while the least recently used entries of the cache as a whole are approximated
+# + prefixIndex - Whether the keys of the cache are indexed in order, so that `invalidateByPrefix` finds the keys with
+#                 the prefix in time proportional to their number. Otherwise, it walks all the keys of the cache
+# + snapshotPath - The path of a snapshot written by `snapshot()`, from which the cache is restored when it is
+#                  initialized. The restored entries keep their remaining max ages and their order of recency, and the
+#                  cache starts empty if the snapshot does not exist
+# + name - The unique name of the cache. If the metrics are enabled, the size, capacity, hit ratio, evictions and
+#          operation latency of a named cache are published as metrics tagged with its name
 public type CacheConfig record {|
     @constraint:Int {
         minValue: 1
@@ -47,39 +75,119 @@ public type CacheConfig record {|
         minValueExclusive: 0
     }
     decimal cleanupInterval?;
+    @constraint:Number {
+        minValueExclusive: 0
+    }
+    decimal refreshAfter?;
+    boolean recordStats = false;
+    @constraint:Int {
+        minValue: 1
+    }
+    int maxWeight?;
+    boolean asyncMaintenance = false;
+    boolean offHeap = false;
+    @constraint:Int {
+        minValue: 1
+    }
+    int maxOffHeapSize?;
+    @constraint:Int {
+        minValue: 1
+    }
+    int flushSize = 100;
+    @constraint:Number {
+        minValueExclusive: 0
+    }
+    decimal flushInterval = 1;
+    @constraint:Int {
+        minValue: 1
+    }
+    int segments = 1;
+    boolean prefixIndex = false;
+    string snapshotPath?;
+    string name?;
 |};
 
-# Possible types of eviction policy that can be passed into the `EvictionPolicy`.
-public enum EvictionPolicy {
-    LRU
-}
-
-type CacheEntry record {|
-    any data;
-    decimal expTime;  // exp time since epoch. calculated based on the `maxAge` parameter when inserting to map
+# Represents the statistics of a `cache:Cache`, which are recorded if the `recordStats` of the cache is enabled.
+#
+# + hitCount - The number of reads of entries that were available in the cache
+# + missCount - The number of reads of entries that were not available in the cache or had expired
+# + hitRate - The ratio of the reads that were hits, which is `1.0` if there were no reads
+# + expirationCount - The number of entries that were removed because they had expired
+# + evictionCount - The number of entries that were evicted because the cache was full
+# + loadSuccessCount - The number of values that were loaded successfully by `getOrLoad`
+# + loadFailureCount - The number of values that `getOrLoad` failed to load
+# + totalLoadTime - The total time in seconds that was spent on loading values
+public type CacheStats record {|
+    int hitCount;
+    int missCount;
+    float hitRate;
+    int expirationCount;
+    int evictionCount;
+    int loadSuccessCount;
+    int loadFailureCount;
+    decimal totalLoadTime;
 |};
 
-// Cleanup service which cleans the cache entries periodically.
-boolean cleanupInProgress = false;
+# Represents a page of the keys of a `cache:Cache`, which is returned by `keysPage()`.
+#
+# + keys - The keys of the page
+# + nextCursor - The cursor from which the next page is read, which is the last key of the page, or `()` if all the
+#                keys of the cache were read
+public type KeysPage record {|
+    string[] keys;
+    string? nextCursor;
+|};
 
-class Cleanup {
+# The function which loads the value of a key that is not available in the cache.
+#
+# + key - The key of the value to be loaded
+# + return - The value of the key or an `error` if the value could not be loaded
+public type Loader isolated function (string key) returns any|error;
 
-    *task:Job;
-    private Cache cache;
+# The function which measures the weight of a value in a cache that is bounded by its `maxWeight`. A weight less than
+# `1` is counted as `1`.
+#
+# + value - The value to be weighed
+# + return - The weight of the value
+public type Weigher isolated function (any value) returns int;
 
-    public function execute() {
-        // This check will skip the processes triggered while the clean up in progress.
-        if !cleanupInProgress {
-            cleanupInProgress = true;
-            time:Utc currentUtc = time:utcNow();
-            externCleanUp(self.cache, <decimal>currentUtc[0] + currentUtc[1]);
-            cleanupInProgress = false;
-        }
-    }
+# The function which is notified of the entries removed from the cache. The removals are queued by the cache and the
+# function is called for them in batches on a background thread, so it never adds to the latency of the cache
+# operations.
+#
+# + key - The key of the removed entry
+# + value - The value of the removed entry, which is the old value if it was replaced
+# + cause - The cause of the removal
+public type RemovalListener isolated function (string key, any value, RemovalCause cause);
+
+# The function which writes the entries put to a cache behind the cache operations. It is called on a background
+# thread with the batches of the entries, where the repeated puts of a key are coalesced into its latest value. If it
+# returns an error, the entries of the batch are written again with the next flush.
+#
+# + entries - The entries to be written
+# + return - An `error` if the entries could not be written
+public type Writer isolated function (map<any> entries) returns error?;
+
+# Possible causes of the removal of an entry, which are passed into the `cache:RemovalListener`.
+public enum RemovalCause {
+    # The entry was removed with `invalidate`, `invalidateKeys` or `invalidateAll`
+    EXPLICIT,
+    # The value of the entry was replaced by a `put` or a refresh of its key
+    REPLACED,
+    # The entry was removed because it had expired
+    EXPIRED,
+    # The entry was evicted because the cache was full
+    SIZE
+}
 
-    public isolated function init(Cache cache) {
-        self.cache = cache;
-    }
+# Possible types of eviction policy that can be passed into the `EvictionPolicy`.
+public enum EvictionPolicy {
+    # Evicts the least recently used entries first
+    LRU,
+    # Admits new entries through a small LRU window and only lets them replace the victims of the main space if they
+    # are used more frequently. This keeps the frequently used entries in the cache when it is scanned by entries that
+    # are used only once
+    TINY_LFU
 }
 
 # The `cache:Cache` object, which is used for all the cache-related operations. It is not recommended to insert `()`
@@ -92,6 +200,21 @@ public isolated class Cache {
     private final EvictionPolicy evictionPolicy;
     private final float evictionFactor;
     private final decimal defaultMaxAge;
+    private final decimal refreshAfter;
+    private final boolean recordStats;
+    private final string? name;
+    private final int maxWeight;
+    private final Weigher? weigher;
+    private final RemovalListener? onRemoval;
+    private final Writer? writer;
+    private final int flushSize;
+    private final decimal flushInterval;
+    private final boolean asyncMaintenance;
+    private final boolean offHeap;
+    private final int maxOffHeapSize;
+    private final int segments;
+    private final boolean prefixIndex;
+    private final decimal? cleanupInterval;
 
     # Initializes new `cache:Cache` instance.
     # ```ballerina
@@ -99,7 +222,17 @@ public isolated class Cache {
     # ```
     #
     # + cacheConfig - Configurations for the `cache:Cache` object
-    public isolated function init(*CacheConfig cacheConfig) {
+    # + weigher - The function which measures the weights of the values if the `maxWeight` is set. If not given, the
+    #             weight of a value is its approximate size in bytes, which is the length of a `string` or a `byte[]`
+    #             and the sum of the sizes of the members of a list, map or record
+    # + onRemoval - The function which is notified of the entries removed from the cache along with the causes of their
+    #               removals
+    # + writer - The function which writes the entries put to the cache behind the cache operations. The entries are
+    #            written in batches by the `flushSize` and the `flushInterval`, and when one of them is evicted. The
+    #            entries which are invalidated before they are written are not written, and the entries which are not
+    #            written yet when the cache is no longer used are lost
+    public isolated function init(*CacheConfig cacheConfig, Weigher? weigher = (), RemovalListener? onRemoval = (),
+                                  Writer? writer = ()) {
         CacheConfig|error validatedConfig = constraint:validate(cacheConfig);
         if validatedConfig is error {
             panic prepareError(validatedConfig.message());
@@ -108,16 +241,27 @@ public isolated class Cache {
         self.evictionPolicy = validatedConfig.evictionPolicy;
         self.evictionFactor = validatedConfig.evictionFactor;
         self.defaultMaxAge =  validatedConfig.defaultMaxAge;
-
+        self.refreshAfter = validatedConfig?.refreshAfter ?: -1;
+        self.recordStats = validatedConfig.recordStats;
+        self.name = validatedConfig?.name;
+        self.maxWeight = validatedConfig?.maxWeight ?: -1;
+        self.weigher = weigher;
+        self.onRemoval = onRemoval;
+        self.writer = writer;
+        self.flushSize = validatedConfig.flushSize;
+        self.flushInterval = validatedConfig.flushInterval;
+        self.asyncMaintenance = validatedConfig.asyncMaintenance;
+        self.offHeap = validatedConfig.offHeap;
+        self.maxOffHeapSize = validatedConfig?.maxOffHeapSize ?: -1;
+        self.segments = validatedConfig.segments;
+        self.prefixIndex = validatedConfig.prefixIndex;
+        self.cleanupInterval = validatedConfig?.cleanupInterval;
         externInit(self);
-        decimal? interval = cacheConfig?.cleanupInterval;
-        if interval is decimal {
-            time:Utc currentUtc = time:utcNow();
-            time:Utc newTime = time:utcAddSeconds(currentUtc, interval);
-            time:Civil time = time:utcToCivil(newTime);
-            var result = task:scheduleJobRecurByFrequency(new Cleanup(self), interval, startTime = time);
-            if (result is task:Error) {
-                panic prepareError(string `Failed to schedule the cleanup task: ${result.message()}`);
+        string? snapshotPath = validatedConfig?.snapshotPath;
+        if snapshotPath is string {
+            error? result = externRestore(self, snapshotPath);
+            if result is error {
+                panic prepareError("Failed to restore the cache from the snapshot: " + snapshotPath + ".", result);
             }
         }
     }
@@ -138,25 +282,37 @@ public isolated class Cache {
             return prepareError("Unsupported cache value '()' for the key: " + key + ".");
         }
 
-        time:Utc currentUtc = time:utcNow();
-        // Calculate the `expTime` of the cache entry based on the `maxAgeInSeconds` property and
-        // `defaultMaxAge` property.
-        decimal calculatedExpTime = -1;
+        // Calculate the max age of the cache entry based on the `maxAge` parameter and the `defaultMaxAge`
+        // property. The expiry time is tracked by the native entry itself.
+        decimal calculatedMaxAge = self.defaultMaxAge;
         if maxAge != -1d && maxAge > 0d {
-            time:Utc newTime = time:utcAddSeconds(currentUtc, <decimal> maxAge);
-            calculatedExpTime = <decimal>newTime[0] + newTime[1];
-        } else {
-            if self.defaultMaxAge != -1d {
-                time:Utc newTime = time:utcAddSeconds(currentUtc, <decimal> self.defaultMaxAge);
-                calculatedExpTime = <decimal>newTime[0] + newTime[1];
-            }
+            calculatedMaxAge = maxAge;
         }
+        externPut(self, key, value, calculatedMaxAge);
+    }
 
-        CacheEntry entry = {
-            data: value,
-            expTime: calculatedExpTime
-        };
-        return externPut(self, key, entry);
+    # Adds the given key value pair to the cache along with the given tags, by which the entry is invalidated with
+    # `invalidateByTag`. The tags replace the tags of the previous entry of the key, and an entry which is put without
+    # the tags, such as with `put`, has no tags.
+    # ```ballerina
+    # check cache.putWithTags("order:1", order, ["tenant:wso2"]);
+    # ```
+    #
+    # + key - Key of the value to be cached
+    # + value - Value to be cached. Value should not be `()`
+    # + tags - The tags of the entry
+    # + maxAge - The time in seconds for which the cache entry is valid. If the value is '-1', the entry is valid
+    #            forever
+    # + return - `()` if successfully added to the cache or a `cache:Error` if a `()` value is inserted to the cache
+    public isolated function putWithTags(string key, any value, string[] tags, decimal maxAge = -1) returns Error? {
+        if value is () {
+            return prepareError("Unsupported cache value '()' for the key: " + key + ".");
+        }
+        decimal calculatedMaxAge = self.defaultMaxAge;
+        if maxAge != -1d && maxAge > 0d {
+            calculatedMaxAge = maxAge;
+        }
+        externPutWithTags(self, key, value, calculatedMaxAge, tags);
     }
 
     # Returns the cached value associated with the provided key.
@@ -168,15 +324,53 @@ public isolated class Cache {
     # + return - The cached value associated with the provided key or a `cache:Error` if the provided cache key is not
     #            exisiting in the cache or any error occurred while retrieving the value from the cache.
     public isolated function get(string key) returns any|Error {
-        time:Utc currentUtc = time:utcNow();
-        any? entry = externGet(self, key, <decimal>currentUtc[0] + currentUtc[1]);
-        if entry is CacheEntry {
-            return entry.data;
+        any? value = externGet(self, key);
+        if value !is () {
+            return value;
         } else {
             return prepareError("Cache entry from the given key: " + key + ", is not available.");
         }
     }
 
+    # Returns the cached value associated with the provided key, loading it with the given loader and caching it if
+    # it is not available. Concurrent calls that miss the same key wait for a single invocation of the loader and
+    # receive its value instead of invoking the loader themselves. The loader may use this cache, except for loading
+    # the same key, which returns an error, and a value put to the key while it is loaded is kept instead of the
+    # loaded value. If the `refreshAfter` of the cache is configured and the entry is older than it, the current value
+    # is returned and the entry is reloaded once in the background.
+    # ```ballerina
+    # any value = check cache.getOrLoad(key, loadFromDatabase);
+    # ```
+    #
+    # + key - Key of the cached value, which should be retrieved
+    # + loader - The function which loads the value if it is not available in the cache
+    # + maxAge - The time in seconds for which the loaded entry is valid. If the value is '-1', the `defaultMaxAge`
+    #            of the cache is used.
+    # + return - The cached or loaded value associated with the provided key or a `cache:Error` if the loader
+    #            returned an error or `()`
+    public isolated function getOrLoad(string key, Loader loader, decimal maxAge = -1) returns any|Error {
+        decimal calculatedMaxAge = self.defaultMaxAge;
+        if maxAge != -1d && maxAge > 0d {
+            calculatedMaxAge = maxAge;
+        }
+        any|error value = externGetOrLoad(self, key, loader, calculatedMaxAge);
+        if value is error {
+            return prepareError(string `Failed to load the cache entry for the key: ${key}.`, value);
+        } else if value is () {
+            return prepareError("Unsupported cache value '()' loaded for the key: " + key + ".");
+        }
+        if self.refreshAfter > 0d && externTryStartRefresh(self, key, self.refreshAfter) {
+            _ = start self.refresh(key, loader, calculatedMaxAge);
+        }
+        return value;
+    }
+
+    // Reloads the value of the key whose refresh was claimed. The current value is kept if the loader fails.
+    private isolated function refresh(string key, Loader loader, decimal maxAge) {
+        any|error value = loader(key);
+        externCompleteRefresh(self, key, value is error ? () : value, maxAge);
+    }
+
     # Discards a cached value from the cache.
     # ```ballerina
     # check cache.invalidate(key);
@@ -203,6 +397,75 @@ public isolated class Cache {
         externRemoveAll(self);
     }
 
+    # Adds the given key value pairs to the cache in a single operation. If the cache previously contained values
+    # associated with any of the keys, the old values will be replaced by the newly-provided values.
+    # ```ballerina
+    # check cache.putAll({"Hello": "Ballerina", "Hi": "Cache"});
+    # ```
+    #
+    # + entries - Key value pairs to be cached. Values should not be `()`
+    # + maxAge - The time in seconds for which the cache entries are valid. If the value is '-1', the entries are
+    #            valid forever.
+    # + return - `()` if successfully added to the cache or a `cache:Error` if a `()` value is inserted to the cache.
+    #            None of the entries are added if any of the values is `()`
+    public isolated function putAll(map<any> entries, decimal maxAge = -1) returns Error? {
+        foreach [string, any] [key, value] in entries.entries() {
+            if value is () {
+                return prepareError("Unsupported cache value '()' for the key: " + key + ".");
+            }
+        }
+        decimal calculatedMaxAge = self.defaultMaxAge;
+        if maxAge != -1d && maxAge > 0d {
+            calculatedMaxAge = maxAge;
+        }
+        externPutAll(self, entries, calculatedMaxAge);
+    }
+
+    # Returns the cached values associated with the provided keys in a single operation.
+    # ```ballerina
+    # map<any> values = cache.getAll(["Hello", "Hi"]);
+    # ```
+    #
+    # + keys - Keys of the cached values, which should be retrieved
+    # + return - The cached values associated with the keys. The keys which are not available in the cache are not
+    #            included
+    public isolated function getAll(string[] keys) returns map<any> {
+        return externGetAll(self, keys);
+    }
+
+    # Discards the cached values of the provided keys from the cache in a single operation. The keys which are not
+    # available in the cache are ignored.
+    # ```ballerina
+    # cache.invalidateKeys(["Hello", "Hi"]);
+    # ```
+    #
+    # + keys - Keys of the cache values, which need to be discarded from the cache
+    public isolated function invalidateKeys(string[] keys) {
+        externRemoveKeys(self, keys);
+    }
+
+    # Discards the cached values which were put with the given tag, which are found without walking the keys of the
+    # cache.
+    # ```ballerina
+    # cache.invalidateByTag("tenant:wso2");
+    # ```
+    #
+    # + tag - The tag of the cache values, which need to be discarded from the cache
+    public isolated function invalidateByTag(string tag) {
+        externRemoveByTag(self, tag);
+    }
+
+    # Discards the cached values whose keys start with the given prefix. The keys are found without walking all the
+    # keys of the cache if the `prefixIndex` of the cache is enabled.
+    # ```ballerina
+    # cache.invalidateByPrefix("user:");
+    # ```
+    #
+    # + prefix - The prefix of the keys of the cache values, which need to be discarded from the cache
+    public isolated function invalidateByPrefix(string prefix) {
+        externRemoveByPrefix(self, prefix);
+    }
+
     # Checks whether the given key has an associated cached value.
     # ```ballerina
     # boolean result = cache.hasKey(key);
@@ -225,6 +488,43 @@ public isolated class Cache {
         return externKeys(self);
     }
 
+    # Returns a page of the keys of the cache, without copying all the keys of the cache. The keys are returned in
+    # order, and each page returns its last key as the cursor from which the next one is read, so that the keys which
+    # are in the cache throughout the paging are returned once each, while the keys which are added or removed between
+    # the pages may or may not be returned. If the `prefixIndex` of the cache is enabled, a page is read from the
+    # index in time proportional to its size, and otherwise by a single pass over the keys of the cache.
+    # ```ballerina
+    # cache:KeysPage page = check cache.keysPage(pageSize = 100);
+    # ```
+    #
+    # + cursor - The cursor from which the page is read, which is the `nextCursor` of the previous page, or `()` to
+    #            read the first page
+    # + pageSize - The maximum number of keys in the page
+    # + prefix - The prefix of the keys to be returned. The keys without it are skipped without being copied
+    # + return - The page of the keys or a `cache:Error` if the page size is invalid
+    public isolated function keysPage(string? cursor = (), int pageSize = 100, string? prefix = ())
+            returns KeysPage|Error {
+        if pageSize < 1 {
+            return prepareError("Invalid page size: " + pageSize.toString() + ", a positive value is expected.");
+        }
+        string[] keys = [];
+        string? nextCursor = externKeysPage(self, cursor, pageSize, prefix, keys);
+        return {keys, nextCursor};
+    }
+
+    # Returns a stream of the keys of the cache, which are read lazily from the cache as the stream is consumed. The
+    # keys which are added or removed while the stream is consumed may or may not be returned.
+    # ```ballerina
+    # stream<string> keys = cache.keyStream("user:");
+    # ```
+    #
+    # + prefix - The prefix of the keys to be returned. The keys without it are skipped
+    # + return - The stream of the keys
+    public isolated function keyStream(string? prefix = ()) returns stream<string> {
+        KeyIterator iterator = new (self, prefix);
+        return new (iterator);
+    }
+
     # Returns the size of the cache.
     # ```ballerina
     # int result = cache.size();
@@ -235,6 +535,45 @@ public isolated class Cache {
         return externSize(self);
     }
 
+    # Returns the statistics of the cache. The statistics are only recorded if the `recordStats` of the cache is
+    # enabled, and are all zero otherwise.
+    # ```ballerina
+    # cache:CacheStats stats = cache.stats();
+    # ```
+    #
+    # + return - The statistics recorded since the cache was created
+    public isolated function stats() returns CacheStats {
+        int[] stats = externStats(self);
+        int requestCount = stats[0] + stats[1];
+        return {
+            hitCount: stats[0],
+            missCount: stats[1],
+            hitRate: requestCount == 0 ? 1.0 : <float>stats[0] / <float>requestCount,
+            expirationCount: stats[2],
+            evictionCount: stats[3],
+            loadSuccessCount: stats[4],
+            loadFailureCount: stats[5],
+            totalLoadTime: <decimal>stats[6] / 1000000000
+        };
+    }
+
+    # Writes the entries of the cache to a snapshot at the given path, from which a cache is restored when it is
+    # initialized with the path as its `snapshotPath`. The entries are written one at a time in the order of their
+    # recency, along with the times at which they expire, and the snapshot replaces the previous one at the path only
+    # once it is complete. Only the entries whose values are `string`, `byte[]` or `json` are written.
+    # ```ballerina
+    # check cache.snapshot("/var/cache/users.snapshot");
+    # ```
+    #
+    # + path - The path of the snapshot
+    # + return - `()` if the snapshot was written or a `cache:Error` if it could not be written
+    public isolated function snapshot(string path) returns Error? {
+        error? result = externSnapshot(self, path);
+        if result is error {
+            return prepareError("Failed to write the snapshot of the cache to: " + path + ".", result);
+        }
+    }
+
     # Returns the capacity of the cache.
     # ```ballerina
     # int result = cache.capacity();
@@ -246,6 +585,22 @@ public isolated class Cache {
     }
 }
 
+# Iterates over the keys of a `cache:Cache` for `keyStream()`.
+isolated class KeyIterator {
+
+    private final string? prefix;
+
+    isolated function init(Cache cache, string? prefix) {
+        self.prefix = prefix;
+        externInitKeyIterator(self, cache);
+    }
+
+    public isolated function next() returns record {| string value; |}? {
+        string? key = externNextKey(self, self.prefix);
+        return key is string ? {value: key} : ();
+    }
+}
+
 isolated function externInit(Cache cache) = @java:Method {
     'class: "io.ballerina.stdlib.cache.nativeimpl.Cache"
 } external;
@@ -262,15 +617,71 @@ isolated function externKeys(Cache cache) returns string[] = @java:Method {
     'class: "io.ballerina.stdlib.cache.nativeimpl.Cache"
 } external;
 
+isolated function externKeysPage(Cache cache, string? cursor, int 'limit, string? prefix, string[] keys)
+        returns string? = @java:Method {
+    'class: "io.ballerina.stdlib.cache.nativeimpl.Cache"
+} external;
+
+isolated function externInitKeyIterator(KeyIterator iterator, Cache cache) = @java:Method {
+    'class: "io.ballerina.stdlib.cache.nativeimpl.Cache"
+} external;
+
+isolated function externNextKey(KeyIterator iterator, string? prefix) returns string? = @java:Method {
+    'class: "io.ballerina.stdlib.cache.nativeimpl.Cache"
+} external;
+
+isolated function externPutWithTags(Cache cache, string key, any value, decimal maxAge, string[] tags) =
+        @java:Method {
+    'class: "io.ballerina.stdlib.cache.nativeimpl.Cache"
+} external;
+
+isolated function externRemoveByTag(Cache cache, string tag) = @java:Method {
+    'class: "io.ballerina.stdlib.cache.nativeimpl.Cache"
+} external;
+
+isolated function externRemoveByPrefix(Cache cache, string prefix) = @java:Method {
+    'class: "io.ballerina.stdlib.cache.nativeimpl.Cache"
+} external;
+
 isolated function externSize(Cache cache) returns int = @java:Method {
     'class: "io.ballerina.stdlib.cache.nativeimpl.Cache"
 } external;
 
-isolated function externPut(Cache cache, string key, any value) = @java:Method {
+isolated function externPut(Cache cache, string key, any value, decimal maxAge) = @java:Method {
     'class: "io.ballerina.stdlib.cache.nativeimpl.Cache"
 } external;
 
-isolated function externGet(Cache cache, string key, decimal currentTime) returns CacheEntry? = @java:Method {
+isolated function externGet(Cache cache, string key) returns any = @java:Method {
+    'class: "io.ballerina.stdlib.cache.nativeimpl.Cache"
+} external;
+
+isolated function externGetOrLoad(Cache cache, string key, Loader loader, decimal maxAge)
+        returns any|error = @java:Method {
+    'class: "io.ballerina.stdlib.cache.nativeimpl.Cache"
+} external;
+
+isolated function externTryStartRefresh(Cache cache, string key, decimal refreshAfter)
+        returns boolean = @java:Method {
+    'class: "io.ballerina.stdlib.cache.nativeimpl.Cache"
+} external;
+
+isolated function externCompleteRefresh(Cache cache, string key, any value, decimal maxAge) = @java:Method {
+    'class: "io.ballerina.stdlib.cache.nativeimpl.Cache"
+} external;
+
+isolated function externGetAll(Cache cache, string[] keys) returns map<any> = @java:Method {
+    'class: "io.ballerina.stdlib.cache.nativeimpl.Cache"
+} external;
+
+isolated function externPutAll(Cache cache, map<any> entries, decimal maxAge) = @java:Method {
+    'class: "io.ballerina.stdlib.cache.nativeimpl.Cache"
+} external;
+
+isolated function externRemoveKeys(Cache cache, string[] keys) = @java:Method {
+    'class: "io.ballerina.stdlib.cache.nativeimpl.Cache"
+} external;
+
+isolated function externStats(Cache cache) returns int[] = @java:Method {
     'class: "io.ballerina.stdlib.cache.nativeimpl.Cache"
 } external;
 
@@ -278,6 +689,10 @@ isolated function externRemove(Cache cache, string key) = @java:Method {
     'class: "io.ballerina.stdlib.cache.nativeimpl.Cache"
 } external;
 
-isolated function externCleanUp(Cache cache, decimal currentTime) = @java:Method {
+isolated function externSnapshot(Cache cache, string path) returns error? = @java:Method {
+    'class: "io.ballerina.stdlib.cache.nativeimpl.Cache"
+} external;
+
+isolated function externRestore(Cache cache, string path) returns error? = @java:Method {
     'class: "io.ballerina.stdlib.cache.nativeimpl.Cache"
 } external;
@@ -20,8 +20,9 @@ public type Error distinct error;
 # Prepare the `error` as a `cache:Error`.
 #
 # + message - Error message
+# + err - The `error` instance which caused the failure
 # + return - Prepared `Error` instance
-isolated function prepareError(string message) returns Error {
-    Error cacheError = error Error(message);
+isolated function prepareError(string message, error? err = ()) returns Error {
+    Error cacheError = error Error(message, err);
     return cacheError;
 }
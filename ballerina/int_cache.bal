@@ -0,0 +1,271 @@
+// Copyright (c) 2026 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/constraint;
+import ballerina/jballerina.java;
+
+# Represents configurations for the `cache:IntCache` object.
+#
+# + capacity - Maximum number of entries allowed in the cache
+# + evictionFactor - The factor by which the least recently used entries will be evicted once the cache is full
+# + defaultMaxAge - The max-age in seconds which all the cache entries are valid. '-1' means, the entries are
+#                   valid forever. This will be overwritten by the `maxAge` property set when inserting item into
+#                   the cache
+# + cleanupInterval - Interval (in seconds) at which the expired entries of the cache are removed by the cleanup
+#                     thread, which is shared by all the caches
+# + recordStats - Whether the statistics of the cache are recorded, which are retrieved with `stats()`
+# + segments - The number of segments which the entries of the cache are hashed to. Each segment is evicted
+#              independently with its share of the capacity, so that the concurrent writes to different segments do
+#              not wait for each other, while the least recently used entries of the cache as a whole are approximated
+public type IntCacheConfig record {|
+    @constraint:Int {
+        minValue: 1
+    }
+    int capacity = 100;
+    @constraint:Float {
+        minValueExclusive: 0,
+        maxValue: 1
+    }
+    float evictionFactor = 0.25;
+    @constraint:Number {
+        minValue: -1
+    }
+    decimal defaultMaxAge = -1;
+    @constraint:Number {
+        minValueExclusive: 0
+    }
+    decimal cleanupInterval = 1;
+    boolean recordStats = false;
+    @constraint:Int {
+        minValue: 1
+    }
+    int segments = 1;
+|};
+
+# The `cache:IntCache` object, which caches the values of `int` keys such as numeric ids. The keys are held natively
+# as they are, in a table which stores no objects for them, so that a lookup neither converts the key to a `string`
+# nor allocates. The reads do not lock the cache, and the least recently used entries are evicted by the eviction
+# factor once the cache is full. The expired entries are removed by the cleanup thread and by the reads which find
+# them.
+public isolated class IntCache {
+
+    private final int maxCapacity;
+    private final float evictionFactor;
+    private final decimal defaultMaxAge;
+    private final decimal cleanupInterval;
+    private final boolean recordStats;
+    private final int segments;
+
+    # Initializes new `cache:IntCache` instance.
+    # ```ballerina
+    # cache:IntCache cache = new(capacity = 10, evictionFactor = 0.2);
+    # ```
+    #
+    # + cacheConfig - Configurations for the `cache:IntCache` object
+    public isolated function init(*IntCacheConfig cacheConfig) {
+        IntCacheConfig|error validatedConfig = constraint:validate(cacheConfig);
+        if validatedConfig is error {
+            panic prepareError(validatedConfig.message());
+        }
+        self.maxCapacity = validatedConfig.capacity;
+        self.evictionFactor = validatedConfig.evictionFactor;
+        self.defaultMaxAge = validatedConfig.defaultMaxAge;
+        self.cleanupInterval = validatedConfig.cleanupInterval;
+        self.recordStats = validatedConfig.recordStats;
+        self.segments = validatedConfig.segments;
+        externIntInit(self);
+    }
+
+    # Adds the given key value pair to the cache. If the cache previously contained a value associated with the
+    # provided key, the old value will be replaced by the newly-provided value.
+    # ```ballerina
+    # check cache.put(42, "Ballerina");
+    # ```
+    #
+    # + key - Key of the value to be cached
+    # + value - Value to be cached. Value should not be `()`
+    # + maxAge - The time in seconds for which the cache entry is valid. If the value is '-1', the `defaultMaxAge` of
+    #            the cache is used
+    # + return - `()` if successfully added to the cache or a `cache:Error` if a `()` value is inserted to the cache
+    public isolated function put(int key, any value, decimal maxAge = -1) returns Error? {
+        if value is () {
+            return prepareError(string `Unsupported cache value '()' for the key: ${key}.`);
+        }
+        decimal calculatedMaxAge = self.defaultMaxAge;
+        if maxAge != -1d && maxAge > 0d {
+            calculatedMaxAge = maxAge;
+        }
+        externIntPut(self, key, value, calculatedMaxAge);
+    }
+
+    # Returns the cached value associated with the provided key.
+    # ```ballerina
+    # any value = check cache.get(42);
+    # ```
+    #
+    # + key - Key of the cached value, which should be retrieved
+    # + return - The cached value associated with the provided key or a `cache:Error` if the provided cache key is not
+    #            available in the cache
+    public isolated function get(int key) returns any|Error {
+        any? value = externIntGet(self, key);
+        if value is () {
+            return prepareError(string `Cache entry from the given key: ${key}, is not available.`);
+        }
+        return value;
+    }
+
+    # Discards a cached value from the cache.
+    # ```ballerina
+    # check cache.invalidate(42);
+    # ```
+    #
+    # + key - Key of the cache value, which needs to be discarded from the cache
+    # + return - `()` if successfully discarded the value or a `cache:Error` if the provided cache key is not present
+    #            in the cache
+    public isolated function invalidate(int key) returns Error? {
+        if !self.hasKey(key) {
+            return prepareError(string `Cache entry from the given key: ${key}, is not available.`);
+        }
+        externIntRemove(self, key);
+    }
+
+    # Discards all the cached values from the cache.
+    # ```ballerina
+    # check cache.invalidateAll();
+    # ```
+    #
+    # + return - `()` if successfully discarded all the values from the cache
+    public isolated function invalidateAll() returns Error? {
+        externIntRemoveAll(self);
+    }
+
+    # Checks whether the given key has an associated cached value.
+    # ```ballerina
+    # boolean result = cache.hasKey(42);
+    # ```
+    #
+    # + key - The key to be checked in the cache
+    # + return - `true` if a cached value is available for the provided key or `false` if there is no cached value
+    #            associated for the given key
+    public isolated function hasKey(int key) returns boolean {
+        return externIntHasKey(self, key);
+    }
+
+    # Returns a list of all the keys from the cache, from the least recently used to the most recently used of each
+    # segment.
+    # ```ballerina
+    # int[] keys = cache.keys();
+    # ```
+    #
+    # + return - Array of all the keys from the cache
+    public isolated function keys() returns int[] {
+        return externIntKeys(self);
+    }
+
+    # Returns the size of the cache, which does not include the expired entries.
+    # ```ballerina
+    # int result = cache.size();
+    # ```
+    #
+    # + return - The size of the cache
+    public isolated function size() returns int {
+        return externIntSize(self);
+    }
+
+    # Returns the statistics of the cache. The statistics are only recorded if the `recordStats` of the cache is
+    # enabled, and are all zero otherwise.
+    # ```ballerina
+    # cache:CacheStats stats = cache.stats();
+    # ```
+    #
+    # + return - The statistics recorded since the cache was created
+    public isolated function stats() returns CacheStats {
+        int[] stats = externIntStats(self);
+        int requestCount = stats[0] + stats[1];
+        return {
+            hitCount: stats[0],
+            missCount: stats[1],
+            hitRate: requestCount == 0 ? 1.0 : <float>stats[0] / <float>requestCount,
+            expirationCount: stats[2],
+            evictionCount: stats[3],
+            loadSuccessCount: stats[4],
+            loadFailureCount: stats[5],
+            totalLoadTime: <decimal>stats[6] / 1000000000
+        };
+    }
+
+    # Returns the capacity of the cache, which is the maximum number of entries that the native tables of the cache
+    # can hold. It is less than the configured capacity if the share of the capacity of a segment exceeds the
+    # maximum size of its table.
+    # ```ballerina
+    # int result = cache.capacity();
+    # ```
+    #
+    # + return - The capacity of the cache
+    public isolated function capacity() returns int {
+        return externIntCapacity(self);
+    }
+}
+
+isolated function externIntInit(IntCache cache) = @java:Method {
+    'class: "io.ballerina.stdlib.cache.nativeimpl.IntCache",
+    name: "externInit"
+} external;
+
+isolated function externIntPut(IntCache cache, int key, any value, decimal maxAge) = @java:Method {
+    'class: "io.ballerina.stdlib.cache.nativeimpl.IntCache",
+    name: "externPut"
+} external;
+
+isolated function externIntGet(IntCache cache, int key) returns any = @java:Method {
+    'class: "io.ballerina.stdlib.cache.nativeimpl.IntCache",
+    name: "externGet"
+} external;
+
+isolated function externIntRemove(IntCache cache, int key) = @java:Method {
+    'class: "io.ballerina.stdlib.cache.nativeimpl.IntCache",
+    name: "externRemove"
+} external;
+
+isolated function externIntRemoveAll(IntCache cache) = @java:Method {
+    'class: "io.ballerina.stdlib.cache.nativeimpl.IntCache",
+    name: "externRemoveAll"
+} external;
+
+isolated function externIntHasKey(IntCache cache, int key) returns boolean = @java:Method {
+    'class: "io.ballerina.stdlib.cache.nativeimpl.IntCache",
+    name: "externHasKey"
+} external;
+
+isolated function externIntKeys(IntCache cache) returns int[] = @java:Method {
+    'class: "io.ballerina.stdlib.cache.nativeimpl.IntCache",
+    name: "externKeys"
+} external;
+
+isolated function externIntSize(IntCache cache) returns int = @java:Method {
+    'class: "io.ballerina.stdlib.cache.nativeimpl.IntCache",
+    name: "externSize"
+} external;
+
+isolated function externIntCapacity(IntCache cache) returns int = @java:Method {
+    'class: "io.ballerina.stdlib.cache.nativeimpl.IntCache",
+    name: "externCapacity"
+} external;
+
+isolated function externIntStats(IntCache cache) returns int[] = @java:Method {
+    'class: "io.ballerina.stdlib.cache.nativeimpl.IntCache",
+    name: "externStats"
+} external;
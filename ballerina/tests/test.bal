@@ -333,6 +333,24 @@ isolated function testCacheEvictionWithTimer2() returns error? {
     test:assertEquals(cache.keys(), keys);
 }
 
+@test:Config {
+    groups: ["cache", "capacity", "policy"]
+}
+isolated function testCacheEvictionWithTimerOfManyCaches() returns error? {
+    decimal cleanupInterval = 1;
+    Cache[] caches = [];
+    foreach int i in 0 ..< 100 {
+        Cache cache = new(capacity = 10, defaultMaxAge = 1, cleanupInterval = cleanupInterval);
+        check cache.put("A", "1");
+        check cache.put("B", "2", 3600);
+        caches.push(cache);
+    }
+    runtime:sleep(cleanupInterval * 2 + 2);
+    foreach Cache cache in caches {
+        test:assertEquals(cache.keys(), ["B"]);
+    }
+}
+
 @test:Config {
     groups: ["cache", "put", "negative"]
 }
@@ -377,3 +395,635 @@ isolated function testEvictionCount() returns error? {
     test:assertEquals(cache.size(), keys.length(), "Cache size did not match");
     test:assertEquals(cache.keys(), keys, "Cache keys did not match");
 }
+
+@test:Config {
+    groups: ["cache", "Eviction", "policy"]
+}
+isolated function testTinyLfuEvictionRetainsFrequentlyUsedEntry() returns error? {
+    CacheConfig config = {
+        capacity: 10,
+        evictionFactor: 0.2,
+        evictionPolicy: TINY_LFU
+    };
+    Cache cache = new(config);
+    foreach int i in 0 ..< 10 {
+        check cache.put(i.toString(), i);
+    }
+    foreach int i in 0 ..< 3 {
+        _ = check cache.get("0");
+    }
+    foreach int i in 0 ..< 20 {
+        check cache.put("scan" + i.toString(), i);
+    }
+    test:assertEquals(cache.size(), 10);
+    test:assertTrue(cache.hasKey("0"));
+}
+
+@test:Config {
+    groups: ["cache", "load"]
+}
+isolated function testGetOrLoad() returns error? {
+    Cache cache = new(capacity = 10);
+    check cache.put("cached", "cachedValue");
+    Loader loader = isolated function(string key) returns any|error => key + "Loaded";
+    test:assertEquals(check cache.getOrLoad("cached", loader), "cachedValue");
+    test:assertEquals(check cache.getOrLoad("missing", loader), "missingLoaded");
+    test:assertEquals(check cache.get("missing"), "missingLoaded");
+    test:assertEquals(cache.size(), 2);
+}
+
+@test:Config {
+    groups: ["cache", "load"]
+}
+isolated function testGetOrLoadWithLoaderError() {
+    Cache cache = new(capacity = 10);
+    Loader loader = isolated function(string key) returns any|error => error("Backend unavailable");
+    any|Error value = cache.getOrLoad("key", loader);
+    if value is Error {
+        test:assertEquals(value.message(), "Failed to load the cache entry for the key: key.");
+        test:assertEquals((<error>value.cause()).message(), "Backend unavailable");
+    } else {
+        test:assertFail("Output mismatched");
+    }
+    test:assertFalse(cache.hasKey("key"));
+}
+
+final Cache reentrantCache = new(capacity = 10);
+
+@test:Config {
+    groups: ["cache", "load"]
+}
+isolated function testGetOrLoadWithReentrantLoader() returns error? {
+    Loader loader = isolated function(string key) returns any|error {
+        check reentrantCache.put(key + ":put", "put");
+        string dependency = <string>check reentrantCache.getOrLoad(key + ":dependency",
+                isolated function(string dependencyKey) returns any|error => "loaded");
+        return dependency + "+" + key;
+    };
+    test:assertEquals(check reentrantCache.getOrLoad("key", loader), "loaded+key");
+    test:assertEquals(check reentrantCache.get("key:put"), "put");
+    test:assertEquals(check reentrantCache.get("key:dependency"), "loaded");
+    test:assertEquals(reentrantCache.size(), 3);
+}
+
+isolated int refreshLoadCount = 0;
+
+@test:Config {
+    groups: ["cache", "load", "refresh"]
+}
+isolated function testGetOrLoadRefreshesInBackground() returns error? {
+    Cache cache = new(capacity = 10, refreshAfter = 1);
+    Loader loader = isolated function(string key) returns any|error {
+        lock {
+            refreshLoadCount += 1;
+            return key + refreshLoadCount.toString();
+        }
+    };
+    test:assertEquals(check cache.getOrLoad("key", loader), "key1");
+    runtime:sleep(1.5);
+    // The stale value is returned while the entry is reloaded in the background
+    test:assertEquals(check cache.getOrLoad("key", loader), "key1");
+    runtime:sleep(0.5);
+    test:assertEquals(check cache.get("key"), "key2");
+}
+
+@test:Config {
+    groups: ["cache", "bulk"]
+}
+isolated function testBulkOperations() returns error? {
+    Cache cache = new(capacity = 10);
+    check cache.putAll({"A": 1, "B": 2, "C": 3});
+    test:assertEquals(cache.size(), 3);
+    map<any> values = cache.getAll(["A", "C", "D"]);
+    test:assertEquals(values.length(), 2);
+    test:assertEquals(values["A"], 1);
+    test:assertEquals(values["C"], 3);
+    cache.invalidateKeys(["A", "B", "D"]);
+    test:assertEquals(cache.keys(), ["C"]);
+}
+
+@test:Config {
+    groups: ["cache", "bulk"]
+}
+isolated function testPutAllWithNilValue() {
+    Cache cache = new(capacity = 10);
+    Error? result = cache.putAll({"A": 1, "B": ()});
+    if result is Error {
+        test:assertEquals(result.message(), "Unsupported cache value '()' for the key: B.");
+    } else {
+        test:assertFail("Output mismatched");
+    }
+    test:assertEquals(cache.size(), 0);
+}
+
+@test:Config {
+    groups: ["cache", "bulk", "Eviction"]
+}
+isolated function testPutAllEvictsToCapacity() returns error? {
+    Cache cache = new(capacity = 5, evictionFactor = 0.2);
+    check cache.putAll({"A": 1, "B": 2, "C": 3, "D": 4});
+    check cache.putAll({"E": 5, "F": 6, "G": 7});
+    test:assertEquals(cache.size(), 5);
+    test:assertTrue(cache.hasKey("G"));
+}
+
+@test:Config {
+    groups: ["cache", "stats"]
+}
+isolated function testStats() returns error? {
+    Cache cache = new(capacity = 4, evictionFactor = 0.25, recordStats = true);
+    foreach int i in 0 ..< 5 {
+        check cache.put(i.toString(), i);
+    }
+    _ = check cache.get("4");
+    any|Error missing = cache.get("0");
+    test:assertTrue(missing is Error);
+    _ = check cache.getOrLoad("loaded", isolated function(string key) returns any|error => key);
+    CacheStats stats = cache.stats();
+    test:assertEquals(stats.hitCount, 1);
+    test:assertEquals(stats.missCount, 2);
+    test:assertEquals(stats.hitRate, 1.0 / 3.0);
+    test:assertEquals(stats.evictionCount, 1);
+    test:assertEquals(stats.loadSuccessCount, 1);
+    test:assertEquals(stats.loadFailureCount, 0);
+}
+
+@test:Config {
+    groups: ["cache", "stats"]
+}
+isolated function testStatsNotRecordedByDefault() returns error? {
+    Cache cache = new(capacity = 10);
+    check cache.put("A", 1);
+    _ = check cache.get("A");
+    CacheStats stats = cache.stats();
+    test:assertEquals(stats.hitCount, 0);
+    test:assertEquals(stats.hitRate, 1.0);
+}
+
+@test:Config {
+    groups: ["cache", "metrics"]
+}
+isolated function testNamedCache() returns error? {
+    Cache cache = new(capacity = 10, name = "testNamedCache");
+    check cache.put("A", 1);
+    test:assertEquals(check cache.get("A"), 1);
+    test:assertEquals(cache.size(), 1);
+}
+
+@test:Config {
+    groups: ["cache", "weight"]
+}
+isolated function testMaxWeight() returns error? {
+    Cache cache = new(maxWeight = 100, evictionFactor = 0.2);
+    byte[] payload = [];
+    payload.setLength(30);
+    check cache.put("A", payload.clone());
+    check cache.put("B", payload.clone());
+    check cache.put("C", payload.clone());
+    test:assertEquals(cache.size(), 3);
+    check cache.put("D", payload.clone());
+    test:assertEquals(cache.size(), 2);
+    test:assertFalse(cache.hasKey("A"));
+    test:assertFalse(cache.hasKey("B"));
+    test:assertTrue(cache.hasKey("C"));
+    test:assertTrue(cache.hasKey("D"));
+}
+
+@test:Config {
+    groups: ["cache", "weight"]
+}
+isolated function testMaxWeightOfMaps() returns error? {
+    Cache cache = new(maxWeight = 30);
+    check cache.put("A", {"name": "Ballerina"});
+    check cache.put("B", {"name": "Ballerina"});
+    test:assertEquals(cache.size(), 2);
+    check cache.put("C", {"name": "Ballerina"});
+    test:assertEquals(cache.size(), 1);
+    test:assertTrue(cache.hasKey("C"));
+}
+
+@test:Config {
+    groups: ["cache", "weight"]
+}
+isolated function testMaxWeightWithWeigher() returns error? {
+    Cache cache = new(maxWeight = 30, weigher = isolated function(any value) returns int =>
+        value is string ? value.length() : 100);
+    check cache.put("A", "Ballerina!");
+    check cache.put("B", "Ballerina!");
+    check cache.put("C", "Ballerina!");
+    test:assertEquals(cache.size(), 3);
+    check cache.put("D", "Ballerina!");
+    test:assertEquals(cache.size(), 2);
+    test:assertTrue(cache.hasKey("C"));
+    test:assertTrue(cache.hasKey("D"));
+    check cache.put("E", 1);
+    test:assertEquals(cache.size(), 0);
+}
+
+@test:Config {
+    groups: ["cache", "maintenance"]
+}
+isolated function testAsyncMaintenance() returns error? {
+    Cache cache = new(capacity = 5, evictionFactor = 0.2, asyncMaintenance = true);
+    foreach int i in 0 ..< 10 {
+        check cache.put(i.toString(), i);
+    }
+    test:assertEquals(check cache.get("9"), 9);
+    int attempts = 0;
+    while cache.size() > 5 && attempts < 50 {
+        runtime:sleep(0.1);
+        attempts += 1;
+    }
+    test:assertTrue(cache.size() <= 5);
+    check cache.invalidate("9");
+    test:assertFalse(cache.hasKey("9"));
+}
+
+@test:Config {
+    groups: ["cache", "listener"]
+}
+isolated function testRemovalListener() returns error? {
+    final Cache removals = new;
+    Cache cache = new(capacity = 2, evictionFactor = 0.5,
+        onRemoval = isolated function(string key, any value, RemovalCause cause) {
+            checkpanic removals.put(string `${key}:${cause}`, value);
+        }
+    );
+    check cache.put("A", "1");
+    check cache.put("A", "2");
+    check cache.put("B", "3");
+    check cache.put("C", "4");
+    check cache.invalidate("B");
+    int attempts = 0;
+    while removals.size() < 3 && attempts < 50 {
+        runtime:sleep(0.1);
+        attempts += 1;
+    }
+    test:assertEquals(removals.size(), 3);
+    test:assertEquals(check removals.get("A:REPLACED"), "1");
+    test:assertEquals(check removals.get("A:SIZE"), "2");
+    test:assertEquals(check removals.get("B:EXPLICIT"), "3");
+}
+
+@test:Config {
+    groups: ["cache", "writer"]
+}
+isolated function testWriteBehind() returns error? {
+    final Cache database = new;
+    Cache cache = new(flushSize = 2, flushInterval = 0.5, writer = isolated function(map<any> entries) returns error? {
+        check database.putAll(entries);
+    });
+    check cache.put("A", "1");
+    check cache.put("A", "2");
+    check cache.put("B", "3");
+    check cache.put("C", "4");
+    int attempts = 0;
+    while database.size() < 3 && attempts < 50 {
+        runtime:sleep(0.1);
+        attempts += 1;
+    }
+    test:assertEquals(check database.get("A"), "2");
+    test:assertEquals(check database.get("B"), "3");
+    test:assertEquals(check database.get("C"), "4");
+}
+
+@test:Config {
+    groups: ["cache", "writer"]
+}
+isolated function testWriteBehindDiscardsInvalidatedEntries() returns error? {
+    final Cache database = new;
+    Cache cache = new(flushSize = 10, flushInterval = 0.5, writer = isolated function(map<any> entries) returns error? {
+        check database.putAll(entries);
+    });
+    check cache.put("A", "1");
+    check cache.put("B", "2");
+    check cache.put("C", "3");
+    check cache.invalidate("A");
+    cache.invalidateKeys(["B"]);
+    int attempts = 0;
+    while database.size() < 1 && attempts < 50 {
+        runtime:sleep(0.1);
+        attempts += 1;
+    }
+    runtime:sleep(0.6);
+    test:assertEquals(database.keys(), ["C"]);
+
+    check cache.put("D", "4");
+    check cache.invalidateAll();
+    runtime:sleep(1);
+    test:assertEquals(database.keys(), ["C"]);
+}
+
+type Book record {|
+    string title;
+|};
+
+@test:Config {
+    groups: ["cache", "offheap"]
+}
+isolated function testOffHeap() returns error? {
+    Cache cache = new(capacity = 10, offHeap = true);
+    json document = check "{\"name\": \"Ballerina\", \"tags\": [\"cache\", 1]}".fromJsonString();
+    Book book = {title: "Ballerina"};
+    check cache.put("string", "Ballerina");
+    check cache.put("bytes", "Ballerina".toBytes());
+    check cache.put("json", document);
+    check cache.put("record", book);
+    test:assertEquals(check cache.get("string"), "Ballerina");
+    test:assertEquals(check cache.get("bytes"), "Ballerina".toBytes());
+    test:assertEquals(check cache.get("json"), document);
+    any value = check cache.get("record");
+    test:assertTrue(value is Book);
+    check cache.put("string", "Cache");
+    test:assertEquals(check cache.get("string"), "Cache");
+    map<any> entries = cache.getAll(["string", "bytes"]);
+    test:assertEquals(entries["string"], "Cache");
+    check cache.invalidate("string");
+    test:assertFalse(cache.hasKey("string"));
+    test:assertEquals(cache.size(), 3);
+}
+
+@test:Config {
+    groups: ["cache", "segments"]
+}
+isolated function testSegmentedCache() returns error? {
+    Cache cache = new(capacity = 8, segments = 4, evictionFactor = 0.5);
+    foreach int i in 0 ..< 8 {
+        check cache.put(i.toString(), i);
+    }
+    test:assertEquals(cache.size(), 8);
+    test:assertEquals(cache.keys().length(), 8);
+    test:assertEquals(check cache.get("5"), 5);
+    map<any> entries = cache.getAll(["1", "3"]);
+    test:assertEquals(entries.length(), 2);
+    foreach int i in 8 ..< 16 {
+        check cache.put(i.toString(), i);
+    }
+    test:assertTrue(cache.size() <= 8);
+    test:assertTrue(cache.hasKey("15"));
+    check cache.invalidateAll();
+    test:assertEquals(cache.size(), 0);
+}
+
+@test:Config {
+    groups: ["cache", "int"]
+}
+isolated function testIntCache() returns error? {
+    IntCache cache = new(capacity = 4, evictionFactor = 0.5, recordStats = true);
+    foreach int i in 1 ... 4 {
+        check cache.put(i * 1000, i);
+    }
+    test:assertEquals(check cache.get(1000), 1);
+    check cache.put(5000, 5);
+    // The two least recently used entries are evicted by the eviction factor
+    test:assertEquals(cache.size(), 3);
+    test:assertEquals(cache.keys(), [4000, 1000, 5000]);
+    test:assertFalse(cache.hasKey(2000));
+    any|Error value = cache.get(2000);
+    test:assertTrue(value is Error);
+    if value is Error {
+        test:assertEquals(value.message(), "Cache entry from the given key: 2000, is not available.");
+    }
+    check cache.put(-1, "negative", 1);
+    test:assertEquals(check cache.get(-1), "negative");
+    runtime:sleep(1.5);
+    test:assertFalse(cache.hasKey(-1));
+    test:assertTrue(cache.put(6000, ()) is Error);
+    check cache.invalidate(1000);
+    test:assertTrue(cache.invalidate(1000) is Error);
+    CacheStats stats = cache.stats();
+    test:assertEquals(stats.hitCount, 2);
+    test:assertEquals(stats.missCount, 1);
+    test:assertEquals(stats.evictionCount, 2);
+    check cache.invalidateAll();
+    test:assertEquals(cache.size(), 0);
+    test:assertEquals(cache.capacity(), 4);
+}
+
+@test:Config {
+    groups: ["cache", "int"]
+}
+isolated function testIntCacheCleanup() returns error? {
+    IntCache cache = new(capacity = 100, cleanupInterval = 0.5, segments = 4, recordStats = true);
+    foreach int i in 0 ..< 20 {
+        check cache.put(i, i, i % 2 == 0 ? 1 : -1);
+    }
+    test:assertEquals(cache.size(), 20);
+    runtime:sleep(2);
+    // The expired entries are removed by the cleanup without being read
+    test:assertEquals(cache.stats().expirationCount, 10);
+    test:assertEquals(cache.size(), 10);
+    test:assertEquals(cache.keys().length(), 10);
+    test:assertEquals(cache.capacity(), 100);
+}
+
+@test:Config {
+    groups: ["cache", "keys"]
+}
+isolated function testKeysPage() returns error? {
+    Cache cache = new(capacity = 20, segments = 2);
+    foreach int i in 0 ..< 10 {
+        check cache.put("user:" + i.toString(), i);
+        check cache.put("item:" + i.toString(), i);
+    }
+    string[] keys = [];
+    string? cursor = ();
+    boolean firstPage = true;
+    while firstPage || cursor is string {
+        KeysPage page = check cache.keysPage(cursor, 3, "user:");
+        test:assertTrue(page.keys.length() <= 3);
+        keys.push(...page.keys);
+        cursor = page.nextCursor;
+        firstPage = false;
+    }
+    test:assertEquals(keys, ["user:0", "user:1", "user:2", "user:3", "user:4", "user:5", "user:6", "user:7", "user:8",
+            "user:9"]);
+    KeysPage page = check cache.keysPage(pageSize = 100);
+    test:assertEquals(page.keys.length(), 20);
+    test:assertEquals(page.nextCursor, ());
+    page = check cache.keysPage(pageSize = 20);
+    test:assertEquals(page.nextCursor, ());
+    KeysPage|Error invalidPage = cache.keysPage(pageSize = 0);
+    test:assertTrue(invalidPage is Error);
+}
+
+@test:Config {
+    groups: ["cache", "keys"]
+}
+isolated function testKeysPageWithChangesBetweenPages() returns error? {
+    foreach boolean prefixIndex in [false, true] {
+        Cache cache = new(capacity = 100, segments = 4, prefixIndex = prefixIndex);
+        foreach int i in 10 ..< 40 {
+            check cache.put("key:" + i.toString(), i);
+        }
+        // The keys are added and removed between the pages, before and after the cursor
+        map<int> seen = {};
+        KeysPage page = check cache.keysPage(pageSize = 5);
+        int pageCount = 0;
+        while true {
+            foreach string key in page.keys {
+                test:assertFalse(seen.hasKey(key), "duplicate key: " + key);
+                seen[key] = 1;
+            }
+            string? cursor = page.nextCursor;
+            if cursor is () {
+                break;
+            }
+            pageCount += 1;
+            check cache.invalidate("key:" + (10 + pageCount).toString());
+            check cache.put("key:0" + pageCount.toString(), pageCount);
+            check cache.put("key:9" + pageCount.toString(), pageCount);
+            page = check cache.keysPage(cursor, 5);
+        }
+        // The keys which were in the cache throughout the paging are all returned once
+        foreach int i in 20 ..< 40 {
+            test:assertTrue(seen.hasKey("key:" + i.toString()), "missing key: key:" + i.toString());
+        }
+        test:assertTrue(seen.hasKey("key:10"));
+    }
+}
+
+@test:Config {
+    groups: ["cache", "keys"]
+}
+isolated function testKeyStream() returns error? {
+    Cache cache = new(capacity = 10);
+    check cache.put("user:1", 1);
+    check cache.put("user:2", 2);
+    check cache.put("item:1", 1);
+    string[] keys = from string key in cache.keyStream("user:") order by key ascending select key;
+    test:assertEquals(keys, ["user:1", "user:2"]);
+    int count = 0;
+    from string _ in cache.keyStream() do {
+        count += 1;
+    };
+    test:assertEquals(count, 3);
+}
+
+@test:Config {
+    groups: ["cache", "tags"]
+}
+isolated function testInvalidateByTag() returns error? {
+    Cache cache = new(capacity = 10);
+    check cache.putWithTags("order:1", 1, ["tenant:a"]);
+    check cache.putWithTags("order:2", 2, ["tenant:a", "tenant:b"]);
+    check cache.putWithTags("order:3", 3, ["tenant:b"]);
+    check cache.put("order:4", 4);
+    cache.invalidateByTag("tenant:a");
+    test:assertFalse(cache.hasKey("order:1"));
+    test:assertFalse(cache.hasKey("order:2"));
+    test:assertTrue(cache.hasKey("order:3"));
+    test:assertTrue(cache.hasKey("order:4"));
+    // An entry which is put again without the tag is not invalidated by it
+    check cache.put("order:3", 3);
+    cache.invalidateByTag("tenant:b");
+    test:assertTrue(cache.hasKey("order:3"));
+    test:assertEquals(cache.size(), 2);
+    Error? result = cache.putWithTags("order:5", (), ["tenant:a"]);
+    test:assertTrue(result is Error);
+}
+
+@test:Config {
+    groups: ["cache", "tags"]
+}
+isolated function testInvalidateByPrefix() returns error? {
+    Cache indexedCache = new(capacity = 10, prefixIndex = true);
+    Cache cache = new(capacity = 10);
+    foreach Cache c in [indexedCache, cache] {
+        check c.put("user:1", 1);
+        check c.put("user:10", 10);
+        check c.put("item:1", 1);
+        c.invalidateByPrefix("user:1");
+        test:assertFalse(c.hasKey("user:1"));
+        test:assertFalse(c.hasKey("user:10"));
+        test:assertTrue(c.hasKey("item:1"));
+        check c.put("user:1", 1);
+        c.invalidateByPrefix("user:");
+        test:assertEquals(c.keys(), ["item:1"]);
+    }
+}
+
+@test:Config {
+    groups: ["cache", "snapshot"]
+}
+isolated function testSnapshot() returns error? {
+    string path = "target/snapshots/cache.snapshot";
+    Cache cache = new(capacity = 10);
+    json document = check "{\"name\": \"Ballerina\"}".fromJsonString();
+    check cache.put("string", "Ballerina");
+    check cache.put("json", document, 3600);
+    check cache.put("bytes", "Cache".toBytes());
+    check cache.put("record", <Book>{title: "Ballerina"});
+    _ = check cache.get("string");
+    check cache.snapshot(path);
+
+    // The serializable entries are restored in their order of recency, so the least recently used one is evicted
+    // first from a smaller cache
+    Cache restoredCache = new(capacity = 10, snapshotPath = path);
+    test:assertEquals(restoredCache.size(), 3);
+    test:assertEquals(check restoredCache.get("string"), "Ballerina");
+    test:assertEquals(check restoredCache.get("json"), document);
+    test:assertEquals(check restoredCache.get("bytes"), "Cache".toBytes());
+    test:assertFalse(restoredCache.hasKey("record"));
+    Cache smallCache = new(capacity = 2, snapshotPath = path);
+    test:assertEquals(smallCache.size(), 2);
+    test:assertFalse(smallCache.hasKey("json"));
+
+    Cache emptyCache = new(capacity = 10, snapshotPath = "target/snapshots/missing.snapshot");
+    test:assertEquals(emptyCache.size(), 0);
+}
+
+@test:Config {
+    groups: ["cache", "snapshot"]
+}
+isolated function testRestoreIntoSmallerCache() returns error? {
+    string path = "target/snapshots/large.snapshot";
+    Cache cache = new(capacity = 50);
+    foreach int i in 0 ..< 40 {
+        check cache.put(string `key-${i}`, string `value-${i}`);
+    }
+    check cache.snapshot(path);
+
+    // The restored entries are evicted like the ones which are put, so the cache stays within its capacity and keeps
+    // the most recently used entries
+    Cache restoredCache = new(capacity = 10, snapshotPath = path);
+    test:assertTrue(restoredCache.size() <= 10);
+    test:assertEquals(check restoredCache.get("key-39"), "value-39");
+    test:assertFalse(restoredCache.hasKey("key-0"));
+    Cache weightedCache = new(maxWeight = 40, snapshotPath = path);
+    test:assertTrue(weightedCache.size() <= 5);
+    test:assertEquals(check weightedCache.get("key-39"), "value-39");
+    test:assertFalse(weightedCache.hasKey("key-0"));
+}
+
+@test:Config {
+    groups: ["cache", "tiered"]
+}
+isolated function testTieredCache() returns error? {
+    TieredCache cache = new(path = "target/tiered/cache.data", diskCapacity = 10,
+                            memory = {capacity: 2, evictionFactor: 0.5});
+    check cache.put("A", "1");
+    check cache.put("B", "2".toBytes());
+    check cache.put("C", "3");
+    check cache.put("D", "4");
+    // The entries evicted from the memory are demoted to the disk in the background
+    runtime:sleep(0.5);
+    test:assertEquals(cache.size(), 4);
+    test:assertEquals(cache.capacity(), 12);
+    test:assertTrue(cache.hasKey("A"));
+    test:assertEquals(check cache.get("A"), "1");
+    test:assertEquals(check cache.get("B"), "2".toBytes());
+    runtime:sleep(0.5);
+    test:assertEquals(cache.size(), 4);
+    test:assertEquals(cache.keys().sort(), ["A", "B", "C", "D"]);
+
+    // A put replaces the value on the disk, and an invalidation removes it from both the memory and the disk
+    check cache.put("C", "5");
+    test:assertEquals(check cache.get("C"), "5");
+    runtime:sleep(0.5);
+    check cache.invalidate("D");
+    test:assertFalse(cache.hasKey("D"));
+    check cache.invalidateAll();
+    test:assertEquals(cache.size(), 0);
+    test:assertTrue(cache.get("A") is Error);
+}
@@ -0,0 +1,222 @@
+// Copyright (c) 2026 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/constraint;
+import ballerina/jballerina.java;
+
+# Represents configurations for the `cache:TieredCache` object.
+#
+# + path - The path of the file in which the entries evicted from the memory are stored. The file is replaced when
+#          the cache is initialized
+# + diskCapacity - Maximum number of entries stored on the disk. The entries which were stored on the disk first are
+#                  evicted once it is full
+# + compactionThreshold - The fraction of the file which is taken by the records of the removed entries once the file
+#                         is compacted
+# + memory - Configurations of the `cache:Cache` which holds the entries in the memory
+public type TieredCacheConfig record {|
+    string path;
+    @constraint:Int {
+        minValue: 1
+    }
+    int diskCapacity = 10000;
+    @constraint:Float {
+        minValueExclusive: 0,
+        maxValue: 1
+    }
+    float compactionThreshold = 0.5;
+    CacheConfig memory = {};
+|};
+
+# The `cache:TieredCache` object, which keeps the entries evicted from its `cache:Cache` in the memory in a local
+# file on the disk. The evicted entries are demoted to the disk along with their remaining max ages, and are promoted
+# back to the memory when they are read, so that a working set larger than the memory is served without reloading the
+# evicted entries. The entries are demoted in the background shortly after they are evicted, so a read of an entry
+# between its eviction and its demotion finds it in neither level and misses. The entries are only indexed in the
+# memory while their values are on the disk. Only the `string`, `byte[]` and `json` values are demoted to the disk,
+# and the entries of the other values are evicted as they are by the `cache:Cache`.
+public isolated class TieredCache {
+
+    *AbstractCache;
+
+    private final Cache memory;
+    private final int diskCapacity;
+    private final float compactionThreshold;
+
+    # Initializes new `cache:TieredCache` instance.
+    # ```ballerina
+    # cache:TieredCache cache = new(path = "/var/cache/products.data", memory = {capacity: 1000});
+    # ```
+    #
+    # + cacheConfig - Configurations for the `cache:TieredCache` object
+    public isolated function init(*TieredCacheConfig cacheConfig) {
+        TieredCacheConfig|error validatedConfig = constraint:validate(cacheConfig);
+        if validatedConfig is error {
+            panic prepareError(validatedConfig.message());
+        }
+        self.memory = new(validatedConfig.memory);
+        self.diskCapacity = validatedConfig.diskCapacity;
+        self.compactionThreshold = validatedConfig.compactionThreshold;
+        error? result = externTieredInit(self, self.memory, validatedConfig.path);
+        if result is error {
+            panic prepareError("Failed to create the disk store of the cache at: " + validatedConfig.path + ".",
+                    result);
+        }
+    }
+
+    # Adds the given key value pair to the memory of the cache, replacing the value of the key in the memory or on
+    # the disk.
+    # ```ballerina
+    # check cache.put("Hello", "Ballerina");
+    # ```
+    #
+    # + key - Key of the value to be cached
+    # + value - Value to be cached. Value should not be `()`
+    # + maxAge - The time in seconds for which the cache entry is valid. If the value is '-1', the `defaultMaxAge` of
+    #            the memory is used
+    # + return - `()` if successfully added to the cache or a `cache:Error` if a `()` value is inserted to the cache
+    public isolated function put(string key, any value, decimal maxAge = -1) returns Error? {
+        check self.memory.put(key, value, maxAge);
+        externTieredRemoveFromDisk(self, key);
+    }
+
+    # Returns the cached value associated with the provided key. A value which was evicted to the disk is promoted
+    # back to the memory.
+    # ```ballerina
+    # any value = check cache.get(key);
+    # ```
+    #
+    # + key - Key of the cached value, which should be retrieved
+    # + return - The cached value associated with the provided key or a `cache:Error` if the provided cache key is not
+    #            available in the memory or on the disk
+    public isolated function get(string key) returns any|Error {
+        any? value = externTieredGet(self, key);
+        if value is () {
+            return prepareError("Cache entry from the given key: " + key + ", is not available.");
+        }
+        return value;
+    }
+
+    # Discards a cached value from the memory and the disk of the cache.
+    # ```ballerina
+    # check cache.invalidate(key);
+    # ```
+    #
+    # + key - Key of the cache value, which needs to be discarded from the cache
+    # + return - `()` if successfully discarded the value or a `cache:Error` if the provided cache key is not present
+    #            in the cache
+    public isolated function invalidate(string key) returns Error? {
+        if !self.hasKey(key) {
+            return prepareError("Cache entry from the given key: " + key + ", is not available.");
+        }
+        externTieredRemove(self, key);
+    }
+
+    # Discards all the cached values from the memory and the disk of the cache.
+    # ```ballerina
+    # check cache.invalidateAll();
+    # ```
+    #
+    # + return - `()` if successfully discarded all the values or a `cache:Error` if the file on the disk could not be
+    #            truncated
+    public isolated function invalidateAll() returns Error? {
+        error? result = externTieredRemoveAll(self);
+        if result is error {
+            return prepareError("Failed to discard the cache entries on the disk.", result);
+        }
+    }
+
+    # Checks whether the given key has an associated cached value in the memory or on the disk.
+    # ```ballerina
+    # boolean result = cache.hasKey(key);
+    # ```
+    #
+    # + key - The key to be checked in the cache
+    # + return - `true` if a cached value is available for the provided key or `false` if there is no cached value
+    #            associated for the given key
+    public isolated function hasKey(string key) returns boolean {
+        return externTieredHasKey(self, key);
+    }
+
+    # Returns a list of all the keys in the memory and on the disk of the cache.
+    # ```ballerina
+    # string[] keys = cache.keys();
+    # ```
+    #
+    # + return - Array of all the keys from the cache
+    public isolated function keys() returns string[] {
+        return externTieredKeys(self);
+    }
+
+    # Returns the number of the entries in the memory and on the disk of the cache.
+    # ```ballerina
+    # int result = cache.size();
+    # ```
+    #
+    # + return - The size of the cache
+    public isolated function size() returns int {
+        return externTieredSize(self);
+    }
+
+    # Returns the capacity of the cache, which is the capacity of its memory and its disk.
+    # ```ballerina
+    # int result = cache.capacity();
+    # ```
+    #
+    # + return - The capacity of the cache
+    public isolated function capacity() returns int {
+        return self.memory.capacity() + self.diskCapacity;
+    }
+}
+
+isolated function externTieredInit(TieredCache cache, Cache memory, string path) returns error? = @java:Method {
+    'class: "io.ballerina.stdlib.cache.nativeimpl.TieredCache",
+    name: "externInit"
+} external;
+
+isolated function externTieredGet(TieredCache cache, string key) returns any = @java:Method {
+    'class: "io.ballerina.stdlib.cache.nativeimpl.TieredCache",
+    name: "externGet"
+} external;
+
+isolated function externTieredRemove(TieredCache cache, string key) = @java:Method {
+    'class: "io.ballerina.stdlib.cache.nativeimpl.TieredCache",
+    name: "externRemove"
+} external;
+
+isolated function externTieredRemoveFromDisk(TieredCache cache, string key) = @java:Method {
+    'class: "io.ballerina.stdlib.cache.nativeimpl.TieredCache",
+    name: "externRemoveFromDisk"
+} external;
+
+isolated function externTieredRemoveAll(TieredCache cache) returns error? = @java:Method {
+    'class: "io.ballerina.stdlib.cache.nativeimpl.TieredCache",
+    name: "externRemoveAll"
+} external;
+
+isolated function externTieredHasKey(TieredCache cache, string key) returns boolean = @java:Method {
+    'class: "io.ballerina.stdlib.cache.nativeimpl.TieredCache",
+    name: "externHasKey"
+} external;
+
+isolated function externTieredKeys(TieredCache cache) returns string[] = @java:Method {
+    'class: "io.ballerina.stdlib.cache.nativeimpl.TieredCache",
+    name: "externKeys"
+} external;
+
+isolated function externTieredSize(TieredCache cache) returns int = @java:Method {
+    'class: "io.ballerina.stdlib.cache.nativeimpl.TieredCache",
+    name: "externSize"
+} external;
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.cache.benchmarks;
+
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.stdlib.cache.nativeimpl.CacheSegments;
+import io.ballerina.stdlib.cache.nativeimpl.OffHeapStore;
+import io.ballerina.stdlib.cache.nativeimpl.OffHeapValue;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.EvictionPolicy;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.RemovalListener;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.RemovalNotification;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.StatsCounter;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.Weighers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of the native map of the `cache:Cache` object, which is its segments of the
+ * {@link ConcurrentLinkedHashMap}, with the evictions by the eviction factor and the encoding of the off-heap values
+ * that the interop functions of the cache perform for each operation. The segments are accessed directly, as the
+ * `cache:Cache` object is a Ballerina value that cannot be created outside the Ballerina runtime. The cache holds a
+ * quarter of the keys, so that the writes of absent keys evict entries. The number of threads is set with the `-t`
+ * option.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheBenchmark {
+
+    static final int POPULATION = 1 << 16;
+    static final int CAPACITY = POPULATION / 4;
+    static final int SAMPLES = 1 << 20;
+    static final int MASK = SAMPLES - 1;
+    static final float EVICTION_FACTOR = 0.25f;
+
+    @Param({"LRU", "TINY_LFU"})
+    String evictionPolicy;
+
+    @Param({"UNIFORM", "ZIPFIAN"})
+    KeyDistribution distribution;
+
+    // 0 is read only, 25 is read heavy, 50 is mixed and 75 is write heavy
+    @Param({"0", "25", "50", "75"})
+    int writePercentage;
+
+    // Whether the values are serialized into direct memory, which adds their encoding and decoding to the operations
+    @Param({"false", "true"})
+    boolean offHeap;
+
+    // The number of segments of the native map, whose writes are serialized on the eviction lock of each segment
+    @Param({"1", "8"})
+    int segments;
+
+    CacheSegments<BString, Object> cacheSegments;
+    OffHeapStore offHeapStore;
+    BString[] keys;
+    boolean[] writes;
+
+    @Setup
+    public void setup() {
+        EvictionPolicy policy = EvictionPolicy.valueOf(evictionPolicy);
+        offHeapStore = offHeap ? new OffHeapStore() : null;
+        // The off-heap values are freed once they are removed, as the removal listener of the cache does
+        RemovalListener<BString, Object> removalListener = offHeapStore == null ? null : notifications -> {
+            for (RemovalNotification<BString, Object> notification : notifications) {
+                OffHeapValue.free(offHeapStore, notification.value());
+            }
+        };
+        cacheSegments = new CacheSegments<>(segments, CAPACITY,
+                segmentCapacity -> new ConcurrentLinkedHashMap<>(segmentCapacity, policy, Weighers.singleton(),
+                        StatsCounter.disabled(), null, removalListener, Runnable::run));
+        Random random = new Random(42);
+        int[] samples = distribution.sample(POPULATION, SAMPLES, random);
+        BString[] population = new BString[POPULATION];
+        for (int i = 0; i < POPULATION; i++) {
+            population[i] = StringUtils.fromString("key" + i);
+        }
+        keys = new BString[SAMPLES];
+        writes = new boolean[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            keys[i] = population[samples[i]];
+            writes[i] = random.nextInt(100) < writePercentage;
+        }
+        for (int i = 0; i < SAMPLES && cacheSegments.size() < CAPACITY; i++) {
+            put(keys[i]);
+        }
+    }
+
+    /**
+     * The position of a thread in the sampled keys.
+     */
+    @State(Scope.Thread)
+    public static class ThreadState {
+        int index = ThreadLocalRandom.current().nextInt(SAMPLES);
+    }
+
+    @Benchmark
+    public Object operation(ThreadState threadState) {
+        int index = threadState.index++ & MASK;
+        BString key = keys[index];
+        if (writes[index]) {
+            put(key);
+            return key;
+        }
+        Object value = cacheSegments.segmentFor(key).get(key);
+        return offHeapStore == null ? value : OffHeapValue.decode(offHeapStore, value);
+    }
+
+    // Puts the key as its own value, evicting the entries of its segment by the eviction factor if the segment does
+    // not have the space for it, as the put of the cache does
+    private void put(BString key) {
+        ConcurrentLinkedHashMap<BString, Object> cacheMap = cacheSegments.segmentFor(key);
+        int capacity = cacheMap.capacity();
+        if (cacheMap.weightedSize() > capacity - 1) {
+            int evictionKeysCount = Math.max((int) Math.ceil(capacity * EVICTION_FACTOR), 1);
+            cacheMap.evictIfExceeds(capacity - 1, Math.max(capacity - evictionKeysCount, 0));
+        }
+        cacheMap.put(key, offHeapStore == null ? key : OffHeapValue.encode(offHeapStore, key), -1);
+    }
+}
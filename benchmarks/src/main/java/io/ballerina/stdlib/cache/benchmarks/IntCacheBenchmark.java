@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.cache.benchmarks;
+
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.stdlib.cache.nativeimpl.CacheSegments;
+import io.ballerina.stdlib.cache.nativeimpl.IntCacheMap;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.EvictionPolicy;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.StatsCounter;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.Weighers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of the native map of the `cache:IntCache` object, the {@link IntCacheMap}, against the
+ * native map of the `cache:Cache` object keyed by the same ids, whose keys are converted to strings on each operation
+ * as they are by a Ballerina program that caches by numeric ids. The maps are accessed directly, as the Ballerina
+ * objects of the caches cannot be created outside the Ballerina runtime. The caches hold a quarter of the keys, so
+ * that the writes of absent keys evict entries. The number of threads is set with the `-t` option.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IntCacheBenchmark {
+
+    static final int POPULATION = CacheBenchmark.POPULATION;
+    static final int CAPACITY = CacheBenchmark.CAPACITY;
+    static final int SAMPLES = CacheBenchmark.SAMPLES;
+    static final int MASK = SAMPLES - 1;
+    static final float EVICTION_FACTOR = CacheBenchmark.EVICTION_FACTOR;
+
+    @Param({"CACHE", "INT_CACHE"})
+    String implementation;
+
+    @Param({"UNIFORM", "ZIPFIAN"})
+    KeyDistribution distribution;
+
+    // 0 is read only, 25 is read heavy, 50 is mixed and 75 is write heavy
+    @Param({"0", "25", "50", "75"})
+    int writePercentage;
+
+    // The number of segments of the native maps, whose writes are serialized per segment
+    @Param({"1", "8"})
+    int segments;
+
+    CacheSegments<BString, Object> cacheSegments;
+    IntCacheMap intCacheMap;
+    long[] keys;
+    boolean[] writes;
+
+    @Setup
+    public void setup() {
+        if ("INT_CACHE".equals(implementation)) {
+            intCacheMap = new IntCacheMap(segments, CAPACITY, EVICTION_FACTOR, StatsCounter.disabled());
+        } else {
+            cacheSegments = new CacheSegments<>(segments, CAPACITY,
+                    segmentCapacity -> new ConcurrentLinkedHashMap<>(segmentCapacity, EvictionPolicy.LRU,
+                            Weighers.singleton(), StatsCounter.disabled(), null, null, Runnable::run));
+        }
+        Random random = new Random(42);
+        int[] samples = distribution.sample(POPULATION, SAMPLES, random);
+        keys = new long[SAMPLES];
+        writes = new boolean[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            keys[i] = 1_000_000L + samples[i];
+            writes[i] = random.nextInt(100) < writePercentage;
+        }
+        for (int i = 0; i < SAMPLES && size() < CAPACITY; i++) {
+            put(keys[i]);
+        }
+    }
+
+    /**
+     * The position of a thread in the sampled keys.
+     */
+    @State(Scope.Thread)
+    public static class ThreadState {
+        int index = ThreadLocalRandom.current().nextInt(SAMPLES);
+    }
+
+    @Benchmark
+    public Object operation(ThreadState threadState) {
+        int index = threadState.index++ & MASK;
+        long key = keys[index];
+        if (writes[index]) {
+            put(key);
+            return keys;
+        }
+        if (intCacheMap != null) {
+            return intCacheMap.get(key);
+        }
+        BString stringKey = StringUtils.fromString(Long.toString(key));
+        return cacheSegments.segmentFor(stringKey).get(stringKey);
+    }
+
+    // Puts the key with the array of keys as its value, evicting the entries of the segment of the key by the eviction
+    // factor if it does not have the space for it, as the put of the cache does
+    private void put(long key) {
+        if (intCacheMap != null) {
+            intCacheMap.put(key, keys, -1);
+            return;
+        }
+        BString stringKey = StringUtils.fromString(Long.toString(key));
+        ConcurrentLinkedHashMap<BString, Object> cacheMap = cacheSegments.segmentFor(stringKey);
+        int capacity = cacheMap.capacity();
+        if (cacheMap.weightedSize() > capacity - 1) {
+            int evictionKeysCount = Math.max((int) Math.ceil(capacity * EVICTION_FACTOR), 1);
+            cacheMap.evictIfExceeds(capacity - 1, Math.max(capacity - evictionKeysCount, 0));
+        }
+        cacheMap.put(stringKey, keys, -1);
+    }
+
+    private int size() {
+        return intCacheMap != null ? intCacheMap.size() : cacheSegments.size();
+    }
+}
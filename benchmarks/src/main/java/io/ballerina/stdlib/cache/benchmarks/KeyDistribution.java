@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.cache.benchmarks;
+
+import java.util.Random;
+
+/**
+ * The distributions of the keys which are accessed by the benchmarks.
+ */
+public enum KeyDistribution {
+
+    /** Every key is accessed with the same probability. */
+    UNIFORM {
+        @Override
+        int[] sample(int population, int count, Random random) {
+            int[] keys = new int[count];
+            for (int i = 0; i < count; i++) {
+                keys[i] = random.nextInt(population);
+            }
+            return keys;
+        }
+    },
+
+    /**
+     * A few popular keys are accessed most of the time, following a Zipf distribution with the skew used by the
+     * YCSB workloads.
+     */
+    ZIPFIAN {
+        @Override
+        int[] sample(int population, int count, Random random) {
+            double zetan = zeta(population);
+            double zeta2 = zeta(2);
+            double alpha = 1.0 / (1.0 - THETA);
+            double eta = (1 - Math.pow(2.0 / population, 1 - THETA)) / (1 - zeta2 / zetan);
+            int[] keys = new int[count];
+            for (int i = 0; i < count; i++) {
+                double u = random.nextDouble();
+                double uz = u * zetan;
+                int rank;
+                if (uz < 1.0) {
+                    rank = 0;
+                } else if (uz < 1.0 + Math.pow(0.5, THETA)) {
+                    rank = 1;
+                } else {
+                    rank = (int) (population * Math.pow(eta * u - eta + 1, alpha));
+                }
+                // Scatters the popular ranks across the key space
+                keys[i] = Math.floorMod(rank * 0x9E3779B1, population);
+            }
+            return keys;
+        }
+    };
+
+    private static final double THETA = 0.99;
+
+    /**
+     * Samples the keys to be accessed.
+     *
+     * @param population the number of distinct keys
+     * @param count the number of keys to sample
+     * @param random the source of randomness
+     * @return the sampled keys, which are in the range [0, population)
+     */
+    abstract int[] sample(int population, int count, Random random);
+
+    private static double zeta(int n) {
+        double sum = 0;
+        for (int i = 1; i <= n; i++) {
+            sum += 1 / Math.pow(i, THETA);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.cache.benchmarks;
+
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.EvictionPolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of the native map of the cache against a {@link ConcurrentHashMap} baseline. The map is
+ * sized to hold all the keys, so that the overhead of the page replacement policy is measured without the cost of
+ * evictions, which is covered by the {@link CacheBenchmark}. The number of threads is set with the `-t` option.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapBenchmark {
+
+    static final int POPULATION = 1 << 16;
+    static final int SAMPLES = 1 << 20;
+    static final int MASK = SAMPLES - 1;
+
+    @Param({"CONCURRENT_HASH_MAP", "LRU", "TINY_LFU"})
+    String implementation;
+
+    @Param({"UNIFORM", "ZIPFIAN"})
+    KeyDistribution distribution;
+
+    // 0 is read only, 25 is read heavy, 50 is mixed and 75 is write heavy
+    @Param({"0", "25", "50", "75"})
+    int writePercentage;
+
+    Map<Integer, Integer> map;
+    Integer[] keys;
+    boolean[] writes;
+
+    @Setup
+    public void setup() {
+        if ("CONCURRENT_HASH_MAP".equals(implementation)) {
+            map = new ConcurrentHashMap<>();
+        } else {
+            map = new ConcurrentLinkedHashMap<>(POPULATION, EvictionPolicy.valueOf(implementation));
+        }
+        Random random = new Random(42);
+        int[] samples = distribution.sample(POPULATION, SAMPLES, random);
+        keys = new Integer[SAMPLES];
+        writes = new boolean[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            keys[i] = samples[i];
+            writes[i] = random.nextInt(100) < writePercentage;
+        }
+        for (int i = 0; i < POPULATION; i++) {
+            map.put(i, i);
+        }
+    }
+
+    /**
+     * The position of a thread in the sampled keys.
+     */
+    @State(Scope.Thread)
+    public static class ThreadState {
+        int index = ThreadLocalRandom.current().nextInt(SAMPLES);
+    }
+
+    @Benchmark
+    public Integer operation(ThreadState threadState) {
+        int index = threadState.index++ & MASK;
+        Integer key = keys[index];
+        if (writes[index]) {
+            return map.put(key, key);
+        }
+        return map.get(key);
+    }
+}
@@ -96,7 +96,7 @@ public class CompilerPluginTest {
         DiagnosticInfo invalidPolicy = errorDiagnosticsList.get(1).diagnosticInfo();
         Assert.assertEquals(invalidPolicy.code(), DiagnosticsCodes.CACHE_105.getErrorCode());
         Assert.assertEquals(invalidPolicy.messageFormat(),
-                "invalid value: only 'cache:LRU' value is supported");
+                "invalid value: only 'cache:LRU' and 'cache:TINY_LFU' values are supported");
     }
 
     @Test
@@ -127,6 +127,84 @@ public class CompilerPluginTest {
         Assert.assertEquals(errorDiagnosticsList.size(), 0);
     }
 
+    @Test
+    public void testConfigWithTinyLfuPolicy() {
+        DiagnosticResult diagnosticResult = loadPackage("sample8").getCompilation().diagnosticResult();
+        List<Diagnostic> errorDiagnosticsList = diagnosticResult.diagnostics().stream()
+                .filter(r -> r.diagnosticInfo().severity().equals(DiagnosticSeverity.ERROR))
+                .collect(Collectors.toList());
+        Assert.assertEquals(errorDiagnosticsList.size(), 0);
+    }
+
+    @Test
+    public void testInvalidRefreshAfter() {
+        DiagnosticResult diagnosticResult = loadPackage("sample9").getCompilation().diagnosticResult();
+        List<Diagnostic> errorDiagnosticsList = diagnosticResult.diagnostics().stream()
+                .filter(r -> r.diagnosticInfo().severity().equals(DiagnosticSeverity.ERROR))
+                .collect(Collectors.toList());
+        Assert.assertEquals(errorDiagnosticsList.size(), 1);
+        DiagnosticInfo invalidRefreshAfter = errorDiagnosticsList.get(0).diagnosticInfo();
+        Assert.assertEquals(invalidRefreshAfter.code(), DiagnosticsCodes.CACHE_107.getErrorCode());
+        Assert.assertEquals(invalidRefreshAfter.messageFormat(),
+                "invalid value: a greater than zero value is expected");
+    }
+
+    @Test
+    public void testInvalidMaxWeight() {
+        DiagnosticResult diagnosticResult = loadPackage("sample10").getCompilation().diagnosticResult();
+        List<Diagnostic> errorDiagnosticsList = diagnosticResult.diagnostics().stream()
+                .filter(r -> r.diagnosticInfo().severity().equals(DiagnosticSeverity.ERROR))
+                .collect(Collectors.toList());
+        Assert.assertEquals(errorDiagnosticsList.size(), 1);
+        DiagnosticInfo invalidMaxWeight = errorDiagnosticsList.get(0).diagnosticInfo();
+        Assert.assertEquals(invalidMaxWeight.code(), DiagnosticsCodes.CACHE_108.getErrorCode());
+        Assert.assertEquals(invalidMaxWeight.messageFormat(),
+                "invalid value: a greater than zero value is expected");
+    }
+
+    @Test
+    public void testInvalidFlushConfig() {
+        DiagnosticResult diagnosticResult = loadPackage("sample11").getCompilation().diagnosticResult();
+        List<Diagnostic> errorDiagnosticsList = diagnosticResult.diagnostics().stream()
+                .filter(r -> r.diagnosticInfo().severity().equals(DiagnosticSeverity.ERROR))
+                .collect(Collectors.toList());
+        Assert.assertEquals(errorDiagnosticsList.size(), 2);
+        DiagnosticInfo invalidFlushSize = errorDiagnosticsList.get(0).diagnosticInfo();
+        Assert.assertEquals(invalidFlushSize.code(), DiagnosticsCodes.CACHE_109.getErrorCode());
+        Assert.assertEquals(invalidFlushSize.messageFormat(),
+                "invalid value: a greater than zero value is expected");
+        DiagnosticInfo invalidFlushInterval = errorDiagnosticsList.get(1).diagnosticInfo();
+        Assert.assertEquals(invalidFlushInterval.code(), DiagnosticsCodes.CACHE_110.getErrorCode());
+        Assert.assertEquals(invalidFlushInterval.messageFormat(),
+                "invalid value: a greater than zero value is expected");
+    }
+
+    @Test
+    public void testInvalidSegments() {
+        DiagnosticResult diagnosticResult = loadPackage("sample12").getCompilation().diagnosticResult();
+        List<Diagnostic> errorDiagnosticsList = diagnosticResult.diagnostics().stream()
+                .filter(r -> r.diagnosticInfo().severity().equals(DiagnosticSeverity.ERROR))
+                .collect(Collectors.toList());
+        Assert.assertEquals(errorDiagnosticsList.size(), 1);
+        DiagnosticInfo invalidSegments = errorDiagnosticsList.get(0).diagnosticInfo();
+        Assert.assertEquals(invalidSegments.code(), DiagnosticsCodes.CACHE_111.getErrorCode());
+        Assert.assertEquals(invalidSegments.messageFormat(),
+                "invalid value: a greater than zero value is expected");
+    }
+
+    @Test
+    public void testInvalidMaxOffHeapSize() {
+        DiagnosticResult diagnosticResult = loadPackage("sample13").getCompilation().diagnosticResult();
+        List<Diagnostic> errorDiagnosticsList = diagnosticResult.diagnostics().stream()
+                .filter(r -> r.diagnosticInfo().severity().equals(DiagnosticSeverity.ERROR))
+                .collect(Collectors.toList());
+        Assert.assertEquals(errorDiagnosticsList.size(), 1);
+        DiagnosticInfo invalidMaxOffHeapSize = errorDiagnosticsList.get(0).diagnosticInfo();
+        Assert.assertEquals(invalidMaxOffHeapSize.code(), DiagnosticsCodes.CACHE_112.getErrorCode());
+        Assert.assertEquals(invalidMaxOffHeapSize.messageFormat(),
+                "invalid value: a greater than zero value is expected");
+    }
+
     private void assertValues(List<Diagnostic> errorDiagnosticsList) {
         long availableErrors = errorDiagnosticsList.size();
         Assert.assertEquals(availableErrors, 5);
@@ -154,6 +232,6 @@ public class CompilerPluginTest {
         DiagnosticInfo invalidPolicy = errorDiagnosticsList.get(4).diagnosticInfo();
         Assert.assertEquals(invalidPolicy.code(), DiagnosticsCodes.CACHE_105.getErrorCode());
         Assert.assertEquals(invalidPolicy.messageFormat(),
-                "invalid value: only 'cache:LRU' value is supported");
+                "invalid value: only 'cache:LRU' and 'cache:TINY_LFU' values are supported");
     }
 }
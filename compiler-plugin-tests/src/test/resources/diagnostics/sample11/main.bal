@@ -0,0 +1,31 @@
+// Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org).
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/cache;
+
+isolated function writeEntries(map<any> entries) returns error? {
+}
+
+public function main() returns error? {
+    cache:Cache cache = new(flushSize = 0, flushInterval = 0, writer = writeEntries);
+    cache:CacheConfig config = {
+        flushSize: 50,
+        flushInterval: 0.5
+    };
+    cache:Cache writingCache = new(config, writer = writeEntries);
+    check cache.put("hi", "Ballerina");
+    check writingCache.put("hi", "Ballerina");
+}
@@ -0,0 +1,28 @@
+// Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org).
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/cache;
+
+public function main() returns error? {
+    cache:Cache cache = new(capacity = 100, segments = 0);
+    cache:CacheConfig config = {
+        capacity: 100,
+        segments: 4
+    };
+    cache:Cache segmentedCache = new(config);
+    check cache.put("hi", "Ballerina");
+    check segmentedCache.put("hi", "Ballerina");
+}
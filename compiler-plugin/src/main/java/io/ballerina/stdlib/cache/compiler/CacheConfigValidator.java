@@ -208,8 +208,50 @@ public class CacheConfigValidator implements AnalysisTask<SyntaxNodeAnalysisCont
                                 DiagnosticsCodes.CACHE_104.getError(), DiagnosticsCodes.CACHE_104.getSeverity());
                     }
                     break;
+                case Constants.REFRESH_AFTER:
+                    float refreshAfter = Float.parseFloat(value);
+                    if (refreshAfter <= 0) {
+                        reportDiagnostic(ctx, location, DiagnosticsCodes.CACHE_107.getErrorCode(),
+                                DiagnosticsCodes.CACHE_107.getError(), DiagnosticsCodes.CACHE_107.getSeverity());
+                    }
+                    break;
+                case Constants.MAX_WEIGHT:
+                    int maxWeight = Integer.parseInt(value);
+                    if (maxWeight <= 0) {
+                        reportDiagnostic(ctx, location, DiagnosticsCodes.CACHE_108.getErrorCode(),
+                                DiagnosticsCodes.CACHE_108.getError(), DiagnosticsCodes.CACHE_108.getSeverity());
+                    }
+                    break;
+                case Constants.FLUSH_SIZE:
+                    int flushSize = Integer.parseInt(value);
+                    if (flushSize <= 0) {
+                        reportDiagnostic(ctx, location, DiagnosticsCodes.CACHE_109.getErrorCode(),
+                                DiagnosticsCodes.CACHE_109.getError(), DiagnosticsCodes.CACHE_109.getSeverity());
+                    }
+                    break;
+                case Constants.FLUSH_INTERVAL:
+                    float flushInterval = Float.parseFloat(value);
+                    if (flushInterval <= 0) {
+                        reportDiagnostic(ctx, location, DiagnosticsCodes.CACHE_110.getErrorCode(),
+                                DiagnosticsCodes.CACHE_110.getError(), DiagnosticsCodes.CACHE_110.getSeverity());
+                    }
+                    break;
+                case Constants.SEGMENTS:
+                    int segments = Integer.parseInt(value);
+                    if (segments <= 0) {
+                        reportDiagnostic(ctx, location, DiagnosticsCodes.CACHE_111.getErrorCode(),
+                                DiagnosticsCodes.CACHE_111.getError(), DiagnosticsCodes.CACHE_111.getSeverity());
+                    }
+                    break;
+                case Constants.MAX_OFF_HEAP_SIZE:
+                    long maxOffHeapSize = Long.parseLong(value);
+                    if (maxOffHeapSize <= 0) {
+                        reportDiagnostic(ctx, location, DiagnosticsCodes.CACHE_112.getErrorCode(),
+                                DiagnosticsCodes.CACHE_112.getError(), DiagnosticsCodes.CACHE_112.getSeverity());
+                    }
+                    break;
                 case Constants.EVICTION_POLICY:
-                    if (!value.equals(Constants.POLICY_VALUE)) {
+                    if (!value.equals(Constants.POLICY_VALUE) && !value.equals(Constants.TINY_LFU_POLICY_VALUE)) {
                         reportDiagnostic(ctx, location, DiagnosticsCodes.CACHE_105.getErrorCode(),
                                 DiagnosticsCodes.CACHE_105.getError(), DiagnosticsCodes.CACHE_105.getSeverity());
                     }
@@ -30,6 +30,13 @@ public class Constants {
     public static final String EVICTION_FACTOR = "evictionFactor";
     public static final String EVICTION_POLICY = "evictionPolicy";
     public static final String DEFAULT_MAX_AGE = "defaultMaxAge";
+    public static final String REFRESH_AFTER = "refreshAfter";
+    public static final String MAX_WEIGHT = "maxWeight";
+    public static final String FLUSH_SIZE = "flushSize";
+    public static final String FLUSH_INTERVAL = "flushInterval";
+    public static final String SEGMENTS = "segments";
+    public static final String MAX_OFF_HEAP_SIZE = "maxOffHeapSize";
     public static final String POLICY_VALUE = "cache:LRU";
+    public static final String TINY_LFU_POLICY_VALUE = "cache:TINY_LFU";
     public static final String UNNECESSARY_CHARS_REGEX = "\"|\\n";
 }
@@ -32,8 +32,15 @@ public enum DiagnosticsCodes {
     CACHE_103("invalid value: a greater than 0 value or -1(to indicate forever valid) value is expected",
             "CACHE_103", ERROR),
     CACHE_104("invalid value: a greater than zero value is expected", "CACHE_104", ERROR),
-    CACHE_105("invalid value: only 'cache:LRU' value is supported", "CACHE_105", ERROR),
-    CACHE_106("invalid value: ", "CACHE_106", ERROR);
+    CACHE_105("invalid value: only 'cache:LRU' and 'cache:TINY_LFU' values are supported", "CACHE_105",
+            ERROR),
+    CACHE_106("invalid value: ", "CACHE_106", ERROR),
+    CACHE_107("invalid value: a greater than zero value is expected", "CACHE_107", ERROR),
+    CACHE_108("invalid value: a greater than zero value is expected", "CACHE_108", ERROR),
+    CACHE_109("invalid value: a greater than zero value is expected", "CACHE_109", ERROR),
+    CACHE_110("invalid value: a greater than zero value is expected", "CACHE_110", ERROR),
+    CACHE_111("invalid value: a greater than zero value is expected", "CACHE_111", ERROR),
+    CACHE_112("invalid value: a greater than zero value is expected", "CACHE_112", ERROR);
 
     private final String error;
     private final String errorCode;
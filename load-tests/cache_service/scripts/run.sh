@@ -0,0 +1,24 @@
+#!/bin/bash -e
+# Copyright 2026 WSO2 LLC. (http://wso2.org)
+#
+# Licensed under the Apache License, Version 2.0 (the "License");
+# you may not use this file except in compliance with the License.
+# You may obtain a copy of the License at
+#
+#     http://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing, software
+# distributed under the License is distributed on an "AS IS" BASIS,
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+# See the License for the specific language governing permissions and
+# limitations under the License.
+# ----------------------------------------------------------------------------
+# Execution script for ballerina performance tests
+# ----------------------------------------------------------------------------
+set -e
+source base-scenario.sh
+
+jmeter -n -t "$scriptsDir/"http-get-put-request.jmx -l "$resultsDir/"original.jtl -Jusers=10 -Jduration=1200 -Jhost=bal.perf.test -Jport=80 -Jprotocol=http -Jpath=cache/items -JkeyCount=100000 -JwritePercentage=10
+
+# Records the hit ratio of the cache, which is reported in the summary along with the throughput and the latencies
+curl -s http://bal.perf.test:80/cache/stats > "$resultsDir/"cache_stats.json
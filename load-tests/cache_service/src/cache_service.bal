@@ -0,0 +1,50 @@
+// Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/cache;
+import ballerina/http;
+
+configurable int capacity = 10000;
+configurable cache:EvictionPolicy evictionPolicy = cache:LRU;
+
+final cache:Cache itemCache = new ({
+    capacity: capacity,
+    evictionFactor: 0.2,
+    evictionPolicy: evictionPolicy,
+    defaultMaxAge: -1,
+    recordStats: true
+});
+
+isolated service /cache on new http:Listener(9098) {
+
+    isolated resource function get items/[string key]() returns json|error {
+        any item = check itemCache.getOrLoad(key, loadItem);
+        return <json>item;
+    }
+
+    isolated resource function put items/[string key](@http:Payload json payload) returns http:Ok|error {
+        check itemCache.put(key, payload);
+        return http:OK;
+    }
+
+    isolated resource function get stats() returns cache:CacheStats {
+        return itemCache.stats();
+    }
+}
+
+isolated function loadItem(string key) returns json {
+    return {id: key, name: "item-" + key, price: 10.5};
+}
@@ -18,16 +18,46 @@
 
 package io.ballerina.stdlib.cache.nativeimpl;
 
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.creators.ErrorCreator;
 import io.ballerina.runtime.api.creators.ValueCreator;
 import io.ballerina.runtime.api.utils.StringUtils;
 import io.ballerina.runtime.api.values.BArray;
 import io.ballerina.runtime.api.values.BDecimal;
+import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BFunctionPointer;
 import io.ballerina.runtime.api.values.BMap;
 import io.ballerina.runtime.api.values.BObject;
 import io.ballerina.runtime.api.values.BString;
+import io.ballerina.runtime.observability.ObserveUtils;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.CacheStats;
 import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.ConcurrentStatsCounter;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.EntryVisitor;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.EvictionPolicy;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.RemovalCause;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.RemovalListener;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.RemovalNotification;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.StatsCounter;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.Weigher;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.Weighers;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 /**
  * Class to handle ballerina external functions in Cache library.
@@ -36,86 +66,644 @@ import java.util.Map;
  */
 public class Cache {
 
-    private static ConcurrentLinkedHashMap<BString, BMap<BString, Object>> cacheMap;
     private static final String MAX_CAPACITY = "maxCapacity";
     private static final String EVICTION_FACTOR = "evictionFactor";
-    private static final String EXPIRE_TIME = "expTime";
+    private static final String EVICTION_POLICY = "evictionPolicy";
+    private static final String MAX_WEIGHT = "maxWeight";
+    private static final String WEIGHER = "weigher";
+    private static final String RECORD_STATS = "recordStats";
+    private static final String NAME = "name";
+    private static final String ASYNC_MAINTENANCE = "asyncMaintenance";
+    private static final String CLEANUP_INTERVAL = "cleanupInterval";
+    private static final String ON_REMOVAL = "onRemoval";
+    private static final String WRITER = "writer";
+    private static final String FLUSH_SIZE = "flushSize";
+    private static final String FLUSH_INTERVAL = "flushInterval";
+    private static final String OFF_HEAP = "offHeap";
+    private static final String MAX_OFF_HEAP_SIZE = "maxOffHeapSize";
+    private static final String SEGMENTS = "segments";
+    private static final String PREFIX_INDEX = "prefixIndex";
     private static final String CACHE = "CACHE";
+    private static final String METRICS = "METRICS";
+    private static final String WRITE_BEHIND = "WRITE_BEHIND";
+    private static final String OFF_HEAP_STORE = "OFF_HEAP_STORE";
+    private static final String KEY_ITERATOR = "KEY_ITERATOR";
+    private static final String KEY_INDEX = "KEY_INDEX";
+    private static final String[] NO_TAGS = new String[0];
+    private static final int MAX_VALUE_WEIGHT = 1 << 30;
+    private static final Executor MAINTENANCE_EXECUTOR =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("cache-maintenance-", 0).factory());
 
     private Cache() {}
 
-    public static void externInit(BObject cache) {
+    public static void externInit(Environment env, BObject cache) {
         int capacity = (int) cache.getIntValue(StringUtils.fromString(MAX_CAPACITY));
-        cacheMap = new ConcurrentLinkedHashMap<>(capacity);
-        cache.addNativeData(CACHE, cacheMap);
+        long maxWeight = cache.getIntValue(StringUtils.fromString(MAX_WEIGHT));
+        EvictionPolicy policy = EvictionPolicy.valueOf(
+                cache.getStringValue(StringUtils.fromString(EVICTION_POLICY)).getValue());
+        // The metrics of a named cache are only published if the metrics are enabled, and are derived from the
+        // statistics of the cache
+        Object name = cache.get(StringUtils.fromString(NAME));
+        CacheMetrics metrics = name != null && ObserveUtils.isMetricsEnabled() ?
+                new CacheMetrics(((BString) name).getValue()) : null;
+        StatsCounter statsCounter = metrics != null ? metrics.countStats(new ConcurrentStatsCounter()) :
+                cache.getBooleanValue(StringUtils.fromString(RECORD_STATS)) ? new ConcurrentStatsCounter() :
+                        StatsCounter.disabled();
+        // The maintenance of the cache is run on the shared virtual threads if it is asynchronous, or otherwise
+        // on the strands which access the cache
+        Executor executor = cache.getBooleanValue(StringUtils.fromString(ASYNC_MAINTENANCE)) ?
+                MAINTENANCE_EXECUTOR : null;
+        // The values of an off-heap cache are serialized into direct memory, which is freed once they are removed
+        long maxOffHeapSize = cache.getIntValue(StringUtils.fromString(MAX_OFF_HEAP_SIZE));
+        OffHeapStore offHeapStore = !cache.getBooleanValue(StringUtils.fromString(OFF_HEAP)) ? null :
+                new OffHeapStore(maxOffHeapSize > 0 ? maxOffHeapSize : Long.MAX_VALUE);
+        WriteBehindWriter<BString, Object> writeBehindWriter = getWriteBehindWriter(env, cache);
+        RemovalListener<BString, Object> removalListener =
+                getRemovalListener(env, cache, writeBehindWriter, offHeapStore);
+        // The capacity, or the max weight, is shared by the segments, which have their own eviction locks and are
+        // maintained independently, while they record to the same statistics and notify the same listener
+        int segmentCount = (int) cache.getIntValue(StringUtils.fromString(SEGMENTS));
+        CacheSegments<BString, Object> segments;
+        if (maxWeight > 0) {
+            Weigher<Object> weigher = getWeigher(env, cache, offHeapStore);
+            segments = new CacheSegments<>(segmentCount, (int) Math.min(maxWeight, Integer.MAX_VALUE),
+                    segmentWeight -> new ConcurrentLinkedHashMap<>(segmentWeight, policy, weigher, statsCounter,
+                            executor, removalListener, MAINTENANCE_EXECUTOR));
+        } else {
+            segments = new CacheSegments<>(segmentCount, capacity,
+                    segmentCapacity -> new ConcurrentLinkedHashMap<>(segmentCapacity, policy, Weighers.singleton(),
+                            statsCounter, executor, removalListener, MAINTENANCE_EXECUTOR));
+        }
+        cache.addNativeData(CACHE, segments);
+        // The keys are indexed by their tags, and in order if the prefix index is enabled. The index is kept in sync
+        // with the removals of the keys from the start if the keys are indexed in order, and otherwise from the first
+        // put with tags, so that the caches which do not use the index are not notified of their removals.
+        KeyIndex keyIndex = new KeyIndex(cache.getBooleanValue(StringUtils.fromString(PREFIX_INDEX)), key -> {
+            BString cacheKey = StringUtils.fromString(key);
+            return segments.segmentFor(cacheKey).peek(cacheKey);
+        });
+        cache.addNativeData(KEY_INDEX, keyIndex);
+        if (keyIndex.indexesPrefixes()) {
+            keyIndex.trackRemovals(() -> addIndexListener(segments, keyIndex));
+        }
+        if (offHeapStore != null) {
+            cache.addNativeData(OFF_HEAP_STORE, offHeapStore);
+        }
+        if (writeBehindWriter != null) {
+            cache.addNativeData(WRITE_BEHIND, writeBehindWriter);
+            MaintenanceScheduler.schedule(writeBehindWriter, WriteBehindWriter::scheduleFlush,
+                    getExpireAfterNanos((BDecimal) cache.get(StringUtils.fromString(FLUSH_INTERVAL))));
+        }
+        Object cleanupInterval = cache.get(StringUtils.fromString(CLEANUP_INTERVAL));
+        if (cleanupInterval != null) {
+            for (ConcurrentLinkedHashMap<BString, Object> segment : segments) {
+                MaintenanceScheduler.schedule(segment, getExpireAfterNanos((BDecimal) cleanupInterval));
+            }
+        }
+        if (metrics != null) {
+            // The capacity of a cache bounded by weight is its max weight
+            metrics.register(cache, segments, maxWeight > 0 ? maxWeight : capacity, maxWeight > 0);
+            cache.addNativeData(METRICS, metrics);
+        }
     }
 
-    @SuppressWarnings("unchecked")
-    public static void externPut(BObject cache, BString key, BMap<BString, Object> value) {
-        int capacity = (int) cache.getIntValue(StringUtils.fromString(MAX_CAPACITY));
-        float evictionFactor = (float) cache.getFloatValue(StringUtils.fromString(EVICTION_FACTOR));
-        cacheMap = (ConcurrentLinkedHashMap<BString, BMap<BString, Object>>) cache.getNativeData(CACHE);
-        if (cacheMap.size() >= capacity) {
-            int evictionKeysCount = (int) Math.ceil(capacity * evictionFactor);
-                cacheMap.setCapacity((capacity - evictionKeysCount));
-                cacheMap.setCapacity(capacity);
+    public static void externPut(BObject cache, BString key, Object value, BDecimal maxAge) {
+        put(cache, key, value, maxAge, NO_TAGS);
+    }
+
+    public static void externPutWithTags(BObject cache, BString key, Object value, BDecimal maxAge, BArray tags) {
+        put(cache, key, value, maxAge, tags.getStringArray());
+    }
+
+    private static void put(BObject cache, BString key, Object value, BDecimal maxAge, String[] tags) {
+        CacheMetrics metrics = (CacheMetrics) cache.getNativeData(METRICS);
+        long startTime = metrics == null ? 0 : System.nanoTime();
+        KeyIndex keyIndex = getKeyIndex(cache);
+        if (tags.length > 0) {
+            // The removals are tracked before the key is put, so that the removal of a tagged key is never missed
+            keyIndex.trackRemovals(() -> addIndexListener(getSegments(cache), keyIndex));
+        }
+        ConcurrentLinkedHashMap<BString, Object> cacheMap = getCacheMap(cache, key);
+        evictIfFull(cache, cacheMap, 1);
+        Object encodedValue = encode(cache, value);
+        cacheMap.put(key, encodedValue, getExpireAfterNanos(maxAge));
+        evictIfOverweight(cache, cacheMap);
+        keyIndex.put(key.getValue(), tags, encodedValue);
+        WriteBehindWriter<BString, Object> writeBehindWriter = getWriteBehindWriter(cache);
+        if (writeBehindWriter != null) {
+            writeBehindWriter.write(key, value);
+        }
+        if (metrics != null) {
+            metrics.recordPut(System.nanoTime() - startTime);
         }
-        cacheMap.put(key, value);
     }
 
-    @SuppressWarnings("unchecked")
-    public static BMap<BString, Object> externGet(BObject cache, BString key, BDecimal currentTime) {
-        cacheMap = (ConcurrentLinkedHashMap<BString, BMap<BString, Object>>) cache.getNativeData(CACHE);
-        BMap<BString, Object> value = cacheMap.get(key);
-        if (value != null && value.get(StringUtils.fromString(EXPIRE_TIME)) != null) {
-            Long time = ((BDecimal) value.get(StringUtils.fromString(EXPIRE_TIME))).decimalValue().longValue();
-            if (time != -1 && time <= currentTime.decimalValue().longValue()) {
-                cacheMap.remove(key);
-                return null;
+    public static Object externGetOrLoad(Environment env, BObject cache, BString key, BFunctionPointer loader,
+                                         BDecimal maxAge) {
+        ConcurrentLinkedHashMap<BString, Object> cacheMap = getCacheMap(cache, key);
+        // The concurrent misses of the key wait for a single invocation of the loader, which is called outside the
+        // locks of the native map so that it may use the cache. An error returned by the loader is not cached, so
+        // that the next miss loads the value again.
+        BError[] loadError = new BError[1];
+        boolean[] loaded = new boolean[1];
+        Object value;
+        try {
+            value = cacheMap.computeIfAbsent(key, k -> {
+                Object loadedValue = loader.call(env.getRuntime(), k);
+                if (loadedValue instanceof BError) {
+                    loadError[0] = (BError) loadedValue;
+                    return null;
+                }
+                loaded[0] = true;
+                // The space for the loaded entry is made just before it is inserted, as a put would
+                evictIfFull(cache, cacheMap, 1);
+                return encode(cache, loadedValue);
+            }, getExpireAfterNanos(maxAge));
+        } catch (IllegalStateException e) {
+            return ErrorCreator.createError(StringUtils.fromString(e.getMessage()));
+        }
+        evictIfOverweight(cache, cacheMap);
+        if (loaded[0]) {
+            getKeyIndex(cache).put(key.getValue(), NO_TAGS, value);
+        }
+        return value != null ? decode(cache, value) : loadError[0];
+    }
+
+    public static Object externSnapshot(BObject cache, BString path) {
+        OffHeapStore offHeapStore = (OffHeapStore) cache.getNativeData(OFF_HEAP_STORE);
+        try (CacheSnapshot.Writer writer = CacheSnapshot.create(Paths.get(path.getValue()))) {
+            EntryVisitor<BString, Object> visitor = getSnapshotVisitor(writer, offHeapStore);
+            for (ConcurrentLinkedHashMap<BString, Object> segment : getSegments(cache)) {
+                segment.forEachInEvictionOrder(visitor);
+            }
+            writer.commit();
+            return null;
+        } catch (IOException e) {
+            return ErrorCreator.createError(StringUtils.fromString(e.getMessage()));
+        } catch (UncheckedIOException e) {
+            return ErrorCreator.createError(StringUtils.fromString(e.getCause().getMessage()));
+        }
+    }
+
+    // Restores the entries of the snapshot in the order in which they were written, so that the most recently used
+    // entries are restored last and the least recently used ones are evicted first if the cache is smaller. The cache
+    // is evicted before and after each entry like it is on a put, so that it never exceeds its capacity while it is
+    // restored. A snapshot which does not exist is ignored, so that a cache which has not been snapshotted yet starts
+    // empty.
+    public static Object externRestore(BObject cache, BString path) {
+        Path snapshotPath = Paths.get(path.getValue());
+        if (!Files.exists(snapshotPath)) {
+            return null;
+        }
+        try {
+            CacheSnapshot.read(snapshotPath, (key, format, value, expireAfterNanos) -> {
+                BString cacheKey = StringUtils.fromString(key);
+                ConcurrentLinkedHashMap<BString, Object> cacheMap = getCacheMap(cache, cacheKey);
+                evictIfFull(cache, cacheMap, 1);
+                Object encodedValue = encode(cache, ValueSerializer.deserialize(value, format));
+                cacheMap.put(cacheKey, encodedValue, expireAfterNanos);
+                evictIfOverweight(cache, cacheMap);
+                getKeyIndex(cache).put(key, NO_TAGS, encodedValue);
+            });
+            return null;
+        } catch (IOException e) {
+            return ErrorCreator.createError(StringUtils.fromString(e.getMessage()));
+        }
+    }
+
+    public static BArray externStats(BObject cache) {
+        CacheStats stats = getSegments(cache).stats();
+        return ValueCreator.createArrayValue(new long[]{stats.hitCount(), stats.missCount(), stats.expirationCount(),
+                stats.evictionCount(), stats.loadSuccessCount(), stats.loadFailureCount(), stats.totalLoadTime()});
+    }
+
+    public static boolean externTryStartRefresh(BObject cache, BString key, BDecimal refreshAfter) {
+        return getCacheMap(cache, key).tryStartRefresh(key, getExpireAfterNanos(refreshAfter));
+    }
+
+    public static void externCompleteRefresh(BObject cache, BString key, Object value, BDecimal maxAge) {
+        ConcurrentLinkedHashMap<BString, Object> cacheMap = getCacheMap(cache, key);
+        cacheMap.completeRefresh(key, encode(cache, value), getExpireAfterNanos(maxAge));
+        evictIfOverweight(cache, cacheMap);
+    }
+
+    public static BMap<BString, Object> externGetAll(BObject cache, BArray keys) {
+        BMap<BString, Object> entries = ValueCreator.createMapValue();
+        getSegments(cache).getAll(getKeys(keys)).forEach((key, value) -> {
+            Object decodedValue = decode(cache, value);
+            if (decodedValue != null) {
+                entries.put(key, decodedValue);
+            }
+        });
+        return entries;
+    }
+
+    public static void externPutAll(BObject cache, BMap<BString, Object> entries, BDecimal maxAge) {
+        long expireAfterNanos = getExpireAfterNanos(maxAge);
+        // The entries of each segment are put in a single batch, after the segment is evicted for all of them
+        getSegments(cache).forEachPartition(entries.entrySet(), Map.Entry::getKey, (cacheMap, segmentEntries) -> {
+            evictIfFull(cache, cacheMap, segmentEntries.size());
+            List<Map.Entry<BString, Object>> storedEntries = segmentEntries;
+            if (cache.getNativeData(OFF_HEAP_STORE) != null) {
+                storedEntries = new ArrayList<>(segmentEntries.size());
+                for (Map.Entry<BString, Object> entry : segmentEntries) {
+                    storedEntries.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(),
+                            encode(cache, entry.getValue())));
+                }
+            }
+            cacheMap.putAll(storedEntries, expireAfterNanos);
+            evictIfOverweight(cache, cacheMap);
+            for (Map.Entry<BString, Object> entry : storedEntries) {
+                getKeyIndex(cache).put(entry.getKey().getValue(), NO_TAGS, entry.getValue());
+            }
+        });
+        WriteBehindWriter<BString, Object> writeBehindWriter = getWriteBehindWriter(cache);
+        if (writeBehindWriter != null) {
+            for (Map.Entry<BString, Object> entry : entries.entrySet()) {
+                writeBehindWriter.write(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    public static void externRemoveKeys(BObject cache, BArray keys) {
+        List<BString> keyList = getKeys(keys);
+        getSegments(cache).removeAll(keyList);
+        discardWrites(cache, keyList);
+    }
+
+    public static void externRemoveByTag(BObject cache, BString tag) {
+        removeIndexedKeys(cache, getKeyIndex(cache).keysOfTag(tag.getValue()));
+    }
+
+    // Removes the keys with the prefix, which are found in the index if the keys are indexed in order, or otherwise
+    // by walking the keys of the cache without copying them
+    public static void externRemoveByPrefix(BObject cache, BString prefix) {
+        List<String> keys = getKeyIndex(cache).keysWithPrefix(prefix.getValue());
+        if (keys != null) {
+            removeIndexedKeys(cache, keys);
+            return;
+        }
+        List<BString> matchedKeys = new ArrayList<>();
+        Iterator<BString> iterator = getSegments(cache).keyIterator();
+        while (iterator.hasNext()) {
+            BString key = iterator.next();
+            if (hasPrefix(key, prefix)) {
+                matchedKeys.add(key);
+            }
+        }
+        getSegments(cache).removeAll(matchedKeys);
+        discardWrites(cache, matchedKeys);
+    }
+
+    // Removes the keys found in the index, and drops them from the index without waiting for their removals to be
+    // notified. A key which was put again since it was removed is kept in the index.
+    private static void removeIndexedKeys(BObject cache, List<String> keys) {
+        List<BString> cacheKeys = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            cacheKeys.add(StringUtils.fromString(key));
+        }
+        getSegments(cache).removeAll(cacheKeys);
+        discardWrites(cache, cacheKeys);
+        KeyIndex keyIndex = getKeyIndex(cache);
+        for (String key : keys) {
+            keyIndex.remove(key);
+        }
+    }
+
+    // Discards the writes of the removed keys which were not flushed yet, so that their values are not written after
+    // their removal
+    private static void discardWrites(BObject cache, List<BString> keys) {
+        WriteBehindWriter<BString, Object> writeBehindWriter = getWriteBehindWriter(cache);
+        if (writeBehindWriter != null) {
+            for (BString key : keys) {
+                writeBehindWriter.discard(key);
+            }
+        }
+    }
+
+    // Evicts the entries by the eviction factor if the cache does not have the space for the given number of
+    // entries. An insertion of more entries than the eviction factor allows leaves only the space for them. The
+    // fullness is decided by the weighted size of the segment of the native map, which is its number of entries unless
+    // the cache is bounded by weight, and the victims are evicted in a single pass.
+    private static void evictIfFull(BObject cache, ConcurrentLinkedHashMap<BString, Object> cacheMap, int count) {
+        if (cacheMap.isWeighted()) {
+            // A cache bounded by weight is evicted after the insertion, once the weights of the values are known
+            return;
+        }
+        int capacity = cacheMap.capacity();
+        if (cacheMap.weightedSize() > capacity - count) {
+            float evictionFactor = (float) cache.getFloatValue(StringUtils.fromString(EVICTION_FACTOR));
+            int evictionKeysCount = Math.max((int) Math.ceil(capacity * evictionFactor), count);
+            cacheMap.evictIfExceeds(capacity - count, Math.max(capacity - evictionKeysCount, 0));
+        }
+    }
+
+    // Evicts the entries by the eviction factor of the max weight if the weight of the cache exceeds its max weight.
+    // A value that is heavier than the eviction factor allows is evicted along with the others.
+    private static void evictIfOverweight(BObject cache, ConcurrentLinkedHashMap<BString, Object> cacheMap) {
+        if (!cacheMap.isWeighted()) {
+            return;
+        }
+        int maxWeight = cacheMap.capacity();
+        if (cacheMap.weightedSize() > maxWeight) {
+            float evictionFactor = (float) cache.getFloatValue(StringUtils.fromString(EVICTION_FACTOR));
+            int evictionWeight = (int) Math.ceil(maxWeight * evictionFactor);
+            cacheMap.evictIfExceeds(maxWeight, Math.max(maxWeight - evictionWeight, 0));
+        }
+    }
+
+    // Returns the weigher of a cache bounded by weight, which is the given weigher function or the approximate size
+    // of the values if a function is not given. The weights are clamped between 1 and the maximum capacity of the
+    // native map.
+    private static Weigher<Object> getWeigher(Environment env, BObject cache, OffHeapStore offHeapStore) {
+        Object weigher = cache.get(StringUtils.fromString(WEIGHER));
+        if (weigher == null) {
+            // The size of an off-heap value is the length of its serialized form
+            return value -> clampWeight(value instanceof OffHeapValue ? ((OffHeapValue) value).length() :
+                    SizeEstimator.estimateSize(value));
+        }
+        BFunctionPointer weigherFunction = (BFunctionPointer) weigher;
+        return value -> clampWeight((long) weigherFunction.call(env.getRuntime(),
+                offHeapStore == null ? value : OffHeapValue.decode(offHeapStore, value)));
+    }
+
+    // Returns the write-behind writer which calls the `writer` function of the cache with the batches of the dirty
+    // entries, or null if the function is not given. A batch which the function fails to write stays dirty.
+    private static WriteBehindWriter<BString, Object> getWriteBehindWriter(Environment env, BObject cache) {
+        Object writer = cache.get(StringUtils.fromString(WRITER));
+        if (writer == null) {
+            return null;
+        }
+        BFunctionPointer writerFunction = (BFunctionPointer) writer;
+        int flushSize = (int) cache.getIntValue(StringUtils.fromString(FLUSH_SIZE));
+        return new WriteBehindWriter<>(flushSize, batch -> {
+            BMap<BString, Object> entries = ValueCreator.createMapValue();
+            batch.forEach(entries::put);
+            try {
+                return !(writerFunction.call(env.getRuntime(), entries) instanceof BError);
+            } catch (BError e) {
+                return false;
             }
+        }, MAINTENANCE_EXECUTOR);
+    }
+
+    // Returns the listener which calls the `onRemoval` function of the cache for each removed entry, or null if the
+    // function is not given and the cache neither writes behind nor is off-heap. The batches of the removed entries are
+    // delivered on the shared virtual threads, so the function is never called on the strands which access the cache.
+    // The dirty entries are flushed when one of them is evicted or expires, and the off-heap values are freed once the
+    // function is notified of them.
+    private static RemovalListener<BString, Object> getRemovalListener(Environment env, BObject cache,
+                                                                       WriteBehindWriter<BString, Object> writer,
+                                                                       OffHeapStore offHeapStore) {
+        Object onRemoval = cache.get(StringUtils.fromString(ON_REMOVAL));
+        if (onRemoval == null && writer == null && offHeapStore == null) {
+            return null;
+        }
+        BFunctionPointer removalFunction = (BFunctionPointer) onRemoval;
+        return notifications -> {
+            if (writer != null && notifications.stream().anyMatch(notification ->
+                    notification.cause() != RemovalCause.EXPLICIT && writer.isDirty(notification.key()))) {
+                writer.scheduleFlush();
+            }
+            for (RemovalNotification<BString, Object> notification : notifications) {
+                if (removalFunction != null) {
+                    notifyRemoval(env, removalFunction, notification, offHeapStore);
+                }
+                if (offHeapStore != null) {
+                    OffHeapValue.free(offHeapStore, notification.value());
+                }
+            }
+        };
+    }
+
+    private static void notifyRemoval(Environment env, BFunctionPointer removalFunction,
+                                      RemovalNotification<BString, Object> notification, OffHeapStore offHeapStore) {
+        Object value = offHeapStore == null ? notification.value() :
+                OffHeapValue.decode(offHeapStore, notification.value());
+        try {
+            removalFunction.call(env.getRuntime(), notification.key(), value,
+                    StringUtils.fromString(notification.cause().name()));
+        } catch (BError e) {
+            // A panic of the function for an entry does not prevent the notification of the others
         }
+    }
+
+    // Adds the listener which drops the removed keys from the index to the segments. The keys whose values are replaced
+    // are still present in the cache, and their tags are replaced when they are put. The listener is notified on the
+    // shared virtual threads, so the index is not updated by the writes which hold the lock of another key.
+    private static void addIndexListener(CacheSegments<BString, Object> segments, KeyIndex keyIndex) {
+        for (ConcurrentLinkedHashMap<BString, Object> segment : segments) {
+            segment.addRemovalListener(notifications -> {
+                for (RemovalNotification<BString, Object> notification : notifications) {
+                    if (notification.cause() != RemovalCause.REPLACED) {
+                        keyIndex.remove(notification.key().getValue());
+                    }
+                }
+            });
+        }
+    }
+
+    // Returns the visitor which writes the serializable entries of the cache to the snapshot. The off-heap values are
+    // written as they are stored, without deserializing them.
+    private static EntryVisitor<BString, Object> getSnapshotVisitor(CacheSnapshot.Writer writer,
+                                                                    OffHeapStore offHeapStore) {
+        return (key, value, expireAfterNanos) -> {
+            byte format = OffHeapValue.formatOf(value);
+            byte[] bytes = format == ValueSerializer.UNSUPPORTED ? null :
+                    OffHeapValue.serialize(offHeapStore, value, format);
+            if (bytes == null) {
+                return;
+            }
+            try {
+                writer.write(key.getValue(), format, bytes, expireAfterNanos);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    private static int clampWeight(long weight) {
+        return (int) Math.min(Math.max(weight, 1), MAX_VALUE_WEIGHT);
+    }
+
+    private static List<BString> getKeys(BArray keys) {
+        List<BString> keyList = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            keyList.add(keys.getBString(i));
+        }
+        return keyList;
+    }
+
+    // Converts the max age (in seconds) of the entry to nanoseconds. A negative max age indicates that the
+    // entry never expires.
+    static long getExpireAfterNanos(BDecimal maxAge) {
+        BigDecimal seconds = maxAge.decimalValue();
+        if (seconds.signum() < 0) {
+            return -1;
+        }
+        return seconds.movePointRight(9).longValue();
+    }
+
+    public static Object externGet(BObject cache, BString key) {
+        CacheMetrics metrics = (CacheMetrics) cache.getNativeData(METRICS);
+        if (metrics == null) {
+            return decode(cache, getCacheMap(cache, key).get(key));
+        }
+        long startTime = System.nanoTime();
+        Object value = decode(cache, getCacheMap(cache, key).get(key));
+        metrics.recordGet(System.nanoTime() - startTime);
         return value;
     }
 
-    @SuppressWarnings("unchecked")
+    // Puts the entry unless the key has a live value, and returns the current value of the key. The entry is neither
+    // written behind nor recorded in the metrics, as it is an entry of the cache which is moved into its memory, such
+    // as an entry which is promoted from the disk of a tiered cache.
+    static Object putIfAbsent(BObject cache, BString key, Object value, long expireAfterNanos) {
+        ConcurrentLinkedHashMap<BString, Object> cacheMap = getCacheMap(cache, key);
+        evictIfFull(cache, cacheMap, 1);
+        Object encodedValue = encode(cache, value);
+        Object currentValue = cacheMap.putIfAbsent(key, encodedValue, expireAfterNanos);
+        if (currentValue == null) {
+            evictIfOverweight(cache, cacheMap);
+            getKeyIndex(cache).put(key.getValue(), NO_TAGS, encodedValue);
+            return value;
+        }
+        OffHeapStore offHeapStore = getOffHeapStore(cache);
+        if (offHeapStore != null) {
+            OffHeapValue.free(offHeapStore, encodedValue);
+        }
+        Object decodedValue = decode(cache, currentValue);
+        return decodedValue != null ? decodedValue : value;
+    }
+
+    // Serializes the value into the direct memory if the cache is off-heap
+    private static Object encode(BObject cache, Object value) {
+        OffHeapStore offHeapStore = (OffHeapStore) cache.getNativeData(OFF_HEAP_STORE);
+        return offHeapStore == null ? value : OffHeapValue.encode(offHeapStore, value);
+    }
+
+    // Deserializes the value if it is stored off-heap. A value that was freed while it was being read is a miss.
+    private static Object decode(BObject cache, Object value) {
+        OffHeapStore offHeapStore = (OffHeapStore) cache.getNativeData(OFF_HEAP_STORE);
+        return offHeapStore == null ? value : OffHeapValue.decode(offHeapStore, value);
+    }
+
     public static void externRemove(BObject cache, BString key) {
-        cacheMap = (ConcurrentLinkedHashMap<BString, BMap<BString, Object>>) cache.getNativeData(CACHE);
-        cacheMap.remove(key);
+        getCacheMap(cache, key).remove(key);
+        WriteBehindWriter<BString, Object> writeBehindWriter = getWriteBehindWriter(cache);
+        if (writeBehindWriter != null) {
+            writeBehindWriter.discard(key);
+        }
     }
 
-    @SuppressWarnings("unchecked")
     public static void externRemoveAll(BObject cache) {
-        cacheMap = (ConcurrentLinkedHashMap<BString, BMap<BString, Object>>) cache.getNativeData(CACHE);
-        cacheMap.clear();
+        // The keys are dropped from the index as their removals are notified, so that the keys which are put
+        // concurrently keep their tags
+        getSegments(cache).clear();
+        WriteBehindWriter<BString, Object> writeBehindWriter = getWriteBehindWriter(cache);
+        if (writeBehindWriter != null) {
+            writeBehindWriter.clear();
+        }
     }
 
-    @SuppressWarnings("unchecked")
     public static boolean externHasKey(BObject cache, BString key) {
-        cacheMap = (ConcurrentLinkedHashMap<BString, BMap<BString, Object>>) cache.getNativeData(CACHE);
-        return cacheMap.containsKey(key);
+        return getCacheMap(cache, key).containsKey(key);
     }
 
-    @SuppressWarnings("unchecked")
     public static BArray externKeys(BObject cache) {
-        cacheMap = (ConcurrentLinkedHashMap<BString, BMap<BString, Object>>) cache.getNativeData(CACHE);
-        return ValueCreator.createArrayValue(cacheMap.keySet().toArray(new BString[0]));
+        return ValueCreator.createArrayValue(getSegments(cache).keys(BString[]::new).toArray(new BString[0]));
     }
 
-    @SuppressWarnings("unchecked")
-    public static int externSize(BObject cache) {
-        cacheMap = (ConcurrentLinkedHashMap<BString, BMap<BString, Object>>) cache.getNativeData(CACHE);
-        return cacheMap.size();
+    // Appends the keys with the prefix which follow the cursor, the last key of the previous page, in order to the
+    // given array until it has the given number of them. Returns the cursor of the next page, or null if there are no
+    // more keys. As the pages are in order, each key which is present throughout the paging is returned once, however
+    // the cache is changed between the pages. The keys are read from the index if they are indexed in order, so that a
+    // page costs time proportional to its size, and are otherwise selected in a single pass over the keys of the cache
+    // which only holds the keys of the page.
+    public static Object externKeysPage(BObject cache, Object cursor, long limit, Object prefix, BArray keys) {
+        String after = cursor == null ? null : ((BString) cursor).getValue();
+        String keyPrefix = prefix == null ? "" : ((BString) prefix).getValue();
+        // One more key is read to find whether there is a next page
+        int count = (int) Math.min(limit, Integer.MAX_VALUE - 1) + 1;
+        List<String> page = getKeyIndex(cache).keysAfter(after, keyPrefix, count);
+        if (page == null) {
+            page = firstKeysAfter(getSegments(cache).keyIterator(), after, keyPrefix, count);
+        }
+        int pageSize = Math.min(page.size(), count - 1);
+        for (int i = 0; i < pageSize; i++) {
+            keys.append(StringUtils.fromString(page.get(i)));
+        }
+        return page.size() > pageSize ? StringUtils.fromString(page.get(pageSize - 1)) : null;
     }
 
-    @SuppressWarnings("unchecked")
-    public static void externCleanUp(BObject cache, BDecimal currentTime) {
-        cacheMap = (ConcurrentLinkedHashMap<BString, BMap<BString, Object>>) cache.getNativeData(CACHE);
-        for (Map.Entry<BString, BMap<BString, Object>> entry : cacheMap.entrySet()) {
-            BMap<BString, Object> value = entry.getValue();
-            Long time = ((BDecimal) value.get(StringUtils.fromString(EXPIRE_TIME))).decimalValue().longValue();
-            if (time != -1 && time <= currentTime.decimalValue().longValue()) {
-                cacheMap.remove(entry.getKey());
+    // Returns the first keys in order which follow the given key and have the prefix, which are kept in a heap of the
+    // given size while the keys are walked
+    private static List<String> firstKeysAfter(Iterator<BString> iterator, String after, String prefix, int count) {
+        PriorityQueue<String> heap = new PriorityQueue<>(Math.min(count, 64), Comparator.reverseOrder());
+        while (iterator.hasNext()) {
+            String key = iterator.next().getValue();
+            if (!key.startsWith(prefix) || (after != null && key.compareTo(after) <= 0)) {
+                continue;
+            }
+            if (heap.size() < count) {
+                heap.add(key);
+            } else if (key.compareTo(heap.peek()) < 0) {
+                heap.poll();
+                heap.add(key);
+            }
+        }
+        List<String> keys = new ArrayList<>(heap);
+        Collections.sort(keys);
+        return keys;
+    }
+
+    public static void externInitKeyIterator(BObject keyIterator, BObject cache) {
+        keyIterator.addNativeData(KEY_ITERATOR, getSegments(cache).keyIterator());
+    }
+
+    // Returns the next key with the prefix, or null if there are no more keys. The iterator may be shared by the
+    // strands which read the stream, so it is advanced by one of them at a time.
+    public static Object externNextKey(BObject keyIterator, Object prefix) {
+        @SuppressWarnings("unchecked")
+        Iterator<BString> iterator = (Iterator<BString>) keyIterator.getNativeData(KEY_ITERATOR);
+        synchronized (iterator) {
+            while (iterator.hasNext()) {
+                BString key = iterator.next();
+                if (hasPrefix(key, prefix)) {
+                    return key;
+                }
             }
         }
+        return null;
+    }
+
+    private static boolean hasPrefix(BString key, Object prefix) {
+        return prefix == null || key.getValue().startsWith(((BString) prefix).getValue());
+    }
+
+    public static int externSize(BObject cache) {
+        return getSegments(cache).size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static WriteBehindWriter<BString, Object> getWriteBehindWriter(BObject cache) {
+        return (WriteBehindWriter<BString, Object>) cache.getNativeData(WRITE_BEHIND);
+    }
+
+    private static KeyIndex getKeyIndex(BObject cache) {
+        return (KeyIndex) cache.getNativeData(KEY_INDEX);
+    }
+
+    static OffHeapStore getOffHeapStore(BObject cache) {
+        return (OffHeapStore) cache.getNativeData(OFF_HEAP_STORE);
+    }
+
+    @SuppressWarnings("unchecked")
+    static CacheSegments<BString, Object> getSegments(BObject cache) {
+        return (CacheSegments<BString, Object>) cache.getNativeData(CACHE);
+    }
+
+    static ConcurrentLinkedHashMap<BString, Object> getCacheMap(BObject cache, BString key) {
+        return getSegments(cache).segmentFor(key);
     }
 }
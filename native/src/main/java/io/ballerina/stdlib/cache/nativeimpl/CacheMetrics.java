@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.cache.nativeimpl;
+
+import io.ballerina.runtime.observability.metrics.Counter;
+import io.ballerina.runtime.observability.metrics.DefaultMetricRegistry;
+import io.ballerina.runtime.observability.metrics.Metric;
+import io.ballerina.runtime.observability.metrics.PolledGauge;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.CacheStats;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.StatsCounter;
+
+import java.lang.ref.Cleaner;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes the metrics of a named cache to the Ballerina observability metrics registry. The counts of the events of
+ * the cache are counters, which are incremented as the statistics of the cache are recorded, and the size, the
+ * capacity and the times are polled gauges, which are sampled from the cache when the metrics are reported. The cache
+ * operations only add to striped counters and never acquire a lock for the metrics.
+ * <p>
+ * The metrics are unregistered once the cache is garbage collected, or once another cache is registered with the same
+ * name, as the registry would otherwise return the metrics of the previous cache to the new one. The gauges only refer
+ * to the native map of the cache weakly, so that the registry does not keep the cache reachable.
+ */
+public class CacheMetrics {
+
+    private static final String CACHE_NAME_TAG = "cache_name";
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+    private static final Cleaner CLEANER = Cleaner.create();
+    private static final Map<String, CacheMetrics> REGISTERED = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final List<Metric> metrics = new ArrayList<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private final Counter expirations;
+    private final Counter gets;
+    private final Counter puts;
+    private final LongAdder getTime = new LongAdder();
+    private final LongAdder putTime = new LongAdder();
+
+    /**
+     * Creates the metrics of the cache with the given name, replacing the metrics of a previous cache with the name.
+     *
+     * @param name the name of the cache, which is added as the `cache_name` tag of the metrics
+     */
+    CacheMetrics(String name) {
+        this.name = name;
+        CacheMetrics previous = REGISTERED.put(name, this);
+        if (previous != null) {
+            previous.unregisterMetrics();
+        }
+        hits = registerCounter("cache_hits", "Number of reads that found the entry in the cache");
+        misses = registerCounter("cache_misses", "Number of reads that did not find the entry in the cache");
+        evictions = registerCounter("cache_evictions", "Number of entries evicted because the cache was full");
+        expirations = registerCounter("cache_expirations", "Number of entries removed because they had expired");
+        gets = registerCounter("cache_gets", "Number of get operations");
+        puts = registerCounter("cache_puts", "Number of put operations");
+    }
+
+    /**
+     * Returns the statistics counter of the cache, which increments the counters of the metrics along with the given
+     * counter.
+     *
+     * @param statsCounter the counter of the statistics of the cache
+     * @return the counter which also publishes the statistics
+     */
+    StatsCounter countStats(StatsCounter statsCounter) {
+        return new PublishingStatsCounter(statsCounter);
+    }
+
+    /**
+     * Registers the gauges of the cache, and unregisters the metrics once the cache is garbage collected.
+     *
+     * @param cache the cache, whose collection unregisters the metrics
+     * @param segments the segments of the native map of the cache, whose statistics must be recorded
+     * @param capacity the maximum weight of the cache if it is bounded by weight, or otherwise its capacity
+     * @param weighted whether the cache is bounded by weight
+     */
+    void register(Object cache, CacheSegments<?, ?> segments, long capacity, boolean weighted) {
+        WeakReference<CacheSegments<?, ?>> segmentsReference = new WeakReference<>(segments);
+        registerGauge("cache_size", "Number of entries in the cache", segmentsReference,
+                reference -> poll(reference, CacheSegments::size));
+        registerGauge("cache_capacity", weighted ? "Maximum total weight of the entries allowed in the cache" :
+                "Maximum number of entries allowed in the cache", this, metrics -> capacity);
+        registerGauge("cache_hit_ratio", "Ratio of the reads that found the entry in the cache", segmentsReference,
+                reference -> poll(reference, map -> hitRatio(map.stats())));
+        registerGauge("cache_get_time_seconds", "Total time spent on get operations", this,
+                metrics -> metrics.getTime.sum() / NANOS_PER_SECOND);
+        registerGauge("cache_put_time_seconds", "Total time spent on put operations", this,
+                metrics -> metrics.putTime.sum() / NANOS_PER_SECOND);
+        CLEANER.register(cache, this::unregister);
+    }
+
+    /** Unregisters the metrics unless they were replaced by the metrics of another cache with the same name. */
+    void unregister() {
+        if (REGISTERED.remove(name, this)) {
+            unregisterMetrics();
+        }
+    }
+
+    private synchronized void unregisterMetrics() {
+        for (Metric metric : metrics) {
+            DefaultMetricRegistry.getInstance().unregister(metric);
+        }
+        metrics.clear();
+    }
+
+    private synchronized Counter registerCounter(String metricName, String description) {
+        Counter counter = Counter.builder(metricName)
+                .description(description)
+                .tag(CACHE_NAME_TAG, name)
+                .register();
+        metrics.add(counter);
+        return counter;
+    }
+
+    private synchronized <T> void registerGauge(String metricName, String description, T source,
+                                                ToDoubleFunction<T> valueFunction) {
+        metrics.add(PolledGauge.builder(metricName, source, valueFunction)
+                .description(description)
+                .tag(CACHE_NAME_TAG, name)
+                .register());
+    }
+
+    private static double poll(WeakReference<CacheSegments<?, ?>> reference,
+                               ToDoubleFunction<CacheSegments<?, ?>> valueFunction) {
+        CacheSegments<?, ?> segments = reference.get();
+        return segments == null ? 0 : valueFunction.applyAsDouble(segments);
+    }
+
+    private static double hitRatio(CacheStats stats) {
+        long requestCount = stats.hitCount() + stats.missCount();
+        return requestCount == 0 ? 1.0 : (double) stats.hitCount() / requestCount;
+    }
+
+    void recordGet(long time) {
+        gets.increment();
+        getTime.add(time);
+    }
+
+    void recordPut(long time) {
+        puts.increment();
+        putTime.add(time);
+    }
+
+    /**
+     * The counter of the statistics of a cache whose metrics are published, which increments the counters of the
+     * metrics as the statistics are recorded.
+     */
+    private final class PublishingStatsCounter implements StatsCounter {
+
+        private final StatsCounter delegate;
+
+        PublishingStatsCounter(StatsCounter delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void recordHits(int count) {
+            delegate.recordHits(count);
+            hits.increment(count);
+        }
+
+        @Override
+        public void recordMisses(int count) {
+            delegate.recordMisses(count);
+            misses.increment(count);
+        }
+
+        @Override
+        public void recordExpiration() {
+            delegate.recordExpiration();
+            expirations.increment();
+        }
+
+        @Override
+        public void recordEviction() {
+            delegate.recordEviction();
+            evictions.increment();
+        }
+
+        @Override
+        public void recordLoadSuccess(long loadTime) {
+            delegate.recordLoadSuccess(loadTime);
+        }
+
+        @Override
+        public void recordLoadFailure(long loadTime) {
+            delegate.recordLoadFailure(loadTime);
+        }
+
+        @Override
+        public CacheStats snapshot() {
+            return delegate.snapshot();
+        }
+    }
+}
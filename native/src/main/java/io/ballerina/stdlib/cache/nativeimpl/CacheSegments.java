@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.cache.nativeimpl;
+
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.CacheStats;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * The segments of the native map of a cache. The keys are hashed to independent maps, each of which has its own
+ * eviction lock, buffers and share of the capacity, so that the writes to the keys of different segments do not
+ * contend with each other. The eviction is decided per segment, so the least recently used entries of the cache as a
+ * whole are only approximated.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public final class CacheSegments<K, V> implements Iterable<ConcurrentLinkedHashMap<K, V>> {
+
+    private final ConcurrentLinkedHashMap<K, V>[] segments;
+
+    /**
+     * Creates the segments of a map of the given capacity. The capacity is divided as evenly as possible, and the
+     * number of segments is reduced so that each of them can hold at least one entry.
+     *
+     * @param segmentCount the number of the segments requested
+     * @param capacity the capacity of the map as a whole
+     * @param factory the function which creates a segment of the given capacity
+     */
+    @SuppressWarnings("unchecked")
+    public CacheSegments(int segmentCount, int capacity, IntFunction<ConcurrentLinkedHashMap<K, V>> factory) {
+        int count = Math.max(1, Math.min(segmentCount, capacity));
+        segments = (ConcurrentLinkedHashMap<K, V>[]) new ConcurrentLinkedHashMap<?, ?>[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = factory.apply(capacity / count + (i < capacity % count ? 1 : 0));
+        }
+    }
+
+    /**
+     * Returns the segment of the given key.
+     *
+     * @param key the key
+     * @return the segment which holds the key
+     */
+    public ConcurrentLinkedHashMap<K, V> segmentFor(Object key) {
+        return segments[indexFor(key)];
+    }
+
+    private int indexFor(Object key) {
+        if (segments.length == 1) {
+            return 0;
+        }
+        // The high bits of the hash are spread to the low ones, as the hashes of the keys may only differ in them
+        int hash = key.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), segments.length);
+    }
+
+    public int segmentCount() {
+        return segments.length;
+    }
+
+    @Override
+    public Iterator<ConcurrentLinkedHashMap<K, V>> iterator() {
+        return Collections.unmodifiableList(Arrays.asList(segments)).iterator();
+    }
+
+    /**
+     * Returns the number of the entries in all the segments.
+     *
+     * @return the number of the entries
+     */
+    public int size() {
+        int size = 0;
+        for (ConcurrentLinkedHashMap<K, V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * Returns the keys of all the segments, in the order of the segments.
+     *
+     * @param generator the function which creates the array of the keys of a segment
+     * @return the keys of the segments
+     */
+    public List<K> keys(IntFunction<K[]> generator) {
+        List<K> keys = new ArrayList<>();
+        for (ConcurrentLinkedHashMap<K, V> segment : segments) {
+            keys.addAll(Arrays.asList(segment.keySet().toArray(generator.apply(0))));
+        }
+        return keys;
+    }
+
+    /**
+     * Returns an iterator over the keys of all the segments, in the order of the segments. The tables of the segments
+     * are walked lazily without copying their keys, and the iterator is weakly consistent, so the keys which are
+     * added or removed while it is used may or may not be returned.
+     *
+     * @return the iterator over the keys of the segments
+     */
+    public Iterator<K> keyIterator() {
+        return new Iterator<>() {
+            private int index;
+            private Iterator<K> keys = segments[0].keySet().iterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!keys.hasNext() && index < segments.length - 1) {
+                    keys = segments[++index].keySet().iterator();
+                }
+                return keys.hasNext();
+            }
+
+            @Override
+            public K next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return keys.next();
+            }
+        };
+    }
+
+    public void clear() {
+        for (ConcurrentLinkedHashMap<K, V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * Returns the statistics of the map. The segments share a single {@code StatsCounter}, so the statistics of any
+     * segment are the ones of the map as a whole.
+     *
+     * @return the statistics recorded so far
+     */
+    public CacheStats stats() {
+        return segments[0].stats();
+    }
+
+    /**
+     * Returns the present mappings of the keys, which are read from each segment in a single batch.
+     *
+     * @param keys the keys whose values are to be returned
+     * @return the present mappings of the keys, in the iteration order of the keys
+     */
+    public Map<K, V> getAll(List<K> keys) {
+        if (segments.length == 1) {
+            return segments[0].getAll(keys);
+        }
+        Map<K, V> values = new HashMap<>();
+        forEachPartition(keys, Function.identity(),
+                (segment, segmentKeys) -> values.putAll(segment.getAll(segmentKeys)));
+        Map<K, V> result = new LinkedHashMap<>();
+        for (K key : keys) {
+            V value = values.get(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    public void removeAll(List<K> keys) {
+        forEachPartition(keys, Function.identity(), ConcurrentLinkedHashMap::removeAll);
+    }
+
+    /**
+     * Partitions the elements by the segments of their keys, and calls the action with each segment and its
+     * elements, which keep their relative order.
+     *
+     * @param elements the elements to be partitioned
+     * @param keyOf the function which returns the key of an element
+     * @param action the action which is called for each segment that has elements
+     * @param <E> the type of the elements
+     */
+    public <E> void forEachPartition(Iterable<E> elements, Function<? super E, ?> keyOf,
+                                     BiConsumer<ConcurrentLinkedHashMap<K, V>, List<E>> action) {
+        if (segments.length == 1) {
+            List<E> partition = new ArrayList<>();
+            elements.forEach(partition::add);
+            action.accept(segments[0], partition);
+            return;
+        }
+        List<List<E>> partitions = new ArrayList<>(segments.length);
+        for (int i = 0; i < segments.length; i++) {
+            partitions.add(new ArrayList<>());
+        }
+        for (E element : elements) {
+            partitions.get(indexFor(keyOf.apply(element))).add(element);
+        }
+        for (int i = 0; i < segments.length; i++) {
+            if (!partitions.get(i).isEmpty()) {
+                action.accept(segments[i], partitions.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.cache.nativeimpl;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes and reads the snapshots of the cache contents, from which a cache is restored when it is initialized. A
+ * snapshot is a sequence of the serialized entries of a cache, in the order from the next entry to be evicted to the
+ * most recently used one, each along with the wall-clock time at which it expires. The entries are written as they are
+ * visited, to a temporary file which replaces the snapshot once it is complete, so that a snapshot is never read while
+ * it is partially written. A snapshot is read through a memory mapping of a window of the file at a time, so that its
+ * pages are only loaded as the entries are restored.
+ */
+public final class CacheSnapshot {
+
+    private static final int MAGIC = 0x42434853;
+    private static final int VERSION = 1;
+    private static final byte END = -1;
+    private static final long NO_EXPIRY = -1;
+    private static final int BUFFER_SIZE = 1 << 16;
+    /** The size of the window of the file which is mapped at a time, unless an entry is larger than it. */
+    private static final int MAP_WINDOW_SIZE = 1 << 26;
+
+    private CacheSnapshot() {}
+
+    /**
+     * Consumes the entries of a snapshot.
+     */
+    public interface EntryConsumer {
+
+        /**
+         * Consumes an entry which has not expired.
+         *
+         * @param key the key of the entry
+         * @param format the format in which the value is serialized
+         * @param value the serialized value
+         * @param expireAfterNanos the remaining time until the entry expires, or a negative value if it never expires
+         */
+        void accept(String key, byte format, byte[] value, long expireAfterNanos);
+    }
+
+    /**
+     * Creates a snapshot at the given path, which replaces the existing snapshot once it is committed.
+     *
+     * @param path the path of the snapshot
+     * @return the writer of the snapshot
+     * @throws IOException if the snapshot could not be created
+     */
+    public static Writer create(Path path) throws IOException {
+        return new Writer(path);
+    }
+
+    /**
+     * Reads the entries of the snapshot at the given path, in the order in which they were written. The entries which
+     * have expired since the snapshot was written are skipped. The framing of the entries and the trailer of the
+     * snapshot are checked before any entry is consumed, so that a truncated or corrupted snapshot is rejected without
+     * consuming any of its entries.
+     *
+     * @param path the path of the snapshot
+     * @param consumer the consumer of the entries
+     * @return the number of the entries which were consumed
+     * @throws IOException if the snapshot could not be read or is not a valid snapshot
+     */
+    public static int read(Path path, EntryConsumer consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedReader reader = openReader(channel, path);
+            int entryCount = 0;
+            while (reader.readByte() != END) {
+                reader.skip(reader.readInt());
+                reader.skip(reader.readInt());
+                reader.skip(Long.BYTES);
+                entryCount++;
+            }
+            if (reader.readInt() != entryCount) {
+                throw new IOException("Corrupted cache snapshot: " + path);
+            }
+
+            reader = openReader(channel, path);
+            int consumedCount = 0;
+            byte format;
+            while ((format = reader.readByte()) != END) {
+                String key = new String(reader.readBytes(reader.readInt()), StandardCharsets.UTF_8);
+                byte[] value = reader.readBytes(reader.readInt());
+                long expiresAt = reader.readLong();
+                long expireAfterNanos = NO_EXPIRY;
+                if (expiresAt != NO_EXPIRY) {
+                    long expireAfterMillis = expiresAt - System.currentTimeMillis();
+                    if (expireAfterMillis <= 0) {
+                        continue;
+                    }
+                    expireAfterNanos = TimeUnit.MILLISECONDS.toNanos(expireAfterMillis);
+                }
+                consumer.accept(key, format, value, expireAfterNanos);
+                consumedCount++;
+            }
+            return consumedCount;
+        }
+    }
+
+    private static MappedReader openReader(FileChannel channel, Path path) throws IOException {
+        MappedReader reader = new MappedReader(channel);
+        if (reader.readInt() != MAGIC || reader.readInt() != VERSION) {
+            throw new IOException("Not a cache snapshot of a supported version: " + path);
+        }
+        return reader;
+    }
+
+    /**
+     * Writes the entries of a snapshot to a temporary file, which replaces the snapshot when it is committed and is
+     * deleted if it is closed without being committed.
+     */
+    public static final class Writer implements Closeable {
+
+        private final Path path;
+        private final Path tempPath;
+        private final DataOutputStream out;
+        private int entryCount;
+        private boolean committed;
+
+        private Writer(Path path) throws IOException {
+            Path absolutePath = path.toAbsolutePath();
+            Path directory = absolutePath.getParent();
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+            this.path = absolutePath;
+            this.tempPath = Files.createTempFile(directory, absolutePath.getFileName().toString(), ".tmp");
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempPath), BUFFER_SIZE));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+        }
+
+        /**
+         * Writes an entry of the snapshot.
+         *
+         * @param key the key of the entry
+         * @param format the format in which the value is serialized
+         * @param value the serialized value
+         * @param expireAfterNanos the remaining time until the entry expires, or a negative value if it never expires
+         * @throws IOException if the entry could not be written
+         */
+        public void write(String key, byte format, byte[] value, long expireAfterNanos) throws IOException {
+            byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+            out.writeByte(format);
+            out.writeInt(keyBytes.length);
+            out.write(keyBytes);
+            out.writeInt(value.length);
+            out.write(value);
+            out.writeLong(expireAfterNanos < 0 ? NO_EXPIRY :
+                    System.currentTimeMillis() + TimeUnit.NANOSECONDS.toMillis(expireAfterNanos));
+            entryCount++;
+        }
+
+        /**
+         * Completes the snapshot and atomically replaces the existing snapshot with it.
+         *
+         * @return the number of the entries which were written
+         * @throws IOException if the snapshot could not be completed
+         */
+        public int commit() throws IOException {
+            out.writeByte(END);
+            out.writeInt(entryCount);
+            out.close();
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+            return entryCount;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                out.close();
+                Files.deleteIfExists(tempPath);
+            }
+        }
+    }
+
+    /**
+     * Reads a snapshot through a read-only mapping of a window of the file, which is moved forward when a value is
+     * read past its end.
+     */
+    private static final class MappedReader {
+
+        private final FileChannel channel;
+        private final long size;
+        private long windowPosition;
+        private MappedByteBuffer window;
+
+        MappedReader(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+            map(0, 0);
+        }
+
+        byte readByte() throws IOException {
+            ensure(Byte.BYTES);
+            return window.get();
+        }
+
+        int readInt() throws IOException {
+            ensure(Integer.BYTES);
+            return window.getInt();
+        }
+
+        long readLong() throws IOException {
+            ensure(Long.BYTES);
+            return window.getLong();
+        }
+
+        byte[] readBytes(int length) throws IOException {
+            if (length < 0) {
+                throw new IOException("Corrupted cache snapshot");
+            }
+            ensure(length);
+            byte[] bytes = new byte[length];
+            window.get(bytes);
+            return bytes;
+        }
+
+        void skip(int length) throws IOException {
+            if (length < 0) {
+                throw new IOException("Corrupted cache snapshot");
+            }
+            if (window.remaining() < length) {
+                map(windowPosition + window.position() + length, 0);
+            } else {
+                window.position(window.position() + length);
+            }
+        }
+
+        private void ensure(int length) throws IOException {
+            if (window.remaining() < length) {
+                map(windowPosition + window.position(), length);
+            }
+        }
+
+        private void map(long position, int length) throws IOException {
+            if (size - position < length) {
+                throw new IOException("Truncated cache snapshot");
+            }
+            windowPosition = position;
+            long windowSize = Math.min(Math.max(MAP_WINDOW_SIZE, length), size - position);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, position, windowSize);
+        }
+    }
+}
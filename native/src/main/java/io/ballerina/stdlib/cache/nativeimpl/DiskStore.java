@@ -0,0 +1,373 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.cache.nativeimpl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stores the serialized entries evicted from the memory of a tiered cache in a local file. The entries are appended to
+ * the file, and are located by an index which is held in memory, so that the file is only read to retrieve the values.
+ * An entry which is removed, replaced or evicted leaves a stale record in the file, and the file is compacted by
+ * rewriting its live records once the stale records make up the compaction threshold of it. The store is bounded by
+ * its number of entries, and evicts the entries which were stored first once it is full. The file only lives as long
+ * as the store, and is truncated when the store is opened. The removals of the keys are counted by a striped version,
+ * so that an entry which was read before its key was removed can be stored only if the key was not removed since.
+ */
+public class DiskStore {
+
+    private static final long NO_EXPIRY = Long.MAX_VALUE;
+    private static final int VERSION_STRIPES = 1024;
+
+    private final Path path;
+    private final int capacity;
+    private final float compactionThreshold;
+    private final LinkedHashMap<String, Record> index;
+    // The numbers of the removals of the keys by their stripes
+    private final long[] versions = new long[VERSION_STRIPES];
+    private FileChannel channel;
+    private long writePosition;
+    private long staleBytes;
+
+    /**
+     * Opens a store at the given path, which replaces any existing file.
+     *
+     * @param path the path of the file of the store
+     * @param capacity the maximum number of entries of the store
+     * @param compactionThreshold the fraction of the file which is stale once it is compacted
+     * @throws IOException if the file could not be created
+     */
+    public DiskStore(Path path, int capacity, float compactionThreshold) throws IOException {
+        Path absolutePath = path.toAbsolutePath();
+        Path directory = absolutePath.getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        this.path = absolutePath;
+        this.capacity = capacity;
+        this.compactionThreshold = compactionThreshold;
+        this.index = new LinkedHashMap<>();
+        this.channel = FileChannel.open(absolutePath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Appends an entry to the store, replacing the entry of its key if there is one. The entries which were stored
+     * first are evicted if the store is full.
+     *
+     * @param key the key of the entry
+     * @param format the format in which the value is serialized
+     * @param value the serialized value
+     * @param expireAfterNanos the remaining time until the entry expires, or a negative value if it never expires
+     * @throws IOException if the entry could not be written
+     */
+    public synchronized void put(String key, byte format, byte[] value, long expireAfterNanos) throws IOException {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES * 2 + keyBytes.length + value.length);
+        buffer.putInt(keyBytes.length).put(keyBytes).putInt(value.length).put(value).flip();
+        long offset = writePosition;
+        writeFully(channel, buffer, offset);
+        writePosition += buffer.capacity();
+        long expiresAt = expireAfterNanos < 0 ? NO_EXPIRY : System.nanoTime() + expireAfterNanos;
+        discard(index.put(key, new Record(offset, buffer.capacity(), format, value.length, expiresAt)));
+        Iterator<Record> records = index.values().iterator();
+        while (index.size() > capacity) {
+            discard(records.next());
+            records.remove();
+        }
+        if (staleBytes > 0 && staleBytes >= compactionThreshold * writePosition) {
+            compact();
+        }
+    }
+
+    /**
+     * Appends an entry to the store like {@link #put}, unless the key was removed or the store was cleared since the
+     * given version of the key was read. A removal of another key of the same stripe also prevents the entry from
+     * being stored.
+     *
+     * @param key the key of the entry
+     * @param format the format in which the value is serialized
+     * @param value the serialized value
+     * @param expireAfterNanos the remaining time until the entry expires, or a negative value if it never expires
+     * @param version the version of the key, which is returned by {@link #version}
+     * @return whether the entry was stored
+     * @throws IOException if the entry could not be written
+     */
+    public synchronized boolean putIfNotRemoved(String key, byte format, byte[] value, long expireAfterNanos,
+                                                long version) throws IOException {
+        if (versions[stripeOf(key)] != version) {
+            return false;
+        }
+        put(key, format, value, expireAfterNanos);
+        return true;
+    }
+
+    /**
+     * Returns the version of the key, which changes whenever the key is removed or the store is cleared.
+     *
+     * @param key the key
+     * @return the version of the key
+     */
+    public synchronized long version(String key) {
+        return versions[stripeOf(key)];
+    }
+
+    /**
+     * Removes the entry of the key from the store and returns it, unless it has expired.
+     *
+     * @param key the key of the entry
+     * @return the entry, or <tt>null</tt> if the key does not have an entry which has not expired
+     * @throws IOException if the entry could not be read
+     */
+    public synchronized Entry take(String key) throws IOException {
+        Record record = index.remove(key);
+        if (record == null) {
+            return null;
+        }
+        discard(record);
+        long now = System.nanoTime();
+        if (record.hasExpired(now)) {
+            return null;
+        }
+        ByteBuffer value = ByteBuffer.allocate(record.valueLength);
+        readFully(channel, value, record.offset + record.length - record.valueLength);
+        return new Entry(record.format, value.array(),
+                record.expiresAt == NO_EXPIRY ? -1 : record.expiresAt - now);
+    }
+
+    /**
+     * Determines whether the key has an entry in the store which has not expired.
+     *
+     * @param key the key of the entry
+     * @return whether the key has an entry
+     */
+    public synchronized boolean containsKey(String key) {
+        Record record = index.get(key);
+        return record != null && !record.hasExpired(System.nanoTime());
+    }
+
+    /**
+     * Removes the entry of the key from the store.
+     *
+     * @param key the key of the entry
+     * @return whether the key had an entry
+     */
+    public synchronized boolean remove(String key) {
+        versions[stripeOf(key)]++;
+        Record record = index.remove(key);
+        discard(record);
+        return record != null;
+    }
+
+    /**
+     * Removes all the entries from the store and truncates its file.
+     *
+     * @throws IOException if the file could not be truncated
+     */
+    public synchronized void clear() throws IOException {
+        for (int i = 0; i < VERSION_STRIPES; i++) {
+            versions[i]++;
+        }
+        index.clear();
+        channel.truncate(0);
+        writePosition = 0;
+        staleBytes = 0;
+    }
+
+    /**
+     * Returns the keys of the entries which have not expired, in the order in which they were stored.
+     *
+     * @return the keys of the store
+     */
+    public synchronized List<String> keys() {
+        long now = System.nanoTime();
+        List<String> keys = new ArrayList<>(index.size());
+        for (Map.Entry<String, Record> entry : index.entrySet()) {
+            if (!entry.getValue().hasExpired(now)) {
+                keys.add(entry.getKey());
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Returns the number of the entries of the store, including the ones which have expired but are not removed yet.
+     *
+     * @return the number of the entries
+     */
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * Returns the maximum number of the entries of the store.
+     *
+     * @return the capacity of the store
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the length of the file, which includes the stale records until it is compacted.
+     *
+     * @return the length of the file in bytes
+     */
+    public synchronized long fileSize() {
+        return writePosition;
+    }
+
+    private static int stripeOf(String key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (VERSION_STRIPES - 1);
+    }
+
+    private void discard(Record record) {
+        if (record != null) {
+            staleBytes += record.length;
+        }
+    }
+
+    // Rewrites the live records to a new file, in the order in which they were stored, and replaces the file with it.
+    // The expired records are dropped along with the stale ones. The new offsets of the records are only applied once
+    // the file is replaced, so that a failure leaves the store as it was, with the old file, and removes the new one.
+    private void compact() throws IOException {
+        Path compactedPath = path.resolveSibling(path.getFileName() + ".compact");
+        long now = System.nanoTime();
+        long position = 0;
+        Map<Record, Long> offsets = new IdentityHashMap<>();
+        FileChannel compacted = FileChannel.open(compactedPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            for (Record record : index.values()) {
+                if (record.hasExpired(now)) {
+                    continue;
+                }
+                ByteBuffer buffer = ByteBuffer.allocate(record.length);
+                readFully(channel, buffer, record.offset);
+                buffer.flip();
+                writeFully(compacted, buffer, position);
+                offsets.put(record, position);
+                position += record.length;
+            }
+            // The new file stays open while it replaces the old one, so that it is used as it was written
+            Files.move(compactedPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            compacted.close();
+            Files.deleteIfExists(compactedPath);
+            throw e;
+        }
+        FileChannel previous = channel;
+        channel = compacted;
+        Iterator<Record> records = index.values().iterator();
+        while (records.hasNext()) {
+            Record record = records.next();
+            Long offset = offsets.get(record);
+            if (offset == null) {
+                records.remove();
+            } else {
+                record.offset = offset;
+            }
+        }
+        writePosition = position;
+        staleBytes = 0;
+        previous.close();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Truncated disk store: " + channel);
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * An entry which was taken from the store.
+     */
+    public static final class Entry {
+
+        private final byte format;
+        private final byte[] value;
+        private final long expireAfterNanos;
+
+        Entry(byte format, byte[] value, long expireAfterNanos) {
+            this.format = format;
+            this.value = value;
+            this.expireAfterNanos = expireAfterNanos;
+        }
+
+        /** Returns the format in which the value is serialized. */
+        public byte format() {
+            return format;
+        }
+
+        /** Returns the serialized value. */
+        public byte[] value() {
+            return value;
+        }
+
+        /** Returns the remaining time until the entry expires, or a negative value if it never expires. */
+        public long expireAfterNanos() {
+            return expireAfterNanos;
+        }
+    }
+
+    // The location of the record of an entry in the file, along with its expiration time
+    private static final class Record {
+
+        private long offset;
+        private final int length;
+        private final byte format;
+        private final int valueLength;
+        private final long expiresAt;
+
+        Record(long offset, int length, byte format, int valueLength, long expiresAt) {
+            this.offset = offset;
+            this.length = length;
+            this.format = format;
+            this.valueLength = valueLength;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean hasExpired(long now) {
+            return expiresAt != NO_EXPIRY && expiresAt - now <= 0;
+        }
+    }
+}
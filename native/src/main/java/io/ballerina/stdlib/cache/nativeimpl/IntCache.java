@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.cache.nativeimpl;
+
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BDecimal;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.CacheStats;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.ConcurrentStatsCounter;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.StatsCounter;
+
+/**
+ * Class to handle ballerina external functions of the `int` keyed cache, whose entries are held in an
+ * {@link IntCacheMap}, so that the keys are neither converted to strings nor boxed.
+ */
+public class IntCache {
+
+    private static final String MAX_CAPACITY = "maxCapacity";
+    private static final String EVICTION_FACTOR = "evictionFactor";
+    private static final String RECORD_STATS = "recordStats";
+    private static final String SEGMENTS = "segments";
+    private static final String CLEANUP_INTERVAL = "cleanupInterval";
+    private static final String INT_CACHE = "INT_CACHE";
+
+    private IntCache() {}
+
+    public static void externInit(BObject intCache) {
+        int capacity = (int) Math.min(intCache.getIntValue(StringUtils.fromString(MAX_CAPACITY)), Integer.MAX_VALUE);
+        float evictionFactor = (float) intCache.getFloatValue(StringUtils.fromString(EVICTION_FACTOR));
+        int segmentCount = (int) intCache.getIntValue(StringUtils.fromString(SEGMENTS));
+        StatsCounter statsCounter = intCache.getBooleanValue(StringUtils.fromString(RECORD_STATS)) ?
+                new ConcurrentStatsCounter() : StatsCounter.disabled();
+        IntCacheMap cacheMap = new IntCacheMap(segmentCount, capacity, evictionFactor, statsCounter);
+        intCache.addNativeData(INT_CACHE, cacheMap);
+        MaintenanceScheduler.schedule(cacheMap, IntCacheMap::tryCleanUp,
+                Cache.getExpireAfterNanos((BDecimal) intCache.get(StringUtils.fromString(CLEANUP_INTERVAL))));
+    }
+
+    public static void externPut(BObject intCache, long key, Object value, BDecimal maxAge) {
+        getCacheMap(intCache).put(key, value, Cache.getExpireAfterNanos(maxAge));
+    }
+
+    public static Object externGet(BObject intCache, long key) {
+        return getCacheMap(intCache).get(key);
+    }
+
+    public static void externRemove(BObject intCache, long key) {
+        getCacheMap(intCache).remove(key);
+    }
+
+    public static void externRemoveAll(BObject intCache) {
+        getCacheMap(intCache).clear();
+    }
+
+    public static boolean externHasKey(BObject intCache, long key) {
+        return getCacheMap(intCache).containsKey(key);
+    }
+
+    public static BArray externKeys(BObject intCache) {
+        return ValueCreator.createArrayValue(getCacheMap(intCache).keys());
+    }
+
+    public static int externSize(BObject intCache) {
+        return getCacheMap(intCache).size();
+    }
+
+    public static int externCapacity(BObject intCache) {
+        return getCacheMap(intCache).capacity();
+    }
+
+    public static BArray externStats(BObject intCache) {
+        CacheStats stats = getCacheMap(intCache).stats();
+        return ValueCreator.createArrayValue(new long[]{stats.hitCount(), stats.missCount(), stats.expirationCount(),
+                stats.evictionCount(), stats.loadSuccessCount(), stats.loadFailureCount(), stats.totalLoadTime()});
+    }
+
+    private static IntCacheMap getCacheMap(BObject intCache) {
+        return (IntCacheMap) intCache.getNativeData(INT_CACHE);
+    }
+}
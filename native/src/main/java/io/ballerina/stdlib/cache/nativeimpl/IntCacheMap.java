@@ -0,0 +1,692 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.cache.nativeimpl;
+
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.CacheStats;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.StatsCounter;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * The native map of an `int` keyed cache, which is an open addressing table of `long` keys that evicts its least
+ * recently used entries by an eviction factor once it is full. The keys, the values, the expiration times and the
+ * links of the order of recency are held in parallel arrays indexed by the slots of the table, so that a lookup does
+ * not allocate and an entry does not store any objects other than its value.
+ * <p>
+ * The keys are hashed to segments, each of which has its own table, lock and share of the capacity, as the segments
+ * of the native map of a `cache:Cache` do. The reads of a segment do not lock it, but probe its table optimistically
+ * and only retry under its read lock if it was written meanwhile. A read records its key in a lossy buffer of the
+ * segment instead of moving the entry to the head of the order of recency, and the buffer is replayed against the
+ * order in a batch under the write lock, by the write which follows or by the read which fills half of it. The
+ * writes of a segment are serialized on its write lock.
+ * <p>
+ * The collisions are resolved by linear probing, and a removed entry is filled by shifting the following entries of
+ * its cluster back, so that the table has no tombstones. The table grows by doubling up to twice the capacity of the
+ * segment, which bounds its load factor to a half. The expired entries are removed by the periodic cleanup, which
+ * sweeps the table of a segment in batches once one of its entries is due, and by the reads which find them.
+ */
+public final class IntCacheMap {
+
+    // The number of the slots of the table of a segment which are swept for the expired entries by a single cleanup
+    static final int SWEEP_BATCH_SIZE = 4096;
+
+    private static final int NIL = -1;
+    private static final int MIN_TABLE_SIZE = 16;
+    private static final int MAX_TABLE_SIZE = 1 << 30;
+    private static final long NO_EXPIRY = Long.MAX_VALUE;
+    private static final int READ_BUFFER_SIZE = 64;
+    private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+    private static final int READ_DRAIN_THRESHOLD = READ_BUFFER_SIZE / 2;
+    // The value of a key which is present but has expired
+    private static final Object EXPIRED = new Object();
+
+    private final Segment[] segments;
+    private final StatsCounter statsCounter;
+
+    /**
+     * Creates the map of an `int` keyed cache. The capacity is divided among the segments as evenly as possible, and
+     * the number of segments is reduced so that each of them can hold at least one entry.
+     *
+     * @param segmentCount the number of the segments requested
+     * @param capacity the maximum number of entries of the map, of which a segment holds at most half the maximum
+     *                 table size
+     * @param evictionFactor the fraction of the capacity of a segment which is evicted once the segment is full
+     * @param statsCounter the counter which records the statistics of the map
+     */
+    public IntCacheMap(int segmentCount, int capacity, float evictionFactor, StatsCounter statsCounter) {
+        this.statsCounter = statsCounter;
+        int count = Math.max(1, Math.min(segmentCount, capacity));
+        segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(capacity / count + (i < capacity % count ? 1 : 0), evictionFactor,
+                    statsCounter);
+        }
+    }
+
+    /**
+     * Returns the value of the key, or null if the key is absent or has expired. The read is recorded to mark the
+     * entry as the most recently used, and an expired entry is removed unless its segment is being written.
+     *
+     * @param key the key whose value is returned
+     * @return the value of the key or null
+     */
+    public Object get(long key) {
+        return segmentFor(key).get(key);
+    }
+
+    /**
+     * Puts the value of the key as the most recently used entry. The least recently used entries of the segment of
+     * the key are evicted by the eviction factor if the segment is full, and at least one of them is evicted.
+     *
+     * @param key the key of the entry
+     * @param value the value of the entry, which must not be null
+     * @param expireAfterNanos the duration after which the entry expires or a negative value if it never expires
+     */
+    public void put(long key, Object value, long expireAfterNanos) {
+        segmentFor(key).put(key, value, expirationTime(expireAfterNanos));
+    }
+
+    /**
+     * Removes the entry of the key.
+     *
+     * @param key the key of the entry
+     * @return whether the key was present
+     */
+    public boolean remove(long key) {
+        return segmentFor(key).remove(key);
+    }
+
+    /**
+     * Returns whether the key has a value which has not expired, without recording a read of the key.
+     *
+     * @param key the key to be checked
+     * @return whether the key has a live value
+     */
+    public boolean containsKey(long key) {
+        Object value = segmentFor(key).valueOf(key);
+        return value != null && value != EXPIRED;
+    }
+
+    /**
+     * Returns the keys which have not expired, from the least recently used to the most recently used of each
+     * segment, in the order of the segments.
+     *
+     * @return the live keys of the map
+     */
+    public long[] keys() {
+        if (segments.length == 1) {
+            return segments[0].keys();
+        }
+        long[][] segmentKeys = new long[segments.length][];
+        int count = 0;
+        for (int i = 0; i < segments.length; i++) {
+            segmentKeys[i] = segments[i].keys();
+            count += segmentKeys[i].length;
+        }
+        long[] liveKeys = new long[count];
+        int position = 0;
+        for (long[] keys : segmentKeys) {
+            System.arraycopy(keys, 0, liveKeys, position, keys.length);
+            position += keys.length;
+        }
+        return liveKeys;
+    }
+
+    /** Removes all the entries and shrinks the tables to their initial size. */
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /** Returns the number of the live entries, as the expired entries are removed before they are counted. */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * Returns the maximum number of entries of the map, which is less than the requested capacity if a segment would
+     * hold more entries than half the maximum table size.
+     *
+     * @return the maximum number of entries
+     */
+    public int capacity() {
+        int capacity = 0;
+        for (Segment segment : segments) {
+            capacity += segment.capacity;
+        }
+        return capacity;
+    }
+
+    public int segmentCount() {
+        return segments.length;
+    }
+
+    /** Returns a snapshot of the statistics of the map. */
+    public CacheStats stats() {
+        return statsCounter.snapshot();
+    }
+
+    /**
+     * Replays the buffered reads and removes a batch of the expired entries of each segment which is not being
+     * written.
+     *
+     * @return whether the cleanup is complete, which is false if a segment was being written or has more slots to be
+     *         swept than a batch
+     */
+    public boolean tryCleanUp() {
+        boolean complete = true;
+        for (Segment segment : segments) {
+            complete &= segment.tryCleanUp();
+        }
+        return complete;
+    }
+
+    /** Replays the buffered reads and removes all the expired entries, waiting for the segments being written. */
+    public void cleanUp() {
+        for (Segment segment : segments) {
+            segment.cleanUp();
+        }
+    }
+
+    // The top bits of the hash select the segment, as the table of the segment is indexed by its low bits
+    private Segment segmentFor(long key) {
+        if (segments.length == 1) {
+            return segments[0];
+        }
+        return segments[(int) (((hash(key) >>> 32) * segments.length) >>> 32)];
+    }
+
+    // Spreads the bits of the key, as the sequential ids would otherwise fill the clusters of the table
+    private static long hash(long key) {
+        return key * 0x9E3779B97F4A7C15L;
+    }
+
+    // The clock is only read for the entries which expire
+    private static boolean hasExpired(long expirationTime) {
+        return expirationTime != NO_EXPIRY && expirationTime <= System.nanoTime();
+    }
+
+    private static long expirationTime(long expireAfterNanos) {
+        if (expireAfterNanos < 0) {
+            return NO_EXPIRY;
+        }
+        long now = System.nanoTime();
+        long expiresAt = now + expireAfterNanos;
+        // Saturates on an overflow, which would otherwise make a long lived entry expire immediately
+        boolean overflowed = ((now ^ expiresAt) & (expireAfterNanos ^ expiresAt)) < 0;
+        return overflowed || expiresAt == NO_EXPIRY ? NO_EXPIRY - 1 : expiresAt;
+    }
+
+    private static int tableSizeFor(int minimumSize) {
+        return Math.min(Integer.highestOneBit(minimumSize - 1) << 1, MAX_TABLE_SIZE);
+    }
+
+    /**
+     * The arrays of a table, which are replaced together when the table is resized, so that an optimistic reader
+     * always probes arrays of the same size.
+     */
+    private static final class Table {
+
+        final long[] keys;
+        // A slot whose value is null is free
+        final Object[] values;
+        final long[] expiresAt;
+        // The links towards the most recently used entry and towards the least recently used entry
+        final int[] previous;
+        final int[] next;
+        final int mask;
+
+        Table(int tableSize) {
+            keys = new long[tableSize];
+            values = new Object[tableSize];
+            expiresAt = new long[tableSize];
+            previous = new int[tableSize];
+            next = new int[tableSize];
+            mask = tableSize - 1;
+        }
+
+        // The probe is bounded by the size of the table, as an optimistic reader may see the table while it is written
+        int find(long key) {
+            int slot = home(key);
+            for (int probes = 0; probes <= mask && values[slot] != null; probes++) {
+                if (keys[slot] == key) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return NIL;
+        }
+
+        int freeSlot(long key) {
+            int slot = home(key);
+            while (values[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        int home(long key) {
+            long hash = hash(key);
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+
+        int length() {
+            return mask + 1;
+        }
+    }
+
+    /**
+     * A segment of the map, whose table, order of recency and sweep are written under its write lock.
+     */
+    private static final class Segment {
+
+        final int capacity;
+        final float evictionFactor;
+        final int maxTableSize;
+        final StatsCounter statsCounter;
+        final StampedLock lock = new StampedLock();
+        // The keys which were read, and the position after the one of each read, which publishes its key
+        final AtomicLongArray readKeys = new AtomicLongArray(READ_BUFFER_SIZE);
+        final AtomicLongArray readPositions = new AtomicLongArray(READ_BUFFER_SIZE);
+        final AtomicLong readCounter = new AtomicLong();
+        final AtomicLong writeCounter = new AtomicLong();
+        Table table;
+        int head = NIL;
+        int tail = NIL;
+        int size;
+        // No entry expires before the earliest expiration, which is recomputed by each complete sweep of the table
+        long earliestExpiration = NO_EXPIRY;
+        long sweepEarliestExpiration = NO_EXPIRY;
+        // The slot from which the sweep of the table continues, which is 0 if the table is not being swept
+        int sweepCursor;
+
+        Segment(int capacity, float evictionFactor, StatsCounter statsCounter) {
+            this.capacity = Math.min(capacity, MAX_TABLE_SIZE >>> 1);
+            this.evictionFactor = evictionFactor;
+            this.statsCounter = statsCounter;
+            maxTableSize = tableSizeFor(Math.max(this.capacity * 2, MIN_TABLE_SIZE));
+            table = new Table(Math.min(MIN_TABLE_SIZE, maxTableSize));
+        }
+
+        Object get(long key) {
+            Object value = valueOf(key);
+            if (value == null) {
+                statsCounter.recordMisses(1);
+                return null;
+            }
+            if (value == EXPIRED) {
+                removeIfExpired(key);
+                statsCounter.recordMisses(1);
+                return null;
+            }
+            statsCounter.recordHits(1);
+            recordRead(key);
+            return value;
+        }
+
+        // Returns the value of the key, null if the key is absent or EXPIRED if it has expired. The table is read
+        // optimistically, and read again under the read lock if it was written meanwhile.
+        Object valueOf(long key) {
+            long stamp = lock.tryOptimisticRead();
+            Object value = read(key);
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    value = read(key);
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            return value;
+        }
+
+        private Object read(long key) {
+            Table current = table;
+            int slot = current.find(key);
+            if (slot == NIL) {
+                return null;
+            }
+            Object value = current.values[slot];
+            return hasExpired(current.expiresAt[slot]) ? EXPIRED : value;
+        }
+
+        // The expired entry is left to the cleanup if the segment is being written
+        private void removeIfExpired(long key) {
+            long stamp = lock.tryWriteLock();
+            if (stamp == 0) {
+                return;
+            }
+            try {
+                int slot = table.find(key);
+                if (slot != NIL && hasExpired(table.expiresAt[slot])) {
+                    delete(slot);
+                    statsCounter.recordExpiration();
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        // Records the read of the key in the buffer, and drains the buffer if half of it is filled and the segment is
+        // not being written. The read is discarded if the buffer is full or another reader claims its position, which
+        // only affects the order of recency.
+        private void recordRead(long key) {
+            long readCount = readCounter.get();
+            long writeCount = writeCounter.get();
+            long pending = writeCount - readCount;
+            if (pending < READ_BUFFER_SIZE && writeCounter.compareAndSet(writeCount, writeCount + 1)) {
+                int index = (int) (writeCount & READ_BUFFER_MASK);
+                readKeys.lazySet(index, key);
+                readPositions.lazySet(index, writeCount + 1);
+                pending++;
+            }
+            if (pending >= READ_DRAIN_THRESHOLD) {
+                long stamp = lock.tryWriteLock();
+                if (stamp != 0) {
+                    try {
+                        drainReads();
+                    } finally {
+                        lock.unlockWrite(stamp);
+                    }
+                }
+            }
+        }
+
+        // Moves the entries of the buffered reads to the head of the order of recency, under the write lock
+        private void drainReads() {
+            long readCount = readCounter.get();
+            long writeCount = writeCounter.get();
+            while (readCount != writeCount) {
+                int index = (int) (readCount & READ_BUFFER_MASK);
+                if (readPositions.get(index) != readCount + 1) {
+                    // The position was claimed, but its key is not yet published
+                    break;
+                }
+                int slot = table.find(readKeys.get(index));
+                if (slot != NIL) {
+                    moveToHead(slot);
+                }
+                readCount++;
+            }
+            readCounter.lazySet(readCount);
+        }
+
+        void put(long key, Object value, long expirationTime) {
+            long stamp = lock.writeLock();
+            try {
+                drainReads();
+                if (expirationTime != NO_EXPIRY) {
+                    earliestExpiration = Math.min(earliestExpiration, expirationTime);
+                    sweepEarliestExpiration = Math.min(sweepEarliestExpiration, expirationTime);
+                }
+                int slot = table.find(key);
+                if (slot != NIL) {
+                    table.values[slot] = value;
+                    table.expiresAt[slot] = expirationTime;
+                    moveToHead(slot);
+                    return;
+                }
+                if (size >= capacity) {
+                    int evictionCount = Math.max((int) Math.ceil(capacity * evictionFactor), 1);
+                    evict(Math.max(capacity - evictionCount, 0));
+                }
+                if (size >= (table.length() >>> 1) && table.length() < maxTableSize) {
+                    resize(table.length() << 1);
+                }
+                slot = table.freeSlot(key);
+                table.keys[slot] = key;
+                table.values[slot] = value;
+                table.expiresAt[slot] = expirationTime;
+                linkFirst(slot);
+                size++;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        boolean remove(long key) {
+            long stamp = lock.writeLock();
+            try {
+                int slot = table.find(key);
+                if (slot == NIL) {
+                    return false;
+                }
+                delete(slot);
+                return true;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        long[] keys() {
+            long stamp = lock.writeLock();
+            try {
+                drainReads();
+                long[] liveKeys = new long[size];
+                int count = 0;
+                for (int slot = tail; slot != NIL; slot = table.previous[slot]) {
+                    if (!hasExpired(table.expiresAt[slot])) {
+                        liveKeys[count++] = table.keys[slot];
+                    }
+                }
+                return count == size ? liveKeys : Arrays.copyOf(liveKeys, count);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void clear() {
+            long stamp = lock.writeLock();
+            try {
+                drainReads();
+                table = new Table(Math.min(MIN_TABLE_SIZE, maxTableSize));
+                head = NIL;
+                tail = NIL;
+                size = 0;
+                earliestExpiration = NO_EXPIRY;
+                sweepEarliestExpiration = NO_EXPIRY;
+                sweepCursor = 0;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        int size() {
+            long stamp = lock.writeLock();
+            try {
+                expireAll();
+                return size;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        boolean tryCleanUp() {
+            long stamp = lock.tryWriteLock();
+            if (stamp == 0) {
+                return false;
+            }
+            try {
+                drainReads();
+                return expireEntries(SWEEP_BATCH_SIZE);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void cleanUp() {
+            long stamp = lock.writeLock();
+            try {
+                drainReads();
+                expireAll();
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private void expireAll() {
+            boolean complete;
+            do {
+                complete = expireEntries(SWEEP_BATCH_SIZE);
+            } while (!complete);
+        }
+
+        // Sweeps a batch of the slots of the table for the expired entries if one of them is due, and returns whether
+        // the sweep is complete. The entries which are put or shifted back behind the sweep lower the earliest
+        // expiration that it computes, so that they are swept by the next one.
+        private boolean expireEntries(int maxVisits) {
+            long now = System.nanoTime();
+            if (sweepCursor == 0) {
+                if (earliestExpiration > now) {
+                    return true;
+                }
+                sweepEarliestExpiration = NO_EXPIRY;
+            }
+            Table current = table;
+            int end = Math.min(sweepCursor + maxVisits, current.length());
+            for (int slot = sweepCursor; slot < end; slot++) {
+                // An entry which is shifted back into the slot by the removal is checked as well
+                while (current.values[slot] != null && current.expiresAt[slot] <= now) {
+                    delete(slot);
+                    statsCounter.recordExpiration();
+                }
+                if (current.values[slot] != null) {
+                    sweepEarliestExpiration = Math.min(sweepEarliestExpiration, current.expiresAt[slot]);
+                }
+            }
+            if (end < current.length()) {
+                sweepCursor = end;
+                return false;
+            }
+            sweepCursor = 0;
+            earliestExpiration = sweepEarliestExpiration;
+            return true;
+        }
+
+        // Evicts the least recently used entries until the segment has at most the given number of entries
+        private void evict(int retainedSize) {
+            while (size > retainedSize) {
+                delete(tail);
+                statsCounter.recordEviction();
+            }
+        }
+
+        // Frees the slot and shifts back the following entries of its cluster which may not be found past the free
+        // slot
+        private void delete(int slot) {
+            unlink(slot);
+            size--;
+            Table current = table;
+            int free = slot;
+            int next = slot;
+            while (true) {
+                next = (next + 1) & current.mask;
+                if (current.values[next] == null) {
+                    break;
+                }
+                int home = current.home(current.keys[next]);
+                // The entry stays if its home slot lies cyclically after the free slot and up to its current slot
+                boolean reachable = free <= next ? free < home && home <= next : free < home || home <= next;
+                if (!reachable) {
+                    move(next, free);
+                    free = next;
+                }
+            }
+            current.values[free] = null;
+        }
+
+        private void move(int from, int to) {
+            Table current = table;
+            current.keys[to] = current.keys[from];
+            current.values[to] = current.values[from];
+            current.expiresAt[to] = current.expiresAt[from];
+            current.previous[to] = current.previous[from];
+            current.next[to] = current.next[from];
+            if (current.previous[to] == NIL) {
+                head = to;
+            } else {
+                current.next[current.previous[to]] = to;
+            }
+            if (current.next[to] == NIL) {
+                tail = to;
+            } else {
+                current.previous[current.next[to]] = to;
+            }
+            sweepEarliestExpiration = Math.min(sweepEarliestExpiration, current.expiresAt[to]);
+        }
+
+        private void moveToHead(int slot) {
+            if (slot != head) {
+                unlink(slot);
+                linkFirst(slot);
+            }
+        }
+
+        private void linkFirst(int slot) {
+            table.previous[slot] = NIL;
+            table.next[slot] = head;
+            if (head == NIL) {
+                tail = slot;
+            } else {
+                table.previous[head] = slot;
+            }
+            head = slot;
+        }
+
+        private void unlink(int slot) {
+            Table current = table;
+            if (current.previous[slot] == NIL) {
+                head = current.next[slot];
+            } else {
+                current.next[current.previous[slot]] = current.next[slot];
+            }
+            if (current.next[slot] == NIL) {
+                tail = current.previous[slot];
+            } else {
+                current.previous[current.next[slot]] = current.previous[slot];
+            }
+        }
+
+        // Rehashes the entries into a table of the given size, relinking them from the least recently used so that
+        // their order of recency is kept. The sweep of the table restarts, as the entries are moved to other slots.
+        private void resize(int tableSize) {
+            Table oldTable = table;
+            int oldTail = tail;
+            table = new Table(tableSize);
+            head = NIL;
+            tail = NIL;
+            for (int oldSlot = oldTail; oldSlot != NIL; oldSlot = oldTable.previous[oldSlot]) {
+                int slot = table.freeSlot(oldTable.keys[oldSlot]);
+                table.keys[slot] = oldTable.keys[oldSlot];
+                table.values[slot] = oldTable.values[oldSlot];
+                table.expiresAt[slot] = oldTable.expiresAt[oldSlot];
+                linkFirst(slot);
+            }
+            sweepCursor = 0;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.cache.nativeimpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+
+/**
+ * The secondary index of the keys of a cache, which finds the keys of a tag, and the keys with a prefix if the keys
+ * are indexed in order, in time proportional to the number of the matched keys rather than the size of the cache.
+ * <p>
+ * The index of a key is updated after the key is written to or removed from the cache, under a lock of the key, and
+ * against the value which the key has in the cache at that point. A put is only recorded if the key still has the value
+ * which was put, so that the tags of a put which was overtaken by a later put or a removal are not recorded, and a
+ * removal only drops the key if it is no longer present in the cache, so that a removal which is notified after the key
+ * was put again does not drop the tags of the later put. The removals must be notified to the index asynchronously,
+ * rather than by the writes of the cache while they hold the lock of another key, and only once the index is used, so
+ * that the caches which neither tag their keys nor index them in order are not notified of their removals.
+ */
+public final class KeyIndex {
+
+    private static final int LOCK_STRIPES = 256;
+
+    private final Function<String, Object> valueOf;
+    private final Map<String, Set<String>> keysOfTag = new ConcurrentHashMap<>();
+    private final Map<String, String[]> tagsOfKey = new ConcurrentHashMap<>();
+    private final NavigableSet<String> orderedKeys;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private volatile boolean trackingRemovals;
+
+    /**
+     * Creates the index of the keys of a cache.
+     *
+     * @param indexPrefixes whether the keys are indexed in order, so that the keys with a prefix can be found
+     * @param valueOf the function which returns the value of the key in the cache, without recording a read of it, or
+     *                <tt>null</tt> if the key is not present in the cache
+     */
+    public KeyIndex(boolean indexPrefixes, Function<String, Object> valueOf) {
+        this.valueOf = valueOf;
+        orderedKeys = indexPrefixes ? new ConcurrentSkipListSet<>() : null;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Starts the notification of the removals of the keys to the index, unless it was already started. The index
+     * must be tracking the removals before a key is put with tags, or before any key is put if the keys are indexed
+     * in order, as the removals which happened before are not notified.
+     *
+     * @param addListener the action which adds the listener that notifies the removals of the keys to the index
+     */
+    public void trackRemovals(Runnable addListener) {
+        if (trackingRemovals) {
+            return;
+        }
+        synchronized (this) {
+            if (!trackingRemovals) {
+                addListener.run();
+                trackingRemovals = true;
+            }
+        }
+    }
+
+    /**
+     * Records the key which was put to the cache with the given value and tags, which replace its previous tags. The
+     * put is ignored if the key no longer has the value in the cache, as the key was put again or removed since.
+     *
+     * @param key the key which was put
+     * @param tags the tags of the key, which may be empty
+     * @param value the value which was put to the cache, as it is held by the cache
+     */
+    public void put(String key, String[] tags, Object value) {
+        // The key has no tags to be replaced unless a key was tagged, and a key which is tagged concurrently records
+        // its tags only if its put was not overtaken by this one
+        if (orderedKeys == null && tags.length == 0 && tagsOfKey.isEmpty()) {
+            return;
+        }
+        synchronized (lockOf(key)) {
+            if (valueOf.apply(key) != value) {
+                return;
+            }
+            if (orderedKeys != null) {
+                orderedKeys.add(key);
+            }
+            String[] previousTags = tags.length == 0 ? tagsOfKey.remove(key) : tagsOfKey.put(key, tags.clone());
+            if (previousTags != null) {
+                untag(key, previousTags);
+            }
+            for (String tag : tags) {
+                keysOfTag.compute(tag, (t, keys) -> {
+                    Set<String> tagKeys = keys == null ? ConcurrentHashMap.newKeySet() : keys;
+                    tagKeys.add(key);
+                    return tagKeys;
+                });
+            }
+        }
+    }
+
+    /**
+     * Drops the key from the index, unless it was put to the cache again since it was removed.
+     *
+     * @param key the key which was removed
+     */
+    public void remove(String key) {
+        if (orderedKeys == null && tagsOfKey.isEmpty()) {
+            return;
+        }
+        synchronized (lockOf(key)) {
+            if (valueOf.apply(key) != null) {
+                return;
+            }
+            if (orderedKeys != null) {
+                orderedKeys.remove(key);
+            }
+            String[] tags = tagsOfKey.remove(key);
+            if (tags != null) {
+                untag(key, tags);
+            }
+        }
+    }
+
+    /**
+     * Returns the keys of the tag.
+     *
+     * @param tag the tag
+     * @return the keys which were put with the tag
+     */
+    public List<String> keysOfTag(String tag) {
+        Set<String> keys = keysOfTag.get(tag);
+        return keys == null ? List.of() : new ArrayList<>(keys);
+    }
+
+    /**
+     * Returns the first keys in order which follow the given key and have the prefix, or null if the keys are not
+     * indexed in order. The keys which were removed from the cache but are not dropped from the index yet are skipped.
+     *
+     * @param after the key which the keys follow, or <tt>null</tt> to return the first keys
+     * @param prefix the prefix, which is empty to return all the keys
+     * @param limit the maximum number of the keys
+     * @return the keys in order
+     */
+    public List<String> keysAfter(String after, String prefix, int limit) {
+        if (orderedKeys == null) {
+            return null;
+        }
+        NavigableSet<String> tail = after == null || after.compareTo(prefix) < 0 ?
+                orderedKeys.tailSet(prefix, true) : orderedKeys.tailSet(after, false);
+        List<String> keys = new ArrayList<>(Math.min(limit, 64));
+        for (String key : tail) {
+            if (!key.startsWith(prefix) || keys.size() == limit) {
+                break;
+            }
+            if (valueOf.apply(key) != null) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Returns the keys with the prefix, or null if the keys are not indexed in order.
+     *
+     * @param prefix the prefix
+     * @return the keys with the prefix
+     */
+    public List<String> keysWithPrefix(String prefix) {
+        if (orderedKeys == null) {
+            return null;
+        }
+        List<String> keys = new ArrayList<>();
+        for (String key : orderedKeys.tailSet(prefix, true)) {
+            if (!key.startsWith(prefix)) {
+                break;
+            }
+            keys.add(key);
+        }
+        return keys;
+    }
+
+    public boolean indexesPrefixes() {
+        return orderedKeys != null;
+    }
+
+    private Object lockOf(String key) {
+        int hash = key.hashCode();
+        return locks[(hash ^ (hash >>> 16)) & (LOCK_STRIPES - 1)];
+    }
+
+    // Removes the key from the keys of its tags, and drops the tags which are left without keys
+    private void untag(String key, String[] tags) {
+        for (String tag : tags) {
+            keysOfTag.computeIfPresent(tag, (t, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+}
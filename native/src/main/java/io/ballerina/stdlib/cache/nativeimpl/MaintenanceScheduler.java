@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.cache.nativeimpl;
+
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Runs the periodic cleanup of the caches on a single shared thread, along with the other periodic maintenance of the
+ * caches such as the flushes of their write-behind writers. The caches are ordered by the time of their next
+ * cleanup, so that each tick only visits the caches which are due, and are referenced weakly, so that a cache which
+ * is no longer used is dropped instead of being kept alive by its schedule. The work done in a tick is limited to a
+ * time slice, and the caches which are still due when it runs out are cleaned up first in the next tick. A cleanup
+ * also removes at most a batch of the expired entries of a cache, and a cache with more of them is left due, so that
+ * a burst of expirations in one cache is spread over the ticks instead of overrunning the time slice.
+ * <p>
+ * The caches are registered through a concurrent queue, which each tick drains, so that a cache is registered without
+ * waiting for a tick in progress. A failure of the maintenance of a cache is confined to its run, which is retried
+ * after its interval, so that it does not stop the shared thread from maintaining the other caches.
+ */
+public class MaintenanceScheduler {
+
+    private static final long TICK_MILLIS = 100;
+    private static final long TIME_SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+    private static final MaintenanceScheduler SHARED = new MaintenanceScheduler(System::nanoTime, TIME_SLICE_NANOS);
+
+    private final PriorityQueue<Registration<?>> registrations =
+            new PriorityQueue<>(Comparator.comparingLong(registration -> registration.nextRunAt));
+    private final Queue<Registration<?>> pendingRegistrations = new ConcurrentLinkedQueue<>();
+    private final LongSupplier ticker;
+    private final long timeSliceNanos;
+    private ScheduledExecutorService executor;
+
+    /**
+     * Creates a scheduler whose ticks are run by the caller.
+     *
+     * @param ticker the source of the current time, in nanoseconds
+     * @param timeSliceNanos the time after which a tick stops cleaning up the caches which are due
+     */
+    public MaintenanceScheduler(LongSupplier ticker, long timeSliceNanos) {
+        this.ticker = ticker;
+        this.timeSliceNanos = timeSliceNanos;
+    }
+
+    /**
+     * Registers the native map of a cache with the shared scheduler, which is started with the first registration.
+     *
+     * @param cacheMap the native map of the cache
+     * @param intervalNanos the interval between the cleanups of the cache, in nanoseconds
+     */
+    static void schedule(ConcurrentLinkedHashMap<?, ?> cacheMap, long intervalNanos) {
+        schedule(cacheMap, ConcurrentLinkedHashMap::tryCleanUp, intervalNanos);
+    }
+
+    /**
+     * Registers a maintenance target of a cache with the shared scheduler, which is started with the first
+     * registration.
+     *
+     * @param target the object which is maintained, which is referenced weakly
+     * @param maintenance the maintenance of the target, which must not hold a reference to the target
+     * @param intervalNanos the interval between the maintenance runs, in nanoseconds
+     * @param <T> the type of the target
+     */
+    static <T> void schedule(T target, Predicate<? super T> maintenance, long intervalNanos) {
+        SHARED.register(target, maintenance, intervalNanos);
+        SHARED.start();
+    }
+
+    /**
+     * Registers the native map of a cache to be cleaned up once every given interval.
+     *
+     * @param cacheMap the native map of the cache
+     * @param intervalNanos the interval between the cleanups of the cache, in nanoseconds
+     */
+    public void register(ConcurrentLinkedHashMap<?, ?> cacheMap, long intervalNanos) {
+        register(cacheMap, ConcurrentLinkedHashMap::tryCleanUp, intervalNanos);
+    }
+
+    /**
+     * Registers a target to be maintained once every given interval. The maintenance returns whether it was
+     * performed, and is retried in the next tick if it was not.
+     *
+     * @param target the object which is maintained, which is referenced weakly
+     * @param maintenance the maintenance of the target, which must not hold a reference to the target
+     * @param intervalNanos the interval between the maintenance runs, in nanoseconds
+     * @param <T> the type of the target
+     */
+    public <T> void register(T target, Predicate<? super T> maintenance, long intervalNanos) {
+        pendingRegistrations.add(new Registration<>(target, maintenance, intervalNanos,
+                ticker.getAsLong() + intervalNanos));
+    }
+
+    /**
+     * Returns the number of the registered caches, including the ones which were reclaimed after the last tick.
+     *
+     * @return the number of the registered caches
+     */
+    public synchronized int registeredCount() {
+        return registrations.size() + pendingRegistrations.size();
+    }
+
+    /**
+     * Cleans up the caches which are due, until the time slice runs out, and drops the caches which were reclaimed.
+     * A cache whose maintenance is being performed by one of its callers is retried in the next tick, and a cache
+     * whose maintenance fails is retried after its interval.
+     *
+     * @return the number of the caches which were cleaned up
+     */
+    public synchronized int tick() {
+        Registration<?> pending;
+        while ((pending = pendingRegistrations.poll()) != null) {
+            registrations.add(pending);
+        }
+        long now = ticker.getAsLong();
+        long deadline = now + timeSliceNanos;
+        List<Registration<?>> deferred = new ArrayList<>();
+        int cleanedUp = 0;
+        while (!registrations.isEmpty() && registrations.peek().nextRunAt <= now) {
+            Registration<?> registration = registrations.poll();
+            if (registration.isReclaimed()) {
+                continue;
+            }
+            if (registration.tryRun()) {
+                registration.nextRunAt = now + registration.intervalNanos;
+                cleanedUp++;
+            }
+            deferred.add(registration);
+            if (ticker.getAsLong() - deadline >= 0) {
+                break;
+            }
+        }
+        registrations.addAll(deferred);
+        return cleanedUp;
+    }
+
+    private synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-cleanup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private static final class Registration<T> {
+
+        final WeakReference<T> target;
+        final Predicate<? super T> maintenance;
+        final long intervalNanos;
+        long nextRunAt;
+
+        Registration(T target, Predicate<? super T> maintenance, long intervalNanos, long nextRunAt) {
+            this.target = new WeakReference<>(target);
+            this.maintenance = maintenance;
+            this.intervalNanos = intervalNanos;
+            this.nextRunAt = nextRunAt;
+        }
+
+        boolean isReclaimed() {
+            return target.get() == null;
+        }
+
+        // The target may be reclaimed after the check, in which case the maintenance is skipped. A failure of the
+        // maintenance is reported to the handler of the uncaught exceptions of the thread without ending the tick,
+        // and counts as a run, so that a failing target is not retried on every tick.
+        boolean tryRun() {
+            T current = target.get();
+            try {
+                return current == null || maintenance.test(current);
+            } catch (RuntimeException | Error e) {
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.cache.nativeimpl;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stores the serialized values of an off-heap cache in slabs of direct memory, so that the values neither add to the
+ * Java heap nor are traced by the garbage collector. Each slab is carved into the chunks of a single size class, which
+ * are powers of two, and a freed chunk is reused by the next value of its size class. A value is addressed by the slab
+ * and the offset of its chunk, along with the stamp which is written to the header of the chunk when it is allocated.
+ * The stamp is cleared when the chunk is freed, so that a read of a chunk which was freed and reused while it was
+ * being read is detected and reported as a miss instead of returning another value. A slab whose chunks are all freed
+ * is released, unless its size class is still carving chunks from it, so that the direct memory of the values which
+ * were removed is returned once they are freed. The total size of the slabs is bounded, and a value which does not fit
+ * in the bound is not stored.
+ */
+public class OffHeapStore {
+
+    /** The size of a slab, which is also the largest chunk. */
+    static final int SLAB_SIZE = 1 << 20;
+    private static final int MIN_CHUNK_SHIFT = 6;
+    private static final int HEADER_SIZE = Long.BYTES;
+    private static final VarHandle STAMP =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final SizeClass[] sizeClasses;
+    private final AtomicLong nextStamp = new AtomicLong();
+    private final long maxBytes;
+    // The slabs by their indexes, where the index of a released slab is null until it is reused by a new slab
+    private volatile ByteBuffer[] slabs = new ByteBuffer[0];
+    private int slabCount;
+
+    public OffHeapStore() {
+        this(Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates a store whose slabs take up to the given amount of the direct memory.
+     *
+     * @param maxBytes the maximum number of bytes allocated for the slabs, which is rounded down to a multiple of the
+     *                 slab size
+     */
+    public OffHeapStore(long maxBytes) {
+        this.maxBytes = maxBytes;
+        int classCount = Integer.numberOfTrailingZeros(SLAB_SIZE) - MIN_CHUNK_SHIFT + 1;
+        sizeClasses = new SizeClass[classCount];
+        for (int i = 0; i < classCount; i++) {
+            sizeClasses[i] = new SizeClass(1 << (MIN_CHUNK_SHIFT + i));
+        }
+    }
+
+    /**
+     * Returns the largest value which can be stored.
+     *
+     * @return the maximum length of a value in bytes
+     */
+    public static int maxValueLength() {
+        return SLAB_SIZE - HEADER_SIZE;
+    }
+
+    /**
+     * Copies the value to a chunk of its size class.
+     *
+     * @param value the serialized value, which is not longer than {@link #maxValueLength()}
+     * @return the stamped address of the chunk, which is read with {@link #read} and freed with {@link #free}, or
+     *         <tt>null</tt> if the store is full
+     */
+    public Address allocate(byte[] value) {
+        SizeClass sizeClass = sizeClasses[sizeClassOf(value.length + HEADER_SIZE)];
+        long chunk = sizeClass.allocate();
+        if (chunk < 0) {
+            return null;
+        }
+        ByteBuffer slab = slabs[slabIndex(chunk)];
+        int offset = offset(chunk);
+        long stamp = nextStamp.incrementAndGet();
+        // The stamp is published before the value, so that a reader of the previous value of the chunk observes the
+        // change of the stamp if it observes any part of this value
+        STAMP.setVolatile(slab, offset, stamp);
+        VarHandle.storeStoreFence();
+        slab.put(offset + HEADER_SIZE, value);
+        return new Address(chunk, stamp, value.length);
+    }
+
+    /**
+     * Copies the value stored at the address.
+     *
+     * @param address the address of the value
+     * @return the value or <tt>null</tt> if its chunk was freed
+     */
+    public byte[] read(Address address) {
+        ByteBuffer slab = slabs[slabIndex(address.chunk)];
+        if (slab == null) {
+            return null;
+        }
+        int offset = offset(address.chunk);
+        if ((long) STAMP.getAcquire(slab, offset) != address.stamp) {
+            return null;
+        }
+        byte[] value = new byte[address.length];
+        slab.get(offset + HEADER_SIZE, value);
+        VarHandle.loadLoadFence();
+        return (long) STAMP.getVolatile(slab, offset) == address.stamp ? value : null;
+    }
+
+    /**
+     * Frees the chunk of the address to be reused, unless it was already freed.
+     *
+     * @param address the address of the value
+     */
+    public void free(Address address) {
+        ByteBuffer slab = slabs[slabIndex(address.chunk)];
+        if (slab == null) {
+            return;
+        }
+        int offset = offset(address.chunk);
+        if (STAMP.compareAndSet(slab, offset, address.stamp, 0L)) {
+            sizeClasses[sizeClassOf(address.length + HEADER_SIZE)].free(address.chunk);
+        }
+    }
+
+    /**
+     * Returns the amount of the direct memory allocated for the slabs.
+     *
+     * @return the number of bytes allocated
+     */
+    public synchronized long allocatedBytes() {
+        return (long) slabCount * SLAB_SIZE;
+    }
+
+    // Allocates a slab at the first free index, or returns -1 if it would exceed the maximum size of the store
+    private synchronized int addSlab() {
+        if ((long) (slabCount + 1) * SLAB_SIZE > maxBytes) {
+            return -1;
+        }
+        ByteBuffer[] current = slabs;
+        int index = 0;
+        while (index < current.length && current[index] != null) {
+            index++;
+        }
+        ByteBuffer[] grown = index < current.length ? current.clone() : Arrays.copyOf(current, index + 1);
+        grown[index] = ByteBuffer.allocateDirect(SLAB_SIZE).order(ByteOrder.nativeOrder());
+        slabs = grown;
+        slabCount++;
+        return index;
+    }
+
+    // Drops the slab, whose direct memory is freed once the slab is collected
+    private synchronized void releaseSlab(int index) {
+        ByteBuffer[] released = slabs.clone();
+        released[index] = null;
+        slabs = released;
+        slabCount--;
+    }
+
+    private static int sizeClassOf(int chunkSize) {
+        int shift = 32 - Integer.numberOfLeadingZeros(Math.max(chunkSize, 1 << MIN_CHUNK_SHIFT) - 1);
+        return shift - MIN_CHUNK_SHIFT;
+    }
+
+    private static int slabIndex(long chunk) {
+        return (int) (chunk >>> 32);
+    }
+
+    private static int offset(long chunk) {
+        return (int) chunk;
+    }
+
+    /** The stamped address of a stored value, which is the only part of the value held on the heap. */
+    public static final class Address {
+
+        private final long chunk;
+        private final long stamp;
+        private final int length;
+
+        Address(long chunk, long stamp, int length) {
+            this.chunk = chunk;
+            this.stamp = stamp;
+            this.length = length;
+        }
+
+        /** Returns the length of the stored value in bytes. */
+        public int length() {
+            return length;
+        }
+    }
+
+    /**
+     * The chunks of a size, which are carved from the slabs of the size and are reused once freed. The chunks in use
+     * are counted by their slabs, and a slab is released once none of its chunks are in use.
+     */
+    private final class SizeClass {
+
+        private final int chunkSize;
+        private long[] freeChunks = new long[16];
+        private int freeCount;
+        // The numbers of the chunks in use by the indexes of the slabs, which are only set for the slabs of the size
+        private int[] liveChunks = new int[0];
+        private int slab = -1;
+        private int nextOffset = SLAB_SIZE;
+
+        SizeClass(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        synchronized long allocate() {
+            long chunk;
+            if (freeCount > 0) {
+                chunk = freeChunks[--freeCount];
+            } else {
+                if (nextOffset + chunkSize > SLAB_SIZE) {
+                    int index = addSlab();
+                    if (index < 0) {
+                        return -1;
+                    }
+                    slab = index;
+                    nextOffset = 0;
+                    if (index >= liveChunks.length) {
+                        liveChunks = Arrays.copyOf(liveChunks, index + 1);
+                    }
+                }
+                chunk = ((long) slab << 32) | nextOffset;
+                nextOffset += chunkSize;
+            }
+            liveChunks[slabIndex(chunk)]++;
+            return chunk;
+        }
+
+        synchronized void free(long chunk) {
+            int index = slabIndex(chunk);
+            if (--liveChunks[index] == 0 && index != slab) {
+                // The free chunks of the slab are dropped along with it
+                int kept = 0;
+                for (int i = 0; i < freeCount; i++) {
+                    if (slabIndex(freeChunks[i]) != index) {
+                        freeChunks[kept++] = freeChunks[i];
+                    }
+                }
+                freeCount = kept;
+                releaseSlab(index);
+                return;
+            }
+            if (freeCount == freeChunks.length) {
+                freeChunks = Arrays.copyOf(freeChunks, freeCount * 2);
+            }
+            freeChunks[freeCount++] = chunk;
+        }
+    }
+}
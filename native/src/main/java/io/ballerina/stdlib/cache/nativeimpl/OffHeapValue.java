@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.cache.nativeimpl;
+
+/**
+ * A value of an off-heap cache, which is serialized into its {@link OffHeapStore} and is deserialized when it is read.
+ * The values which are serializable by the {@link ValueSerializer} are stored off-heap, and the other values and the
+ * values which are too large for a slab or do not fit in the store are kept on the heap as they are.
+ */
+public final class OffHeapValue {
+
+    private final OffHeapStore.Address address;
+    private final byte format;
+
+    private OffHeapValue(OffHeapStore.Address address, byte format) {
+        this.address = address;
+        this.format = format;
+    }
+
+    /**
+     * Serializes the value into the store.
+     *
+     * @param store the store of the cache
+     * @param value the Ballerina value
+     * @return the off-heap value, or the given value if it is not stored off-heap
+     */
+    public static Object encode(OffHeapStore store, Object value) {
+        byte format = ValueSerializer.formatOf(value);
+        if (format == ValueSerializer.UNSUPPORTED) {
+            return value;
+        }
+        byte[] bytes = ValueSerializer.serialize(value, format);
+        if (bytes.length > OffHeapStore.maxValueLength()) {
+            return value;
+        }
+        OffHeapStore.Address address = store.allocate(bytes);
+        return address == null ? value : new OffHeapValue(address, format);
+    }
+
+    /**
+     * Deserializes the value if it is stored off-heap.
+     *
+     * @param store the store of the cache
+     * @param value the value held by the cache
+     * @return the Ballerina value, or <tt>null</tt> if the value was freed while it was being read
+     */
+    public static Object decode(OffHeapStore store, Object value) {
+        if (!(value instanceof OffHeapValue)) {
+            return value;
+        }
+        OffHeapValue offHeapValue = (OffHeapValue) value;
+        byte[] bytes = store.read(offHeapValue.address);
+        return bytes == null ? null : ValueSerializer.deserialize(bytes, offHeapValue.format);
+    }
+
+    /**
+     * Returns the format in which a value held by the cache is serialized, whether it is stored off-heap or not.
+     *
+     * @param value the value held by the cache
+     * @return the format of the value, or {@link ValueSerializer#UNSUPPORTED} if it is not serializable
+     */
+    static byte formatOf(Object value) {
+        return value instanceof OffHeapValue ? ((OffHeapValue) value).format : ValueSerializer.formatOf(value);
+    }
+
+    /**
+     * Serializes a value held by the cache in the given format. A value which is stored off-heap is read as it is
+     * stored, without deserializing it.
+     *
+     * @param store the store of the cache, or <tt>null</tt> if the cache is not off-heap
+     * @param value the value held by the cache
+     * @param format the format of the value, which is returned by {@link #formatOf}
+     * @return the serialized value, or <tt>null</tt> if the value was freed while it was being read
+     */
+    static byte[] serialize(OffHeapStore store, Object value, byte format) {
+        return value instanceof OffHeapValue ? store.read(((OffHeapValue) value).address) :
+                ValueSerializer.serialize(value, format);
+    }
+
+    /**
+     * Frees the storage of the value if it is stored off-heap.
+     *
+     * @param store the store of the cache
+     * @param value the value which was removed from the cache
+     */
+    public static void free(OffHeapStore store, Object value) {
+        if (value instanceof OffHeapValue) {
+            store.free(((OffHeapValue) value).address);
+        }
+    }
+
+    /**
+     * Returns the length of the serialized value, which is its weight in a cache bounded by weight.
+     *
+     * @return the length of the value in bytes
+     */
+    int length() {
+        return address.length();
+    }
+}
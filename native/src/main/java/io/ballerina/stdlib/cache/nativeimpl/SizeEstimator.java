@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.cache.nativeimpl;
+
+import io.ballerina.runtime.api.types.TypeTags;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BDecimal;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Estimates the size in bytes of the data held by a Ballerina value, which is the default weight of the values of a
+ * cache that is bounded by weight. The size of a string is its length, as the JVM stores the Latin-1 strings with a
+ * byte per character, the size of a `byte[]` is its length and the size of a list, map or record (including `json`)
+ * is the sum of the sizes of its members and keys. The values of the other types are counted with a fixed size.
+ */
+final class SizeEstimator {
+
+    private static final int SIMPLE_VALUE_SIZE = 8;
+    private static final int DECIMAL_SIZE = 16;
+    private static final int OTHER_VALUE_SIZE = 64;
+
+    private SizeEstimator() {}
+
+    /**
+     * Returns the approximate size of the value.
+     *
+     * @param value the Ballerina value
+     * @return the approximate size of the value in bytes
+     */
+    static long estimateSize(Object value) {
+        if (value instanceof BString) {
+            return ((BString) value).getValue().length();
+        }
+        // The structured values are traversed iteratively, as they may be deeply nested, and each of them is
+        // counted once, as they may be cyclic
+        long size = 0;
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Object> pending = new ArrayDeque<>();
+        push(pending, value);
+        while (!pending.isEmpty()) {
+            Object member = pending.pop();
+            if (member instanceof BString) {
+                size += ((BString) member).getValue().length();
+            } else if (member instanceof BArray) {
+                BArray array = (BArray) member;
+                if (!visited.add(array)) {
+                    continue;
+                }
+                if (array.getElementType().getTag() == TypeTags.BYTE_TAG) {
+                    size += array.size();
+                    continue;
+                }
+                for (int i = 0; i < array.size(); i++) {
+                    push(pending, array.get(i));
+                }
+            } else if (member instanceof BMap) {
+                if (!visited.add(member)) {
+                    continue;
+                }
+                for (Map.Entry<?, ?> entry : ((BMap<?, ?>) member).entrySet()) {
+                    push(pending, entry.getKey());
+                    push(pending, entry.getValue());
+                }
+            } else if (member instanceof Long || member instanceof Double) {
+                size += SIMPLE_VALUE_SIZE;
+            } else if (member instanceof Integer || member instanceof Boolean) {
+                size += 1;
+            } else if (member instanceof BDecimal) {
+                size += DECIMAL_SIZE;
+            } else {
+                size += OTHER_VALUE_SIZE;
+            }
+        }
+        return size;
+    }
+
+    // Nil members are not counted, and cannot be pushed to the deque
+    private static void push(Deque<Object> pending, Object member) {
+        if (member != null) {
+            pending.push(member);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.cache.nativeimpl;
+
+import io.ballerina.runtime.api.creators.ErrorCreator;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.RemovalCause;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.RemovalListener;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.RemovalNotification;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Class to handle ballerina external functions of the tiered cache, which keeps the entries evicted from its memory,
+ * the `cache:Cache` of the first level, in a {@link DiskStore} of the second level. The evicted entries are demoted to
+ * the disk along with their remaining max ages, and are promoted back to the memory when they are read.
+ */
+public class TieredCache {
+
+    private static final String DISK_CAPACITY = "diskCapacity";
+    private static final String COMPACTION_THRESHOLD = "compactionThreshold";
+    private static final String MEMORY = "MEMORY";
+    private static final String DISK_STORE = "DISK_STORE";
+
+    private TieredCache() {}
+
+    public static Object externInit(BObject tieredCache, BObject memory, BString path) {
+        int diskCapacity = (int) tieredCache.getIntValue(StringUtils.fromString(DISK_CAPACITY));
+        float compactionThreshold = (float) tieredCache.getFloatValue(StringUtils.fromString(COMPACTION_THRESHOLD));
+        DiskStore diskStore;
+        try {
+            diskStore = new DiskStore(Paths.get(path.getValue()), diskCapacity, compactionThreshold);
+        } catch (IOException e) {
+            return ErrorCreator.createError(StringUtils.fromString(e.getMessage()));
+        }
+        for (ConcurrentLinkedHashMap<BString, Object> segment : Cache.getSegments(memory)) {
+            segment.addRemovalListener(getDemotionListener(segment, diskStore, Cache.getOffHeapStore(memory)));
+        }
+        tieredCache.addNativeData(MEMORY, memory);
+        tieredCache.addNativeData(DISK_STORE, diskStore);
+        return null;
+    }
+
+    // Reads the entry from the memory, or promotes it from the disk if it was evicted from the memory. An entry which
+    // is put to the memory while it is promoted is not overwritten by the promoted value. A failure to read the disk
+    // is a miss.
+    public static Object externGet(BObject tieredCache, BString key) {
+        BObject memory = getMemory(tieredCache);
+        Object value = Cache.externGet(memory, key);
+        if (value != null) {
+            return value;
+        }
+        DiskStore.Entry entry;
+        try {
+            entry = getDiskStore(tieredCache).take(key.getValue());
+        } catch (IOException e) {
+            return null;
+        }
+        if (entry == null) {
+            return null;
+        }
+        return Cache.putIfAbsent(memory, key, ValueSerializer.deserialize(entry.value(), entry.format()),
+                entry.expireAfterNanos());
+    }
+
+    public static void externRemove(BObject tieredCache, BString key) {
+        Cache.externRemove(getMemory(tieredCache), key);
+        externRemoveFromDisk(tieredCache, key);
+    }
+
+    public static void externRemoveFromDisk(BObject tieredCache, BString key) {
+        getDiskStore(tieredCache).remove(key.getValue());
+    }
+
+    public static Object externRemoveAll(BObject tieredCache) {
+        Cache.externRemoveAll(getMemory(tieredCache));
+        try {
+            getDiskStore(tieredCache).clear();
+            return null;
+        } catch (IOException e) {
+            return ErrorCreator.createError(StringUtils.fromString(e.getMessage()));
+        }
+    }
+
+    public static boolean externHasKey(BObject tieredCache, BString key) {
+        return Cache.externHasKey(getMemory(tieredCache), key) || getDiskStore(tieredCache).containsKey(key.getValue());
+    }
+
+    public static BArray externKeys(BObject tieredCache) {
+        // A key which was put to the memory while its evicted entry was being demoted may also be on the disk
+        Set<BString> keys = new LinkedHashSet<>(Cache.getSegments(getMemory(tieredCache)).keys(BString[]::new));
+        for (String key : getDiskStore(tieredCache).keys()) {
+            keys.add(StringUtils.fromString(key));
+        }
+        return ValueCreator.createArrayValue(keys.toArray(new BString[0]));
+    }
+
+    public static int externSize(BObject tieredCache) {
+        return Cache.externSize(getMemory(tieredCache)) + getDiskStore(tieredCache).size();
+    }
+
+    // Returns the listener which demotes the entries evicted from the memory to the disk. The entries which cannot be
+    // serialized, and the ones which fail to be written, are dropped as they would be without the disk, and an entry
+    // whose key was put to the memory again since it was evicted is not demoted. A put or a removal of the key removes
+    // it from the disk after it changes the memory, so the version of the key on the disk is read before the memory is
+    // checked, and the entry is only written if the key was not removed from the disk since, which would otherwise
+    // leave the evicted value on the disk behind the new value or the removal. The listener is notified before the
+    // off-heap values are freed, so that they are written to the disk as they are stored.
+    private static RemovalListener<BString, Object> getDemotionListener(
+            ConcurrentLinkedHashMap<BString, Object> cacheMap, DiskStore diskStore, OffHeapStore offHeapStore) {
+        return notifications -> {
+            for (RemovalNotification<BString, Object> notification : notifications) {
+                if (notification.cause() != RemovalCause.SIZE) {
+                    continue;
+                }
+                long version = diskStore.version(notification.key().getValue());
+                if (cacheMap.containsKey(notification.key())) {
+                    continue;
+                }
+                byte format = OffHeapValue.formatOf(notification.value());
+                byte[] bytes = format == ValueSerializer.UNSUPPORTED ? null :
+                        OffHeapValue.serialize(offHeapStore, notification.value(), format);
+                if (bytes == null) {
+                    continue;
+                }
+                try {
+                    diskStore.putIfNotRemoved(notification.key().getValue(), format, bytes,
+                            notification.expireAfterNanos(), version);
+                } catch (IOException e) {
+                    // The entry is dropped, as the failure is not reported to the operation which evicted it
+                }
+            }
+        };
+    }
+
+    private static BObject getMemory(BObject tieredCache) {
+        return (BObject) tieredCache.getNativeData(MEMORY);
+    }
+
+    private static DiskStore getDiskStore(BObject tieredCache) {
+        return (DiskStore) tieredCache.getNativeData(DISK_STORE);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.cache.nativeimpl;
+
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.types.ArrayType;
+import io.ballerina.runtime.api.types.MapType;
+import io.ballerina.runtime.api.types.Type;
+import io.ballerina.runtime.api.types.TypeTags;
+import io.ballerina.runtime.api.utils.JsonUtils;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.utils.TypeUtils;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serializes the cache values which are stored outside the heap, either off-heap or in a snapshot. The `string`,
+ * `byte[]` and `json` values are serializable, where a `json` value is a map or a list whose inherent type is
+ * `map<json>` or `json[]`, as its type would otherwise be lost by the serialization.
+ */
+final class ValueSerializer {
+
+    static final byte UNSUPPORTED = -1;
+    static final byte STRING = 0;
+    static final byte BYTES = 1;
+    static final byte JSON = 2;
+
+    private ValueSerializer() {}
+
+    /**
+     * Returns the format in which the value is serialized.
+     *
+     * @param value the Ballerina value
+     * @return the format of the value, or {@link #UNSUPPORTED} if it is not serializable
+     */
+    static byte formatOf(Object value) {
+        if (value instanceof BString) {
+            return STRING;
+        } else if (value instanceof BArray && isByteArray((BArray) value)) {
+            return BYTES;
+        } else if ((value instanceof BMap || value instanceof BArray) && isJson(value)) {
+            return JSON;
+        }
+        return UNSUPPORTED;
+    }
+
+    /**
+     * Serializes the value in the given format.
+     *
+     * @param value the Ballerina value
+     * @param format the format of the value, which is returned by {@link #formatOf}
+     * @return the serialized value
+     */
+    static byte[] serialize(Object value, byte format) {
+        switch (format) {
+            case STRING:
+                return ((BString) value).getValue().getBytes(StandardCharsets.UTF_8);
+            case BYTES:
+                return ((BArray) value).getBytes();
+            default:
+                return StringUtils.getJsonString(value).getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Deserializes the value in the given format.
+     *
+     * @param bytes the serialized value
+     * @param format the format of the value
+     * @return the Ballerina value
+     */
+    static Object deserialize(byte[] bytes, byte format) {
+        switch (format) {
+            case STRING:
+                return StringUtils.fromString(new String(bytes, StandardCharsets.UTF_8));
+            case BYTES:
+                return ValueCreator.createArrayValue(bytes);
+            default:
+                return JsonUtils.parse(new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static boolean isByteArray(BArray array) {
+        return array.getElementType().getTag() == TypeTags.BYTE_TAG;
+    }
+
+    private static boolean isJson(Object value) {
+        Type type = TypeUtils.getImpliedType(TypeUtils.getType(value));
+        if (type.getTag() == TypeTags.MAP_TAG) {
+            return TypeUtils.getImpliedType(((MapType) type).getConstrainedType()).getTag() == TypeTags.JSON_TAG;
+        }
+        if (type.getTag() == TypeTags.ARRAY_TAG) {
+            return TypeUtils.getImpliedType(((ArrayType) type).getElementType()).getTag() == TypeTags.JSON_TAG;
+        }
+        return false;
+    }
+}
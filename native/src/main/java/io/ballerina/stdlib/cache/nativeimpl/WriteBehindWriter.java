@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.cache.nativeimpl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * Writes the entries put to a cache to its writer behind the cache operations. The entries are held as dirty until
+ * they are flushed, and a repeated write of a key replaces its dirty value, so that only the latest value of a key
+ * is written. The dirty entries are flushed in batches on the executor once their number reaches the flush size,
+ * when the flush interval elapses, and when a dirty entry is evicted from the cache. The dirty entry of a key which is
+ * removed from the cache is discarded, so that a removed value is not written after its removal. The writer is not
+ * flushed when it is dropped, so the entries which are still dirty when the cache is no longer used are not written.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+public class WriteBehindWriter<K, V> {
+
+    private final Map<K, V> dirtyEntries = new ConcurrentHashMap<>();
+    private final int flushSize;
+    private final Predicate<Map<K, V>> writer;
+    private final Executor executor;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    /**
+     * Creates a write-behind writer.
+     *
+     * @param flushSize the maximum number of entries written in a batch, which also triggers a flush once that many
+     *                  entries are dirty
+     * @param writer the writer of a batch of entries, which returns whether they were written
+     * @param executor the executor on which the batches are written
+     */
+    public WriteBehindWriter(int flushSize, Predicate<Map<K, V>> writer, Executor executor) {
+        this.flushSize = flushSize;
+        this.writer = writer;
+        this.executor = executor;
+    }
+
+    /**
+     * Marks the entry as dirty, replacing the dirty value of its key if it was not flushed yet.
+     *
+     * @param key the key of the entry
+     * @param value the value of the entry
+     */
+    public void write(K key, V value) {
+        dirtyEntries.put(key, value);
+        if (dirtyEntries.size() >= flushSize) {
+            scheduleFlush();
+        }
+    }
+
+    /**
+     * Discards the dirty value of the key, if it was not flushed yet. A value which is being written by a flush is
+     * still written.
+     *
+     * @param key the key of the entry
+     */
+    public void discard(K key) {
+        dirtyEntries.remove(key);
+    }
+
+    /**
+     * Discards the dirty values of all the keys which were not flushed yet.
+     */
+    public void clear() {
+        dirtyEntries.clear();
+    }
+
+    /**
+     * Determines whether the key has a value which is not flushed yet.
+     *
+     * @param key the key of the entry
+     * @return whether the key is dirty
+     */
+    public boolean isDirty(K key) {
+        return dirtyEntries.containsKey(key);
+    }
+
+    /**
+     * Returns the number of the dirty entries.
+     *
+     * @return the number of the entries which are not flushed yet
+     */
+    public int dirtyCount() {
+        return dirtyEntries.size();
+    }
+
+    /**
+     * Schedules a flush of the dirty entries on the executor, unless one is already pending or there is nothing to
+     * flush.
+     *
+     * @return always <tt>true</tt>, so that it can be scheduled as periodic maintenance
+     */
+    public boolean scheduleFlush() {
+        if (!dirtyEntries.isEmpty() && flushScheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                flush();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the dirty entries in batches of the flush size. An entry stays dirty if it was written again while it was
+     * being flushed, or if its batch failed to be written, in which case the flush stops and the entries are retried by
+     * the next flush. The pending flag is only cleared at the end, so that the batches are written one at a time, and
+     * the entries which were written concurrently with its clearing are flushed again if they fill a batch.
+     */
+    void flush() {
+        try {
+            while (!dirtyEntries.isEmpty()) {
+                Map<K, V> batch = new LinkedHashMap<>();
+                for (Map.Entry<K, V> entry : dirtyEntries.entrySet()) {
+                    batch.put(entry.getKey(), entry.getValue());
+                    if (batch.size() == flushSize) {
+                        break;
+                    }
+                }
+                if (!writer.test(batch)) {
+                    return;
+                }
+                batch.forEach(dirtyEntries::remove);
+            }
+        } finally {
+            flushScheduled.set(false);
+        }
+        if (dirtyEntries.size() >= flushSize) {
+            scheduleFlush();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap;
+
+/**
+ * An immutable snapshot of the statistics of a {@link ConcurrentLinkedHashMap}.
+ */
+public final class CacheStats {
+
+    static final CacheStats EMPTY = new CacheStats(0, 0, 0, 0, 0, 0, 0);
+
+    private final long hitCount;
+    private final long missCount;
+    private final long expirationCount;
+    private final long evictionCount;
+    private final long loadSuccessCount;
+    private final long loadFailureCount;
+    private final long totalLoadTime;
+
+    CacheStats(long hitCount, long missCount, long expirationCount, long evictionCount, long loadSuccessCount,
+               long loadFailureCount, long totalLoadTime) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.expirationCount = expirationCount;
+        this.evictionCount = evictionCount;
+        this.loadSuccessCount = loadSuccessCount;
+        this.loadFailureCount = loadFailureCount;
+        this.totalLoadTime = totalLoadTime;
+    }
+
+    /** Returns the number of reads of entries that were present. */
+    public long hitCount() {
+        return hitCount;
+    }
+
+    /** Returns the number of reads of entries that were absent or had expired. */
+    public long missCount() {
+        return missCount;
+    }
+
+    /** Returns the number of entries that were removed because they had expired. */
+    public long expirationCount() {
+        return expirationCount;
+    }
+
+    /** Returns the number of entries that were evicted by the page replacement policy. */
+    public long evictionCount() {
+        return evictionCount;
+    }
+
+    /** Returns the number of values that were loaded successfully. */
+    public long loadSuccessCount() {
+        return loadSuccessCount;
+    }
+
+    /** Returns the number of values that failed to load. */
+    public long loadFailureCount() {
+        return loadFailureCount;
+    }
+
+    /** Returns the total time, in nanoseconds, that was spent on loading values. */
+    public long totalLoadTime() {
+        return totalLoadTime;
+    }
+}
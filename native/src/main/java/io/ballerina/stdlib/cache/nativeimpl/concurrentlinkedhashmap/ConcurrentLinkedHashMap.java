@@ -22,24 +22,29 @@ import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.AbstractMap;
 import java.util.AbstractSet;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 /**
@@ -55,26 +60,50 @@ public class ConcurrentLinkedHashMap<K, V> implements ConcurrentMap<K, V>, Seria
     /** The maximum weighted capacity of the map. */
     static final int MAXIMUM_CAPACITY = 1 << 30;
 
-    /** The maximum number of pending operations per buffer. */
-    static final int MAXIMUM_BUFFER_SIZE = 1 << 20;
-
-    /** The number of pending operations per buffer before attempting to drain. */
+    /** The number of pending operations per processor before attempting to drain. */
     static final int BUFFER_THRESHOLD = 16;
 
-    /** The number of buffers to use. */
-    static final int NUMBER_OF_BUFFERS;
-
-    /** Mask value for indexing into the buffers. */
-    static final int BUFFER_MASK;
-
     /** The maximum number of operations to perform per amortized drain. */
     static final int AMORTIZED_DRAIN_THRESHOLD;
 
+    /**
+     * The maximum number of pending write operations, which is a few amortized drains. It bounds the
+     * number of entries by which the map exceeds its capacity once the writes which are in progress
+     * have completed.
+     */
+    public static final int WRITE_BUFFER_SIZE;
+
+    /** The number of times a writer helps to drain the full write buffer before waiting for the lock. */
+    static final int WRITE_BUFFER_RETRIES = 100;
+
+    /** The maximum number of removal notifications delivered to the listener at once. */
+    static final int NOTIFICATION_BATCH_SIZE = 256;
+
+    /**
+     * The maximum number of timer events that are processed by a single drain, which bounds the time
+     * that a cleanup holds the eviction lock when a large number of entries expired at once.
+     */
+    static final int EXPIRATION_BATCH_SIZE = 1024;
+
+    /** The fraction of the capacity reserved for the TinyLFU admission window. */
+    static final double PERCENT_WINDOW = 0.01d;
+
+    /** The fraction of the TinyLFU main space reserved for the protected segment. */
+    static final double PERCENT_MAIN_PROTECTED = 0.80d;
+
+    /** The expiration time of an entry which never expires. */
+    static final long NO_EXPIRY = Long.MAX_VALUE;
+
+    /** The TinyLFU queues that a node may be linked on. */
+    static final byte NONE = 0;
+    static final byte WINDOW = 1;
+    static final byte PROBATION = 2;
+    static final byte PROTECTED = 3;
+
     static {
-        int buffers = ceilingNextPowerOfTwo(Runtime.getRuntime().availableProcessors());
-        AMORTIZED_DRAIN_THRESHOLD = (1 + buffers) * BUFFER_THRESHOLD;
-        NUMBER_OF_BUFFERS = buffers;
-        BUFFER_MASK = buffers - 1;
+        int processors = ceilingNextPowerOfTwo(Runtime.getRuntime().availableProcessors());
+        AMORTIZED_DRAIN_THRESHOLD = (1 + processors) * BUFFER_THRESHOLD;
+        WRITE_BUFFER_SIZE = 4 * ceilingNextPowerOfTwo(AMORTIZED_DRAIN_THRESHOLD);
     }
 
     static int ceilingNextPowerOfTwo(int x) {
@@ -82,6 +111,10 @@ public class ConcurrentLinkedHashMap<K, V> implements ConcurrentMap<K, V>, Seria
         return 1 << (Integer.SIZE - Integer.numberOfLeadingZeros(x - 1));
     }
 
+    static long ceilingNextPowerOfTwo(long x) {
+        return 1L << (Long.SIZE - Long.numberOfLeadingZeros(x - 1));
+    }
+
     /** The draining status of the buffers. */
     enum DrainStatus {
 
@@ -98,59 +131,237 @@ public class ConcurrentLinkedHashMap<K, V> implements ConcurrentMap<K, V>, Seria
     // The backing data store holding the key-value associations
     final ConcurrentHashMap<K, Node> data;
 
+    // The loads of the keys by computeIfAbsent which are in flight, which the concurrent misses of the keys wait for
+    final ConcurrentHashMap<K, Load> loads;
+
     // These fields provide support to bound the map by a maximum capacity
     transient LinkedDeque<Node> evictionDeque;
 
+    // The TinyLFU admission window, the segmented main space and the frequency sketch
+    final EvictionPolicy policy;
+    transient LinkedDeque<Node> windowDeque;
+    transient LinkedDeque<Node> probationDeque;
+    transient LinkedDeque<Node> protectedDeque;
+    final transient FrequencySketch<K> sketch;
+
+    // The timer wheel which indexes the entries by their expiration time, relative to the start time
+    final transient TimerWheel<Node> timerWheel;
+    final long startTime;
+
+    // must access under lock
+    int windowWeightedSize;
+    int protectedWeightedSize;
+    boolean expirationPending;
+    int windowMaximum;
+    int protectedMaximum;
+
     // must write under lock
     volatile int weightedSize;
 
     // must write under lock
     volatile int capacity;
 
-    volatile int nextOrder;
-    int drainedOrder;
-
     final transient Lock evictionLock;
-    final Queue<Task>[] buffers;
-    transient ExecutorService executor = new DisabledExecutorService();;
+    final transient ReadBuffer<Node> readBuffer;
+    final transient Consumer<Node> readBufferDrainer;
+    final transient WriteBuffer<Task> writeBuffer;
+    final transient Executor executor;
+    final AtomicBoolean drainScheduled;
+    volatile int evictionTarget;
     final Weigher<? super V> weigher;
-    final AtomicIntegerArray bufferLengths;
+    final boolean weighted;
+    volatile RemovalListener<K, V> removalListener;
+    final transient Executor notificationExecutor;
+    final Queue<RemovalNotification<K, V>> pendingNotifications;
+    final AtomicBoolean notificationScheduled;
+    final StatsCounter statsCounter;
     final AtomicReference<DrainStatus> drainStatus;
 
     transient Set<K> keySet;
     transient Set<Entry<K, V>> entrySet;
 
     /**
-     * Creates an instance based on the builder's configuration.
+     * Creates an instance which evicts the least recently used entries.
+     *
+     * @param maximumCapacity the maximum weighted capacity of the map
      */
-    @SuppressWarnings({
-            "unchecked", "cast"
-    })
     public ConcurrentLinkedHashMap(int maximumCapacity) {
+        this(maximumCapacity, EvictionPolicy.LRU);
+    }
+
+    /**
+     * Creates an instance which evicts entries according to the given page replacement policy.
+     *
+     * @param maximumCapacity the maximum weighted capacity of the map
+     * @param policy the page replacement policy
+     */
+    public ConcurrentLinkedHashMap(int maximumCapacity, EvictionPolicy policy) {
+        this(maximumCapacity, policy, StatsCounter.disabled());
+    }
+
+    /**
+     * Creates an instance which evicts entries according to the given page replacement policy and
+     * records its statistics with the given counter.
+     *
+     * @param maximumCapacity the maximum weighted capacity of the map
+     * @param policy the page replacement policy
+     * @param statsCounter the counter which records the statistics of the map
+     */
+    public ConcurrentLinkedHashMap(int maximumCapacity, EvictionPolicy policy, StatsCounter statsCounter) {
+        this(maximumCapacity, policy, Weighers.singleton(), statsCounter);
+    }
+
+    /**
+     * Creates an instance which is bounded by the total weight of its values, measured by the given
+     * weigher, instead of by the number of its entries.
+     *
+     * @param maximumCapacity the maximum weighted capacity of the map
+     * @param policy the page replacement policy
+     * @param weigher the weigher which measures the weight of a value
+     * @param statsCounter the counter which records the statistics of the map
+     */
+    public ConcurrentLinkedHashMap(int maximumCapacity, EvictionPolicy policy, Weigher<? super V> weigher,
+                                   StatsCounter statsCounter) {
+        this(maximumCapacity, policy, weigher, statsCounter, null);
+    }
+
+    /**
+     * Creates an instance whose maintenance, which applies the pending operations to the page
+     * replacement policy, evicts the entries and removes the expired entries, is run on the given
+     * executor instead of on the callers. The callers only append to the buffers and return, while
+     * the map may briefly exceed its capacity until the maintenance is run. A caller which finds the
+     * write buffer full helps to drain it, so the map falls behind by at most the buffered writes.
+     *
+     * @param maximumCapacity the maximum weighted capacity of the map
+     * @param policy the page replacement policy
+     * @param weigher the weigher which measures the weight of a value
+     * @param statsCounter the counter which records the statistics of the map
+     * @param executor the executor which runs the maintenance, or <tt>null</tt> to run it on the
+     *                 callers
+     */
+    public ConcurrentLinkedHashMap(int maximumCapacity, EvictionPolicy policy, Weigher<? super V> weigher,
+                                   StatsCounter statsCounter, Executor executor) {
+        this(maximumCapacity, policy, weigher, statsCounter, executor, null, null);
+    }
+
+    /**
+     * Creates an instance whose maintenance is run on the given executor, or on the callers if it is
+     * <tt>null</tt>, and which notifies the given listener of the removed entries. The notifications
+     * are queued by the operations which remove the entries and are delivered to the listener in
+     * batches on the notification executor, one batch at a time.
+     *
+     * @param maximumCapacity the maximum weighted capacity of the map
+     * @param policy the page replacement policy
+     * @param weigher the weigher which measures the weight of a value
+     * @param statsCounter the counter which records the statistics of the map
+     * @param executor the executor which runs the maintenance, or <tt>null</tt> to run it on the
+     *                 callers
+     * @param removalListener the listener which is notified of the removed entries, or <tt>null</tt>
+     *                        if the removals are not notified
+     * @param notificationExecutor the executor on which the removal notifications are delivered in
+     *                             batches, or <tt>null</tt> to deliver them on the callers which
+     *                             remove the entries
+     */
+    public ConcurrentLinkedHashMap(int maximumCapacity, EvictionPolicy policy, Weigher<? super V> weigher,
+                                   StatsCounter statsCounter, Executor executor,
+                                   RemovalListener<K, V> removalListener, Executor notificationExecutor) {
         // The data store and its maximum capacity
-        capacity = maximumCapacity;
+        capacity = Math.min(maximumCapacity, MAXIMUM_CAPACITY);
         data = new ConcurrentHashMap<>(
                 3,
                 0.75f,
                 16);
+        loads = new ConcurrentHashMap<>();
 
         // The eviction support
-        weigher = Weighers.singleton();
-        nextOrder = Integer.MIN_VALUE;
-        drainedOrder = Integer.MIN_VALUE;
+        this.weigher = weigher;
+        weighted = weigher != Weighers.singleton();
+        this.statsCounter = statsCounter;
         evictionLock = new ReentrantLock();
         evictionDeque = new LinkedDeque<>();
         drainStatus = new AtomicReference<>(DrainStatus.IDLE);
-
-        buffers = (Queue<Task>[]) new Queue[NUMBER_OF_BUFFERS];
-        bufferLengths = new AtomicIntegerArray(NUMBER_OF_BUFFERS);
-        for (int i = 0; i < NUMBER_OF_BUFFERS; i++) {
-            buffers[i] = new ConcurrentLinkedQueue<>();
+        this.executor = executor;
+        drainScheduled = new AtomicBoolean();
+        evictionTarget = capacity;
+
+        // The removal notification support
+        this.removalListener = removalListener;
+        this.notificationExecutor = (notificationExecutor == null) ? Runnable::run : notificationExecutor;
+        pendingNotifications = new ConcurrentLinkedQueue<>();
+        notificationScheduled = new AtomicBoolean();
+
+        // The TinyLFU support
+        this.policy = policy;
+        windowDeque = new LinkedDeque<>();
+        probationDeque = new LinkedDeque<>();
+        protectedDeque = new LinkedDeque<>();
+        if (policy == EvictionPolicy.TINY_LFU) {
+            // The sketch of a weighted map is sized by the number of its entries as it grows, since its
+            // capacity does not bound the number of entries
+            sketch = new FrequencySketch<>();
+            sketch.ensureCapacity(weighted ? 1 : capacity);
+        } else {
+            sketch = null;
         }
+        setPolicyMaximums();
+
+        // The expiration support
+        startTime = System.nanoTime();
+        timerWheel = new TimerWheel<>(() -> new Node(null, null, 0, 0, NO_EXPIRY));
+
+        readBuffer = new ReadBuffer<>();
+        readBufferDrainer = this::onAccess;
+        writeBuffer = new WriteBuffer<>(WRITE_BUFFER_SIZE);
     }
 
     /* ---------------- Eviction Support -------------- */
 
+    /**
+     * Performs the pending maintenance work, which applies the pending operations to the page
+     * replacement policy and removes the expired entries. The expired entries are removed in
+     * batches, and the lock is released between them so that the writers are not stalled.
+     */
+    public void cleanUp() {
+        boolean pending;
+        do {
+            evictionLock.lock();
+            try {
+                drainBuffers(AMORTIZED_DRAIN_THRESHOLD);
+                pending = expirationPending;
+            } finally {
+                evictionLock.unlock();
+            }
+        } while (pending);
+    }
+
+    /**
+     * Performs the pending maintenance work like {@link #cleanUp()}, unless it is already being
+     * performed by another thread, in which case that thread is left to complete it. A cleanup only
+     * removes a batch of the expired entries, so the work is not completed if more of them remain.
+     *
+     * @return whether the maintenance work was completed
+     */
+    public boolean tryCleanUp() {
+        if (!evictionLock.tryLock()) {
+            return false;
+        }
+        try {
+            drainBuffers(AMORTIZED_DRAIN_THRESHOLD);
+            return !expirationPending;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the maximum weighted capacity of the map.
+     *
+     * @return the maximum weighted capacity of the map
+     */
+    public int capacity() {
+        return capacity;
+    }
+
     /**
      * Sets the maximum weighted capacity of the map and eagerly evicts entries until it
      * shrinks to the appropriate size.
@@ -162,88 +373,365 @@ public class ConcurrentLinkedHashMap<K, V> implements ConcurrentMap<K, V>, Seria
         evictionLock.lock();
         try {
             this.capacity = Math.min(capacity, MAXIMUM_CAPACITY);
+            setPolicyMaximums();
             drainBuffers(AMORTIZED_DRAIN_THRESHOLD);
-            evict();
+            evict(this.capacity);
         } finally {
             evictionLock.unlock();
         }
     }
 
-    /** Determines whether the map has exceeded its capacity. */
-    private boolean hasOverflowed() {
-        return weightedSize > capacity;
+    /**
+     * Evicts a batch of entries if the weighted size of the map exceeds the given threshold, so that
+     * the space for the following insertions is made at once. The pending operations are applied
+     * and the victims are evicted in a single pass under the eviction lock, until the weighted size
+     * is reduced to the target. If the maintenance is asynchronous, the target is recorded and the
+     * map is evicted on the executor once it exceeds its capacity.
+     *
+     * @param threshold the weighted size above which the entries are evicted
+     * @param target the weighted size to which the map is reduced
+     */
+    public void evictIfExceeds(int threshold, int target) {
+        if (weightedSize <= threshold) {
+            return;
+        }
+        if (executor == null) {
+            evictNow(threshold, target);
+            return;
+        }
+        // The asynchronous maintenance evicts the map to the latest target once it exceeds the capacity
+        evictionTarget = target;
+        scheduleDrainBuffers();
+    }
+
+    /** Evicts the entries to the target under the eviction lock, if the threshold is exceeded. */
+    private void evictNow(int threshold, int target) {
+        evictionLock.lock();
+        try {
+            drainBuffers(AMORTIZED_DRAIN_THRESHOLD);
+            if (weightedSize > threshold) {
+                evict(target);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
     }
 
     /**
-     * Evicts entries from the map while it exceeds the capacity and appends evicted
-     * entries to the notification queue for processing.
+     * Returns whether the map is bounded by the weights of its values, rather than by the number of
+     * its entries.
+     *
+     * @return if the map was created with a weigher
+     */
+    public boolean isWeighted() {
+        return weighted;
+    }
+
+    /** Sizes the TinyLFU admission window and protected segment relative to the capacity. */
+    private void setPolicyMaximums() {
+        windowMaximum = Math.min(capacity, Math.max(1, (int) (capacity * PERCENT_WINDOW)));
+        protectedMaximum = (int) ((capacity - windowMaximum) * PERCENT_MAIN_PROTECTED);
+    }
+
+    /** Determines whether the map has exceeded the given weighted size. */
+    private boolean hasOverflowed(int maximum) {
+        return weightedSize > maximum;
+    }
+
+    /**
+     * Evicts entries from the map while it exceeds the given weighted size.
+     *
+     * @param maximum the weighted size to which the map is reduced
      */
-    private void evict() {
+    private void evict(int maximum) {
         // Attempts to evict entries from the map if it exceeds the maximum
         // capacity. If the eviction fails due to a concurrent removal of the
         // victim, that removal may cancel out the addition that triggered this
         // eviction. The victim is eagerly unlinked before the removal task so
         // that if an eviction is still required then a new victim will be chosen
         // for removal.
-        while (hasOverflowed()) {
-            Node node = evictionDeque.pollFirst();
-            data.remove(node.key, node);
-            node.makeDead();
+        if (policy == EvictionPolicy.TINY_LFU) {
+            evictFromMain(evictFromWindow(), maximum);
+            return;
+        }
+        while (hasOverflowed(maximum)) {
+            evictVictim(nextVictim());
         }
     }
 
     /**
-     * Performs the post-processing work required after the map operation.
+     * Moves the entries that overflow the TinyLFU admission window to the tail of the probation
+     * segment, where they become candidates for admission into the main space.
      *
-     * @param task the pending operation to be applied
+     * @return the first candidate that was moved or <tt>null</tt> if the window was not overflowed
      */
-    private void afterCompletion(Task task) {
-        boolean delayable = schedule(task);
-        if (shouldDrainBuffers(delayable)) {
-            tryToDrainBuffers(AMORTIZED_DRAIN_THRESHOLD);
+    private Node evictFromWindow() {
+        Node first = null;
+        while (windowWeightedSize > windowMaximum) {
+            Node node = windowDeque.pollFirst();
+            if (node == null) {
+                break;
+            }
+            windowWeightedSize -= node.policyWeight;
+            node.queueType = PROBATION;
+            probationDeque.add(node);
+            if (first == null) {
+                first = node;
+            }
         }
+        return first;
     }
 
     /**
-     * Schedules the task to be applied to the page replacement policy.
+     * Evicts entries from the TinyLFU main space while the map exceeds the given weighted size. Each
+     * candidate that was moved out of the admission window is compared against the victim at the
+     * head of the probation segment and the one with the lower estimated frequency is evicted.
      *
-     * @param task the pending operation
-     * @return if the draining of the buffers can be delayed
+     * @param candidate the first candidate that was moved from the window, or <tt>null</tt> if none
+     * @param maximum the weighted size to which the map is reduced
      */
-    private boolean schedule(Task task) {
-        int index = bufferIndex();
-        int buffered = bufferLengths.incrementAndGet(index);
+    private void evictFromMain(Node candidate, int maximum) {
+        while (hasOverflowed(maximum)) {
+            Node victim = nextVictim();
+            if (victim == null) {
+                return;
+            }
+            if ((candidate == null) || (candidate == victim)) {
+                if (candidate != null) {
+                    candidate = candidate.getNext();
+                }
+                evictVictim(victim);
+            } else if (sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+                evictVictim(victim);
+            } else {
+                Node evicted = candidate;
+                candidate = candidate.getNext();
+                evictVictim(evicted);
+            }
+        }
+    }
 
-        if (task.isWrite()) {
-            buffers[index].add(task);
-            drainStatus.set(DrainStatus.REQUIRED);
-            return false;
+    /** Returns the entry that the page replacement policy would evict next, or <tt>null</tt> if none. */
+    private Node nextVictim() {
+        if (policy == EvictionPolicy.LRU) {
+            return evictionDeque.peekFirst();
+        }
+        Node victim = probationDeque.peekFirst();
+        if (victim == null) {
+            victim = protectedDeque.peekFirst();
         }
+        if (victim == null) {
+            victim = windowDeque.peekFirst();
+        }
+        return victim;
+    }
 
-        // A buffer may discard a read task if its length exceeds a tolerance level
-        if (buffered <= MAXIMUM_BUFFER_SIZE) {
-            buffers[index].add(task);
-            return (buffered <= BUFFER_THRESHOLD);
-        } else { // not optimized for fail-safe scenario
-            bufferLengths.decrementAndGet(index);
-            return false;
+    /**
+     * Evicts the victim of the page replacement policy and records the eviction.
+     *
+     * @param node the entry to evict
+     */
+    private void evictVictim(Node node) {
+        evictEntry(node);
+        statsCounter.recordEviction();
+        notifyRemoval(node.key, node.getValue(), node.expiresAt, RemovalCause.SIZE);
+    }
+
+    /**
+     * Unlinks the node from the page replacement policy and removes it from the data store.
+     *
+     * @param node the entry to evict
+     */
+    private void evictEntry(Node node) {
+        onRemove(node);
+        data.remove(node.key, node);
+        node.makeDead();
+    }
+
+    /**
+     * Links a newly added node to the page replacement policy.
+     *
+     * @param node the added entry
+     */
+    private void onAdd(Node node) {
+        if (policy == EvictionPolicy.LRU) {
+            evictionDeque.add(node);
+            return;
         }
+        sketch.increment(node.key);
+        node.queueType = WINDOW;
+        windowDeque.add(node);
+        windowWeightedSize += node.policyWeight;
     }
 
-    /** Returns the index to the buffer that the task should be scheduled on. */
-    private static int bufferIndex() {
-        // A buffer is chosen by the thread's id so that tasks are distributed in a
-        // pseudo evenly manner. This helps avoid hot entries causing contention due
-        // to other threads trying to append to the same buffer.
-        return (int) Thread.currentThread().getId() & BUFFER_MASK;
+    /**
+     * Updates the node's location in the page replacement policy after it was read or updated. In
+     * the TinyLFU policy, a probation entry that is accessed is promoted to the protected segment,
+     * which demotes the protected segment's least recently used entries when it is full.
+     *
+     * @param node the accessed entry
+     */
+    private void onAccess(Node node) {
+        if (policy == EvictionPolicy.LRU) {
+            // An entry may scheduled for reordering despite having been previously
+            // removed. This can occur when the entry was concurrently read while a
+            // writer was removing it. If the entry is no longer linked then it does
+            // not need to be processed.
+            if (evictionDeque.contains(node)) {
+                evictionDeque.moveToBack(node);
+            }
+            return;
+        }
+        sketch.increment(node.key);
+        if (node.queueType == WINDOW) {
+            windowDeque.moveToBack(node);
+        } else if (node.queueType == PROTECTED) {
+            protectedDeque.moveToBack(node);
+        } else if (node.queueType == PROBATION) {
+            probationDeque.remove(node);
+            node.queueType = PROTECTED;
+            protectedDeque.add(node);
+            protectedWeightedSize += node.policyWeight;
+            while (protectedWeightedSize > protectedMaximum) {
+                Node demoted = protectedDeque.pollFirst();
+                if (demoted == null) {
+                    break;
+                }
+                protectedWeightedSize -= demoted.policyWeight;
+                demoted.queueType = PROBATION;
+                probationDeque.add(demoted);
+            }
+        }
     }
 
-    /** Returns the ordering value to assign to a task. */
-    public int nextOrdering() {
-        // The next ordering is acquired in a racy fashion as the increment is not
-        // atomic with the insertion into a buffer. This means that concurrent tasks
-        // can have the same ordering and the buffers are in a weakly sorted order.
-        return nextOrder++;
+    /**
+     * Changes the weight that the node occupies in the page replacement policy.
+     *
+     * @param node the updated entry
+     * @param weightDifference the difference between the new and the old weight
+     */
+    private void onWeightChange(Node node, int weightDifference) {
+        node.policyWeight += weightDifference;
+        if (node.queueType == WINDOW) {
+            windowWeightedSize += weightDifference;
+        } else if (node.queueType == PROTECTED) {
+            protectedWeightedSize += weightDifference;
+        }
+    }
+
+    /**
+     * Unlinks the node from the page replacement policy.
+     *
+     * @param node the removed entry
+     */
+    private void onRemove(Node node) {
+        timerWheel.deschedule(node);
+        if (policy == EvictionPolicy.LRU) {
+            evictionDeque.remove(node);
+            return;
+        }
+        if (node.queueType == WINDOW) {
+            windowDeque.remove(node);
+            windowWeightedSize -= node.policyWeight;
+        } else if (node.queueType == PROBATION) {
+            probationDeque.remove(node);
+        } else if (node.queueType == PROTECTED) {
+            protectedDeque.remove(node);
+            protectedWeightedSize -= node.policyWeight;
+        }
+        node.queueType = NONE;
+    }
+
+    /**
+     * Performs the post-processing work required after a read. The read is recorded in the lossy
+     * read buffer, which is drained once a stripe is full or a write requires it.
+     *
+     * @param node the entry that was read
+     */
+    private void afterRead(Node node) {
+        boolean delayable = (readBuffer.offer(node) != ReadBuffer.FULL);
+        drainBuffersIfRequired(delayable, AMORTIZED_DRAIN_THRESHOLD);
+    }
+
+    /**
+     * Performs the post-processing work required after the map operation.
+     *
+     * @param task the pending operation to be applied
+     */
+    private void afterCompletion(Task task) {
+        schedule(task);
+        drainBuffersIfRequired(false, AMORTIZED_DRAIN_THRESHOLD);
+    }
+
+    /**
+     * Performs the post-processing work required after a write, which is deferred to the end of the
+     * batch if the write is a part of one.
+     *
+     * @param task the pending operation to be applied
+     * @param batched if the write is a part of a batch
+     */
+    private void afterWrite(Task task, boolean batched) {
+        if (batched) {
+            schedule(task);
+        } else {
+            afterCompletion(task);
+        }
+    }
+
+    /**
+     * Performs the post-processing work required after a batch of operations, so that the eviction
+     * lock is acquired once for the whole batch.
+     *
+     * @param batchSize the number of operations in the batch
+     */
+    private void afterBatch(int batchSize) {
+        drainBuffersIfRequired(false, AMORTIZED_DRAIN_THRESHOLD + batchSize);
+    }
+
+    /**
+     * Schedules the write task to be applied to the page replacement policy. If the write buffer is
+     * full, the writer helps to drain it instead of the buffer growing, and if the drains remain
+     * contended, it waits for the eviction lock and runs the task after the pending ones.
+     *
+     * @param task the pending operation
+     */
+    private void schedule(Task task) {
+        for (int attempt = 0; attempt < WRITE_BUFFER_RETRIES; attempt++) {
+            if (writeBuffer.offer(task)) {
+                drainStatus.set(DrainStatus.REQUIRED);
+                return;
+            }
+            helpDrainWriteBuffer();
+        }
+        evictionLock.lock();
+        try {
+            drainBuffers(writeBuffer.capacity());
+            task.run();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Drains the full write buffer on the writer, unless another thread is draining it. If the
+     * maintenance is asynchronous, the map is also evicted to the latest eviction target, so that
+     * a burst of writes does not outpace the eviction.
+     */
+    private void helpDrainWriteBuffer() {
+        if (!evictionLock.tryLock()) {
+            Thread.yield();
+            return;
+        }
+        try {
+            drainStatus.set(DrainStatus.PROCESSING);
+            drainBuffers(AMORTIZED_DRAIN_THRESHOLD);
+            if ((executor != null) && hasOverflowed(capacity)) {
+                evict(Math.min(evictionTarget, capacity));
+            }
+        } finally {
+            drainStatus.compareAndSet(DrainStatus.PROCESSING, DrainStatus.IDLE);
+            evictionLock.unlock();
+        }
     }
 
     /**
@@ -253,12 +741,71 @@ public class ConcurrentLinkedHashMap<K, V> implements ConcurrentMap<K, V>, Seria
      * @return if a drain should be attempted
      */
     private boolean shouldDrainBuffers(boolean delayable) {
-        if (executor.isShutdown()) {
-            DrainStatus status = drainStatus.get();
-            return (status != DrainStatus.PROCESSING)
-                    && (!delayable || (status == DrainStatus.REQUIRED));
+        DrainStatus status = drainStatus.get();
+        return (status != DrainStatus.PROCESSING)
+                && (!delayable || (status == DrainStatus.REQUIRED));
+    }
+
+    /**
+     * Drains the buffers if required, on the caller or on the executor if the maintenance is
+     * asynchronous.
+     *
+     * @param delayable if a drain should be delayed until required
+     * @param maxToDrain the maximum number of operations that the caller drains
+     */
+    private void drainBuffersIfRequired(boolean delayable, int maxToDrain) {
+        if (!shouldDrainBuffers(delayable)) {
+            return;
+        }
+        if (executor == null) {
+            tryToDrainBuffers(maxToDrain);
+        } else {
+            scheduleDrainBuffers();
+        }
+    }
+
+    /** Schedules a drain of the buffers on the executor, unless one is already pending. */
+    private void scheduleDrainBuffers() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            execute(executor, this::runScheduledDrain);
+        }
+    }
+
+    /**
+     * Drains the buffers on the executor and evicts the map to the latest eviction target if it
+     * exceeds the capacity. The pending flag is cleared before the drain, so that the operations
+     * which are appended while draining schedule another drain, and the drain is rescheduled if it
+     * left operations behind.
+     */
+    private void runScheduledDrain() {
+        drainScheduled.set(false);
+        evictionLock.lock();
+        try {
+            drainStatus.set(DrainStatus.PROCESSING);
+            drainBuffers(AMORTIZED_DRAIN_THRESHOLD);
+            if (hasOverflowed(capacity)) {
+                evict(Math.min(evictionTarget, capacity));
+            }
+        } finally {
+            drainStatus.compareAndSet(DrainStatus.PROCESSING, DrainStatus.IDLE);
+            evictionLock.unlock();
+        }
+        if (!writeBuffer.isEmpty()) {
+            scheduleDrainBuffers();
+        }
+    }
+
+    /**
+     * Runs the maintenance task on the executor, or on the caller if the executor rejects it.
+     *
+     * @param task the maintenance task
+     */
+    private static void execute(Executor executor, Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.run();
         }
-        return false;
     }
 
     /**
@@ -280,160 +827,259 @@ public class ConcurrentLinkedHashMap<K, V> implements ConcurrentMap<K, V>, Seria
     }
 
     /**
-     * Drains the buffers and applies the pending operations.
+     * Drains the buffers and applies the pending operations. The reads are replayed first, so that
+     * a read of an entry whose addition is still pending is ignored by the page replacement policy.
      *
-     * @param maxToDrain the maximum number of operations to drain
+     * @param maxToDrain the maximum number of write operations to drain
      */
     private void drainBuffers(int maxToDrain) {
-        // A mostly strict ordering is achieved by observing that each buffer
-        // contains tasks in a weakly sorted order starting from the last drain.
-        // The buffers can be merged into a sorted list in O(n) time by using
-        // counting sort and chaining on a collision.
-
-        // The output is capped to the expected number of tasks plus additional
-        // slack to optimistically handle the concurrent additions to the buffers.
-        Task[] tasks = new Task[maxToDrain];
-
-        // Moves the tasks into the output array, applies them, and updates the
-        // marker for the starting order of the next drain.
-        int maxTaskIndex = moveTasksFromBuffers(tasks);
-        runTasks(tasks, maxTaskIndex);
-        updateDrainedOrder(tasks, maxTaskIndex);
+        readBuffer.drainTo(readBufferDrainer);
+        // The write buffer keeps the tasks in the order in which their slots were claimed, so they
+        // are applied as they are drained
+        writeBuffer.drainTo(Task::run, maxToDrain);
+        expireEntries();
     }
 
     /**
-     * Moves the tasks from the buffers into the output array.
+     * Returns a snapshot of the statistics of the map, which are only recorded if the map was created
+     * with a recording {@link StatsCounter}.
      *
-     * @param tasks the ordered array of the pending operations
-     * @return the highest index location of a task that was added to the array
+     * @return the statistics recorded so far
      */
-    private int moveTasksFromBuffers(Task[] tasks) {
-        int maxTaskIndex = -1;
-        for (int i = 0; i < buffers.length; i++) {
-            int maxIndex = moveTasksFromBuffer(tasks, i);
-            maxTaskIndex = Math.max(maxIndex, maxTaskIndex);
-        }
-        return maxTaskIndex;
+    public CacheStats stats() {
+        return statsCounter.snapshot();
     }
 
+    /* ---------------- Removal Notification Support -------------- */
+
     /**
-     * Moves the tasks from the specified buffer into the output array.
+     * Adds a listener which is notified of the removed entries before the current listener, if any.
+     * The listener is expected to be added before the map is used, as it is not notified of the
+     * removals which were queued before it was added. A failure of the added listener does not
+     * prevent the current listener from being notified. The listener is notified on the callers
+     * which remove the entries if the map was created without a notification executor.
      *
-     * @param tasks the ordered array of the pending operations
-     * @param bufferIndex the buffer to drain into the tasks array
-     * @return the highest index location of a task that was added to the array
+     * @param listener the listener which is notified of the removed entries
      */
-    private int moveTasksFromBuffer(Task[] tasks, int bufferIndex) {
-        // While a buffer is being drained it may be concurrently appended to. The
-        // number of tasks removed are tracked so that the length can be decremented
-        // by the delta rather than set to zero.
-        Queue<Task> buffer = buffers[bufferIndex];
-        int removedFromBuffer = 0;
-
-        Task task;
-        int maxIndex = -1;
-        while ((task = buffer.poll()) != null) {
-            removedFromBuffer++;
-
-            // The index into the output array is determined by calculating the offset
-            // since the last drain
-            int index = task.getOrder() - drainedOrder;
-            if (index < 0) {
-                // The task was missed by the last drain and can be run immediately
-                task.run();
-            } else if (index >= tasks.length) {
-                // Due to concurrent additions, the order exceeds the capacity of the
-                // output array. It is added to the end as overflow and the remaining
-                // tasks in the buffer will be handled by the next drain.
-                maxIndex = tasks.length - 1;
-                addTaskToChain(tasks, task, maxIndex);
-                break;
-            } else {
-                maxIndex = Math.max(index, maxIndex);
-                addTaskToChain(tasks, task, index);
-            }
+    public synchronized void addRemovalListener(RemovalListener<K, V> listener) {
+        final RemovalListener<K, V> current = removalListener;
+        if (current == null) {
+            removalListener = listener;
+            return;
         }
-        bufferLengths.addAndGet(bufferIndex, -removedFromBuffer);
-        return maxIndex;
+        removalListener = notifications -> {
+            try {
+                listener.onRemoval(notifications);
+            } finally {
+                current.onRemoval(notifications);
+            }
+        };
     }
 
     /**
-     * Adds the task as the head of the chain at the index location.
+     * Queues the notification of a removed entry and schedules its delivery to the listener, unless
+     * a delivery is already pending.
      *
-     * @param tasks the ordered array of the pending operations
-     * @param task the pending operation to add
-     * @param index the array location
+     * @param key the key of the removed entry
+     * @param value the value of the removed entry
+     * @param expiresAt the expiration time of the removed entry
+     * @param cause the cause of the removal
      */
-    private void addTaskToChain(Task[] tasks, Task task, int index) {
-        task.setNext(tasks[index]);
-        tasks[index] = task;
+    private void notifyRemoval(K key, V value, long expiresAt, RemovalCause cause) {
+        if (removalListener == null) {
+            return;
+        }
+        final long expireAfterNanos = (expiresAt == NO_EXPIRY) ? -1 : Math.max(expiresAt - now(), 0);
+        pendingNotifications.offer(new RemovalNotification<>(key, value, expireAfterNanos, cause));
+        if (notificationScheduled.compareAndSet(false, true)) {
+            execute(notificationExecutor, this::deliverNotifications);
+        }
     }
 
     /**
-     * Runs the pending page replacement policy operations.
-     *
-     * @param tasks the ordered array of the pending operations
-     * @param maxTaskIndex the maximum index of the array
+     * Delivers the queued notifications to the listener in batches. The pending flag is only cleared
+     * once the queue is drained, and the queue is checked again after that, so that the batches are
+     * delivered by a single task at a time and a notification queued concurrently is not missed.
      */
-    private void runTasks(Task[] tasks, int maxTaskIndex) {
-        for (int i = 0; i <= maxTaskIndex; i++) {
-            runTasksInChain(tasks[i]);
+    private void deliverNotifications() {
+        do {
+            List<RemovalNotification<K, V>> batch = new ArrayList<>();
+            RemovalNotification<K, V> notification;
+            while ((notification = pendingNotifications.poll()) != null) {
+                batch.add(notification);
+                if (batch.size() == NOTIFICATION_BATCH_SIZE) {
+                    deliver(batch);
+                    batch = new ArrayList<>();
+                }
+            }
+            if (!batch.isEmpty()) {
+                deliver(batch);
+            }
+            notificationScheduled.set(false);
+        } while (!pendingNotifications.isEmpty() && notificationScheduled.compareAndSet(false, true));
+    }
+
+    /** Delivers a batch of notifications, without letting a failing listener stop the later batches. */
+    private void deliver(List<RemovalNotification<K, V>> batch) {
+        try {
+            removalListener.onRemoval(batch);
+        } catch (RuntimeException e) {
+            // The failure is confined to the listener, and the removals have already taken place
         }
     }
 
+    /* ---------------- Refresh Support -------------- */
+
     /**
-     * Runs the pending operations on the linked chain.
+     * Claims the refresh of the key's entry if the entry was written at least the given duration ago
+     * and is not already being refreshed. The caller which claims the refresh is expected to reload
+     * the value and to complete the refresh with {@link #completeRefresh}, while the current value
+     * continues to be served until it expires.
      *
-     * @param task the first task in the chain of operations
+     * @param key key whose entry is to be refreshed
+     * @param refreshAfterNanos the duration after the write of an entry when it becomes eligible to be
+     *                          refreshed
+     * @return if the caller claimed the refresh of the entry
      */
-    private void runTasksInChain(Task task) {
-        while (task != null) {
-            Task current = task;
-            task = task.getNext();
-            current.setNext(null);
-            current.run();
+    public boolean tryStartRefresh(K key, long refreshAfterNanos) {
+        if ((key == null) || (refreshAfterNanos < 0)) {
+            return false;
+        }
+        final Node node = data.get(key);
+        if ((node == null) || node.refreshing) {
+            return false;
+        }
+        final long now = now();
+        if (((now - node.writeTime) < refreshAfterNanos) || hasExpired(node, now)) {
+            return false;
+        }
+        synchronized (node) {
+            if (!node.isAlive() || node.refreshing || ((now - node.writeTime) < refreshAfterNanos)) {
+                return false;
+            }
+            node.refreshing = true;
+            return true;
         }
     }
 
     /**
-     * Updates the order to start the next drain from.
+     * Completes a refresh claimed by {@link #tryStartRefresh}. The reloaded value replaces the current
+     * value only if the entry was not written since the refresh started. A null value abandons the
+     * refresh, so that the current value is served until it expires and the refresh may be claimed
+     * again.
      *
-     * @param tasks the ordered array of operations
-     * @param maxTaskIndex the maximum index of the array
+     * @param key key whose entry was refreshed
+     * @param value the reloaded value or null if it could not be loaded
+     * @param expireAfterNanos the duration after which the refreshed entry expires or a negative value
+     *                         if it never expires
+     * @return if the reloaded value was stored
      */
-    private void updateDrainedOrder(Task[] tasks, int maxTaskIndex) {
-        if (maxTaskIndex >= 0) {
-            Task task = tasks[maxTaskIndex];
-            drainedOrder = task.getOrder() + 1;
+    public boolean completeRefresh(K key, V value, long expireAfterNanos) {
+        if (key == null) {
+            return false;
+        }
+        final Node node = data.get(key);
+        if (node == null) {
+            return false;
         }
+        final int weight = (value == null) ? 0 : weigher.weightOf(value);
+        final long now = now();
+        final long expiresAt = expirationTime(now, expireAfterNanos);
+        final V oldValue;
+        final int oldWeight;
+        final long oldExpiresAt;
+        synchronized (node) {
+            if (!node.refreshing) {
+                return false;
+            }
+            node.refreshing = false;
+            if ((value == null) || !node.isAlive()) {
+                return false;
+            }
+            oldValue = node.value;
+            oldWeight = node.weight;
+            oldExpiresAt = node.expiresAt;
+            node.expiresAt = expiresAt;
+            node.value = value;
+            node.weight = weight;
+            node.writeTime = now;
+        }
+        if (oldValue != value) {
+            notifyRemoval(key, oldValue, oldExpiresAt, RemovalCause.REPLACED);
+        }
+        afterUpdate(node, weight - oldWeight, oldExpiresAt != expiresAt, false);
+        return true;
     }
 
-    /** Updates the node's location in the page replacement policy. */
-    private class ReadTask extends AbstractTask {
+    /* ---------------- Expiration Support -------------- */
 
-        final Node node;
+    /** Returns the current time, in nanoseconds, relative to the creation of the map. */
+    long now() {
+        return System.nanoTime() - startTime;
+    }
 
-        ReadTask(Node node) {
-            this.node = node;
+    /**
+     * Returns the time at which an entry that is written at the given time expires.
+     *
+     * @param now the time at which the entry is written
+     * @param expireAfterNanos the duration after which the entry expires or a negative value if it never expires
+     * @return the expiration time
+     */
+    private long expirationTime(long now, long expireAfterNanos) {
+        if (expireAfterNanos < 0) {
+            return NO_EXPIRY;
         }
+        long expiresAt = now + expireAfterNanos;
+        // Saturates on an overflow, which would otherwise make a long lived entry expire immediately
+        return (expiresAt < 0) ? (NO_EXPIRY - 1) : expiresAt;
+    }
 
-        public void run() {
-            // An entry may scheduled for reordering despite having been previously
-            // removed. This can occur when the entry was concurrently read while a
-            // writer was removing it. If the entry is no longer linked then it does
-            // not need to be processed.
-            if (evictionDeque.contains(node)) {
-                evictionDeque.moveToBack(node);
+    /** Determines whether the node has expired at the given time. */
+    private boolean hasExpired(Node node, long now) {
+        return node.expiresAt <= now;
+    }
+
+    /**
+     * Advances the timer wheel and evicts the entries that have expired, up to a batch of the timer
+     * events. The remaining events are processed by the next drains.
+     */
+    private void expireEntries() {
+        expirationPending = !timerWheel.advance(now(), this::evictExpired, EXPIRATION_BATCH_SIZE);
+    }
+
+    /**
+     * Evicts the expired node, unless it was concurrently updated with a later expiration time. In
+     * that case the pending update reschedules it on the timer wheel.
+     *
+     * @param node the entry whose timer event fired
+     */
+    private void evictExpired(Node node) {
+        synchronized (node) {
+            if (!hasExpired(node, timerWheel.nanos)) {
+                return;
             }
+            node.makeRetired();
         }
+        evictEntry(node);
+        statsCounter.recordExpiration();
+        notifyRemoval(node.key, node.getValue(), node.expiresAt, RemovalCause.EXPIRED);
+    }
 
-        public boolean isWrite() {
-            return false;
+    /**
+     * Schedules the node on the timer wheel according to its current expiration time.
+     *
+     * @param node the added or updated entry
+     */
+    private void onExpirationChange(Node node) {
+        if (node.expiresAt == NO_EXPIRY) {
+            timerWheel.deschedule(node);
+        } else {
+            timerWheel.reschedule(node);
         }
     }
 
     /** Adds the node to the page replacement policy. */
-    private final class AddTask extends AbstractTask {
+    private final class AddTask implements Task {
 
         final Node node;
         final int weight;
@@ -446,19 +1092,21 @@ public class ConcurrentLinkedHashMap<K, V> implements ConcurrentMap<K, V>, Seria
         public void run() {
             weightedSize += weight;
 
-            // ignore out-of-order write operations
-            if (node.get().isAlive()) {
-                evictionDeque.add(node);
+            if (weighted && (sketch != null)) {
+                sketch.ensureCapacity(data.size());
             }
-        }
 
-        public boolean isWrite() {
-            return true;
+            // ignore out-of-order write operations
+            if (node.isAlive()) {
+                node.policyWeight = weight;
+                onAdd(node);
+                onExpirationChange(node);
+            }
         }
     }
 
     /** Removes a node from the page replacement policy. */
-    private final class RemovalTask extends AbstractTask {
+    private final class RemovalTask implements Task {
 
         final Node node;
 
@@ -468,34 +1116,29 @@ public class ConcurrentLinkedHashMap<K, V> implements ConcurrentMap<K, V>, Seria
 
         public void run() {
             // add may not have been processed yet
-            evictionDeque.remove(node);
+            onRemove(node);
             node.makeDead();
         }
-
-        public boolean isWrite() {
-            return true;
-        }
     }
 
-    /** Updates the weighted size and evicts an entry on overflow. */
-    private final class UpdateTask extends ReadTask {
+    /** Updates the node's location in the page replacement policy and its weighted size. */
+    private final class UpdateTask implements Task {
 
+        final Node node;
         final int weightDifference;
 
         public UpdateTask(Node node, int weightDifference) {
-            super(node);
+            this.node = node;
             this.weightDifference = weightDifference;
         }
 
-        @Override
         public void run() {
-            super.run();
+            onAccess(node);
             weightedSize += weightDifference;
-        }
-
-        @Override
-        public boolean isWrite() {
-            return true;
+            onWeightChange(node, weightDifference);
+            if (node.isAlive()) {
+                onExpirationChange(node);
+            }
         }
     }
 
@@ -511,6 +1154,17 @@ public class ConcurrentLinkedHashMap<K, V> implements ConcurrentMap<K, V>, Seria
         return data.size();
     }
 
+    /**
+     * Returns the weighted size of this map, which is the sum of the weights of its entries. The
+     * weights of the writes which are pending to be applied to the page replacement policy are not
+     * included.
+     *
+     * @return the combined weight of the values in this map
+     */
+    public int weightedSize() {
+        return Math.max(0, weightedSize);
+    }
+
     @Override
     public void clear() {
         // The alternative is to iterate through the keys and call #remove(), which
@@ -518,24 +1172,14 @@ public class ConcurrentLinkedHashMap<K, V> implements ConcurrentMap<K, V>, Seria
         evictionLock.lock();
         try {
             Node node;
-            while ((node = evictionDeque.poll()) != null) {
-                data.remove(node.key, node);
-                node.makeDead();
-            }
-
-            // Drain the buffers and run only the write tasks
-            for (int i = 0; i < buffers.length; i++) {
-                Queue<Task> buffer = buffers[i];
-                int removed = 0;
-                Task task;
-                while ((task = buffer.poll()) != null) {
-                    if (task.isWrite()) {
-                        task.run();
-                    }
-                    removed++;
-                }
-                bufferLengths.addAndGet(i, -removed);
+            while ((node = nextVictim()) != null) {
+                evictEntry(node);
+                notifyRemoval(node.key, node.getValue(), node.expiresAt, RemovalCause.EXPLICIT);
             }
+
+            // Discard the reads and run the pending write tasks
+            readBuffer.drainTo(read -> { });
+            writeBuffer.drainTo(Task::run, writeBuffer.capacity());
         } finally {
             evictionLock.unlock();
         }
@@ -544,11 +1188,28 @@ public class ConcurrentLinkedHashMap<K, V> implements ConcurrentMap<K, V>, Seria
     @Override
     public boolean containsKey(Object key) {
         if (key != null) {
-            return data.containsKey(key);
+            final Node node = data.get(key);
+            return (node != null) && !hasExpired(node, now());
         }
         return false;
     }
 
+    /**
+     * Returns the value of the key without recording a read of it, unlike {@link #get}.
+     *
+     * @param key key whose associated value is to be returned
+     * @return the value of the key, or null if the key is not mapped or its entry has expired
+     */
+    public V peek(Object key) {
+        if (key != null) {
+            final Node node = data.get(key);
+            if ((node != null) && !hasExpired(node, now())) {
+                return node.getValue();
+            }
+        }
+        return null;
+    }
+
     @Override
     public boolean containsValue(Object value) {
         for (Node node : data.values()) {
@@ -561,17 +1222,101 @@ public class ConcurrentLinkedHashMap<K, V> implements ConcurrentMap<K, V>, Seria
 
     @Override
     public V get(Object key) {
-        if (key != null && data.containsKey(key)) {
+        if (key != null) {
             final Node node = data.get(key);
             if (node == null) {
+                statsCounter.recordMisses(1);
+                return null;
+            }
+            final long now = now();
+            if (hasExpired(node, now)) {
+                statsCounter.recordMisses(1);
+                removeExpired(node, now, false);
                 return null;
             }
-            afterCompletion(new ReadTask(node));
+            statsCounter.recordHits(1);
+            afterRead(node);
             return node.getValue();
         }
         return null;
     }
 
+    /**
+     * Returns the values of the given keys that are present in the map. The keys share a single read
+     * of the clock and their reads are applied to the page replacement policy as one batch.
+     *
+     * @param keys the keys whose values are to be returned
+     * @return the present mappings of the keys, in the iteration order of the keys
+     */
+    public Map<K, V> getAll(Iterable<? extends K> keys) {
+        final Map<K, V> result = new LinkedHashMap<>();
+        final long now = now();
+        int batchSize = 0;
+        for (K key : keys) {
+            if (key == null) {
+                continue;
+            }
+            batchSize++;
+            final Node node = data.get(key);
+            if (node == null) {
+                continue;
+            }
+            if (hasExpired(node, now)) {
+                removeExpired(node, now, true);
+                continue;
+            }
+            readBuffer.offer(node);
+            result.put(key, node.getValue());
+        }
+        statsCounter.recordHits(result.size());
+        statsCounter.recordMisses(batchSize - result.size());
+        afterBatch(batchSize);
+        return result;
+    }
+
+    /**
+     * Visits the entries of the map in the order in which the page replacement policy would evict
+     * them, from the next victim to the most recently used entry. The order is captured under the
+     * eviction lock once the pending operations are applied, and the entries are visited after the
+     * lock is released, so that the visitor does not block the maintenance of the map. The entries
+     * which are removed or have expired by the time they are visited are skipped, and the visits do
+     * not count as reads.
+     *
+     * @param visitor the visitor of the entries
+     */
+    public void forEachInEvictionOrder(EntryVisitor<? super K, ? super V> visitor) {
+        final List<Node> nodes = new ArrayList<>(data.size());
+        evictionLock.lock();
+        try {
+            drainBuffers(AMORTIZED_DRAIN_THRESHOLD);
+            if (policy == EvictionPolicy.LRU) {
+                addInOrder(nodes, evictionDeque);
+            } else {
+                addInOrder(nodes, probationDeque);
+                addInOrder(nodes, protectedDeque);
+                addInOrder(nodes, windowDeque);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+        final long now = now();
+        for (Node node : nodes) {
+            final V value = node.getValue();
+            final long expiresAt = node.expiresAt;
+            if (!node.isAlive() || (expiresAt <= now)) {
+                continue;
+            }
+            visitor.visit(node.key, value, (expiresAt == NO_EXPIRY) ? -1 : expiresAt - now);
+        }
+    }
+
+    /** Adds the nodes of the deque to the list, in the order from its head to its tail. */
+    private static <E extends Linked<E>> void addInOrder(List<? super E> nodes, LinkedDeque<E> deque) {
+        for (E node = deque.peekFirst(); node != null; node = node.getNext()) {
+            nodes.add(node);
+        }
+    }
+
     @Override
     public V getOrDefault(Object key, V defaultValue) {
         return null;
@@ -583,7 +1328,42 @@ public class ConcurrentLinkedHashMap<K, V> implements ConcurrentMap<K, V>, Seria
     }
 
     public V putIfAbsent(K key, V value) {
-        return null;
+        return putIfAbsent(key, value, -1);
+    }
+
+    /**
+     * Adds the entry unless the key is mapped to a live value, in which case that value is returned.
+     * An expired entry of the key is replaced. Unlike {@link #computeIfAbsent}, the call is neither
+     * recorded as a read nor as a load.
+     *
+     * @param key key with which the value is to be associated
+     * @param value value to be associated with the key
+     * @param expireAfterNanos the duration after which the entry expires or a negative value if it
+     *                         never expires
+     * @return the live value of the key, or null if the entry was added
+     */
+    public V putIfAbsent(K key, V value, long expireAfterNanos) {
+        if (key == null) {
+            return null;
+        }
+        final long now = now();
+        final int weight = weigher.weightOf(value);
+        final Node node = new Node(key, value, weight, now, expirationTime(now, expireAfterNanos));
+        while (true) {
+            final Node prior = data.putIfAbsent(key, node);
+            if (prior == null) {
+                afterWrite(new AddTask(node, weight), false);
+                return null;
+            }
+            if (!prior.isAlive()) {
+                // The prior node is being removed, so retry until it is no longer mapped
+                continue;
+            }
+            if (!hasExpired(prior, now)) {
+                return prior.getValue();
+            }
+            removeExpired(prior, now, false);
+        }
     }
 
     @Override
@@ -606,9 +1386,100 @@ public class ConcurrentLinkedHashMap<K, V> implements ConcurrentMap<K, V>, Seria
 
     }
 
+    /**
+     * If the key is not mapped to a live value, computes its value with the mapping function and
+     * enters it into the map as an entry which never expires.
+     *
+     * @see #computeIfAbsent(Object, Function, long)
+     */
     @Override
     public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
-        return null;
+        return computeIfAbsent(key, mappingFunction, -1);
+    }
+
+    /**
+     * If the key is not mapped to a live value, computes its value with the mapping function and
+     * enters it into the map. An expired entry of the key is replaced. Concurrent callers for the
+     * same key wait for the in-flight computation and receive its value instead of applying their
+     * own mapping functions, and apply their own if it fails. The mapping function is applied
+     * outside the locks of the map, so it may read and update the map, except for computing the
+     * value of the same key. The computed value is entered as it would be by {@link #putIfAbsent},
+     * so a value which was put while it was computed is kept and returned instead.
+     *
+     * @param key key with which the computed value is to be associated
+     * @param mappingFunction the function to compute the value, which may return null to indicate
+     *                        that no value is to be associated
+     * @param expireAfterNanos the duration after which the computed entry expires or a negative
+     *                         value if it never expires
+     * @return the current (existing or computed) value associated with the key or null if the
+     *         computed value is null
+     * @throws IllegalStateException if the mapping function computes the value of the same key
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction, long expireAfterNanos) {
+        if (key == null) {
+            return null;
+        }
+        while (true) {
+            final Node existing = data.get(key);
+            if ((existing != null) && !hasExpired(existing, now())) {
+                statsCounter.recordHits(1);
+                afterRead(existing);
+                return existing.getValue();
+            }
+            final Load load = new Load();
+            final Load inFlight = loads.putIfAbsent(key, load);
+            if (inFlight == null) {
+                try {
+                    return load(key, load, mappingFunction, expireAfterNanos);
+                } finally {
+                    loads.remove(key, load);
+                }
+            }
+            if (inFlight.owner == Thread.currentThread()) {
+                throw new IllegalStateException("Recursive load of the key: " + key);
+            }
+            final V value = inFlight.await();
+            if (value != null) {
+                // The value was computed by a concurrent caller whose computation was waited for
+                statsCounter.recordHits(1);
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Computes the value of the key for a load which was claimed by the calling thread, and
+     * completes the load with the value that is associated with the key.
+     */
+    private V load(K key, Load load, Function<? super K, ? extends V> mappingFunction, long expireAfterNanos) {
+        // The value may have been entered by a load which completed after the key was looked up
+        final Node existing = data.get(key);
+        if ((existing != null) && !hasExpired(existing, now())) {
+            statsCounter.recordHits(1);
+            afterRead(existing);
+            complete(key, load, existing.getValue());
+            return existing.getValue();
+        }
+        statsCounter.recordMisses(1);
+        final long loadStartTime = System.nanoTime();
+        final V value;
+        try {
+            value = mappingFunction.apply(key);
+        } catch (RuntimeException | Error e) {
+            statsCounter.recordLoadFailure(System.nanoTime() - loadStartTime);
+            complete(key, load, null);
+            throw e;
+        }
+        if (value == null) {
+            statsCounter.recordLoadFailure(System.nanoTime() - loadStartTime);
+            complete(key, load, null);
+            return null;
+        }
+        statsCounter.recordLoadSuccess(System.nanoTime() - loadStartTime);
+        final V current = putIfAbsent(key, value, expireAfterNanos);
+        final V result = (current == null) ? value : current;
+        complete(key, load, result);
+        return result;
     }
 
     @Override
@@ -627,8 +1498,8 @@ public class ConcurrentLinkedHashMap<K, V> implements ConcurrentMap<K, V>, Seria
     }
 
     /**
-     * Adds a node to the list and the data store. If an existing node is found, then its
-     * value is updated if allowed.
+     * Adds a node, which never expires, to the list and the data store. If an existing node is
+     * found, then its value is updated if allowed.
      *
      * @param key key with which the specified value is to be associated
      * @param value value to be associated with the specified key
@@ -636,33 +1507,111 @@ public class ConcurrentLinkedHashMap<K, V> implements ConcurrentMap<K, V>, Seria
      */
     @Override
     public V put(K key, V value) {
-        if (key != null) {
-            final int weight = weigher.weightOf(value);
-            final WeightedValue<V> weightedValue = new WeightedValue<>(value, weight);
-            final Node node = new Node(key, weightedValue);
-            while (true) {
-                final Node prior = data.putIfAbsent(node.key, node);
-                if (prior == null) {
-                    afterCompletion(new AddTask(node, weight));
-                    return null;
-                }
-                while (true) {
-                    final WeightedValue<V> oldWeightedValue = prior.get();
-                    if (!oldWeightedValue.isAlive()) {
-                        break;
-                    }
-                    if (prior.compareAndSet(oldWeightedValue, weightedValue)) {
-                        final int weightedDifference = weight - oldWeightedValue.weight;
-                        final Task task = (weightedDifference == 0)
-                                ? new ReadTask(prior)
-                                : new UpdateTask(prior, weightedDifference);
-                        afterCompletion(task);
-                        return oldWeightedValue.value;
-                    }
+        return put(key, value, -1);
+    }
+
+    /**
+     * Adds a node to the list and the data store. If an existing node is found, then its
+     * value and expiration time are updated if allowed.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @param expireAfterNanos the duration after which the entry expires or a negative value if it
+     *                         never expires
+     * @return the prior value in the data store or null if no mapping was found
+     */
+    public V put(K key, V value, long expireAfterNanos) {
+        return (key == null) ? null : put(key, value, now(), expireAfterNanos, false);
+    }
+
+    /**
+     * Adds the mappings to the list and the data store. The mappings share a single read of the clock
+     * and are applied to the page replacement policy as one batch.
+     *
+     * @param entries the mappings to be stored
+     * @param expireAfterNanos the duration after which the entries expire or a negative value if they
+     *                         never expire
+     */
+    public void putAll(Iterable<? extends Entry<? extends K, ? extends V>> entries, long expireAfterNanos) {
+        final long now = now();
+        int batchSize = 0;
+        for (Entry<? extends K, ? extends V> entry : entries) {
+            if (entry.getKey() != null) {
+                put(entry.getKey(), entry.getValue(), now, expireAfterNanos, true);
+                batchSize++;
+            }
+        }
+        afterBatch(batchSize);
+    }
+
+    /**
+     * Adds a node to the list and the data store, or updates the value and expiration time of an
+     * existing node.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @param now the time of the write
+     * @param expireAfterNanos the duration after which the entry expires or a negative value if it
+     *                         never expires
+     * @param batched if the write is a part of a batch
+     * @return the prior value in the data store or null if no mapping was found
+     */
+    private V put(K key, V value, long now, long expireAfterNanos, boolean batched) {
+        final int weight = weigher.weightOf(value);
+        final long expiresAt = expirationTime(now, expireAfterNanos);
+        final Node node = new Node(key, value, weight, now, expiresAt);
+        while (true) {
+            final Node prior = data.putIfAbsent(node.key, node);
+            if (prior == null) {
+                afterWrite(new AddTask(node, weight), batched);
+                return null;
+            }
+            final V oldValue;
+            final int oldWeight;
+            final long oldExpiresAt;
+            synchronized (prior) {
+                if (!prior.isAlive()) {
+                    // The prior node is being removed, so retry until it is no longer mapped
+                    continue;
                 }
+                oldValue = prior.value;
+                oldWeight = prior.weight;
+                oldExpiresAt = prior.expiresAt;
+                // The expiration time is set first, so that a reader never observes the new
+                // value with an expiration time that may have already passed
+                prior.expiresAt = expiresAt;
+                prior.value = value;
+                prior.weight = weight;
+                prior.writeTime = now;
+                // A refresh in-flight would otherwise overwrite this value with an older one
+                prior.refreshing = false;
             }
+            if (oldValue != value) {
+                notifyRemoval(key, oldValue, oldExpiresAt, RemovalCause.REPLACED);
+            }
+            afterUpdate(prior, weight - oldWeight, oldExpiresAt != expiresAt, batched);
+            return oldValue;
+        }
+    }
+
+    /**
+     * Performs the post-processing work required after the value of a node is replaced.
+     *
+     * @param node the entry that was updated
+     * @param weightDifference the difference of the new weight from the old weight
+     * @param expirationChanged if the expiration time of the entry was changed
+     * @param batched if the update is a part of a batch
+     */
+    private void afterUpdate(Node node, int weightDifference, boolean expirationChanged, boolean batched) {
+        if ((weightDifference == 0) && !expirationChanged) {
+            if (batched) {
+                readBuffer.offer(node);
+            } else {
+                afterRead(node);
+            }
+        } else {
+            afterWrite(new UpdateTask(node, weightDifference), batched);
         }
-        return null;
     }
 
     @Override
@@ -674,15 +1623,62 @@ public class ConcurrentLinkedHashMap<K, V> implements ConcurrentMap<K, V>, Seria
             }
 
             node.makeRetired();
+            notifyRemoval(node.key, node.getValue(), node.expiresAt, RemovalCause.EXPLICIT);
             afterCompletion(new RemovalTask(node));
             return node.getValue();
         }
         return null;
     }
 
+    /**
+     * Removes the mappings of the given keys, which are applied to the page replacement policy as one
+     * batch.
+     *
+     * @param keys the keys whose mappings are to be removed
+     */
+    public void removeAll(Iterable<?> keys) {
+        int batchSize = 0;
+        for (Object key : keys) {
+            if (key == null) {
+                continue;
+            }
+            batchSize++;
+            final Node node = data.remove(key);
+            if (node != null) {
+                node.makeRetired();
+                notifyRemoval(node.key, node.getValue(), node.expiresAt, RemovalCause.EXPLICIT);
+                schedule(new RemovalTask(node));
+            }
+        }
+        afterBatch(batchSize);
+    }
+
+    /**
+     * Removes the mapping of the expired node's key, unless the node was concurrently updated with
+     * a later expiration time or removed.
+     *
+     * @param node the expired entry
+     * @param now the time at which the entry was observed to be expired
+     * @param batched if the removal is a part of a batch
+     */
+    private void removeExpired(Node node, long now, boolean batched) {
+        synchronized (node) {
+            if (!node.isAlive() || !hasExpired(node, now)) {
+                return;
+            }
+            node.makeRetired();
+        }
+        statsCounter.recordExpiration();
+        notifyRemoval(node.key, node.getValue(), node.expiresAt, RemovalCause.EXPIRED);
+        // The node may have already been replaced by a computation, which leaves its removal from
+        // the page replacement policy to the thread that retired it
+        data.remove(node.key, node);
+        afterWrite(new RemovalTask(node), batched);
+    }
+
     @Override
     public void putAll(Map<? extends K, ? extends V> m) {
-
+        putAll(m.entrySet(), -1);
     }
 
     @Override
@@ -703,47 +1699,59 @@ public class ConcurrentLinkedHashMap<K, V> implements ConcurrentMap<K, V>, Seria
     }
 
     /**
-     * A value, its weight, and the entry's status.
-     *
-     * @param <V> the type of the value
+     * A node contains the key, the value, its weight and expiration time, and the linkage pointers
+     * on the page-replacement algorithm's and the timer wheel's data structures. The weight also
+     * holds the entry's status, which is <tt>alive</tt> while it is positive, <tt>retired</tt> once
+     * it is negated on the removal from the hash-table, and <tt>dead</tt> once it is zero. The value,
+     * weight, write and expiration times, and the refresh status are written while holding the
+     * node's lock.
      */
-    private static final class WeightedValue<V> {
+    private final class Node implements Linked<Node>, Timed<Node> {
+        private final K key;
+        private volatile V value;
+        private volatile int weight;
+        private volatile long writeTime;
+        private volatile long expiresAt;
+        private volatile boolean refreshing;
 
-        private final int weight;
-        private final V value;
+        private Node prev;
+        private Node next;
 
-        WeightedValue(V value, int weight) {
-            this.weight = weight;
+        // The TinyLFU queue that the node is linked on and its weight there, accessed under lock
+        private byte queueType;
+        private int policyWeight;
+
+        // The links on the timer wheel, which are accessed under lock
+        private Node prevInTimerOrder;
+        private Node nextInTimerOrder;
+
+        /** Creates a new, unlinked node. */
+        Node(K key, V value, int weight, long writeTime, long expiresAt) {
+            this.key = key;
             this.value = value;
+            this.weight = weight;
+            this.writeTime = writeTime;
+            this.expiresAt = expiresAt;
         }
 
-        boolean hasValue(Object o) {
-            return (o == value) || value.equals(o);
+        public long getExpirationTime() {
+            return expiresAt;
         }
 
-        /**
-         * If the entry is available in the hash-table and page replacement policy.
-         */
-        boolean isAlive() {
-            return weight > 0;
+        public Node getPreviousInTimerOrder() {
+            return prevInTimerOrder;
         }
-    }
 
-    /**
-     * A node contains the key, the weighted value, and the linkage pointers on the
-     * page-replacement algorithm's data structures.
-     */
-    @SuppressWarnings("serial")
-    private class Node extends AtomicReference<WeightedValue<V>> implements Linked<Node> {
-        private static final long serialVersionUID = 1;
-        private K key;
+        public void setPreviousInTimerOrder(Node prev) {
+            this.prevInTimerOrder = prev;
+        }
 
-        private Node prev;
-        private Node next;
-        /** Creates a new, unlinked node. */
-        Node(K key, WeightedValue<V> weightedValue) {
-            super(weightedValue);
-            this.key = key;
+        public Node getNextInTimerOrder() {
+            return nextInTimerOrder;
+        }
+
+        public void setNextInTimerOrder(Node next) {
+            this.nextInTimerOrder = next;
         }
 
         public Node getPrevious() {
@@ -762,27 +1770,23 @@ public class ConcurrentLinkedHashMap<K, V> implements ConcurrentMap<K, V>, Seria
             this.next = next;
         }
 
-        /** Retrieves the value held by the current <tt>WeightedValue</tt>. */
+        /** Retrieves the value held by the node. */
         V getValue() {
-            return get().value;
+            return value;
+        }
+
+        /** If the entry is available in the hash-table and page replacement policy. */
+        boolean isAlive() {
+            return weight > 0;
         }
 
         /**
          * Atomically transitions the node from the <tt>alive</tt> state to the
          * <tt>retired</tt> state, if a valid transition.
          */
-        public void makeRetired() {
-            for (;;) {
-                WeightedValue<V> current = get();
-                if (!current.isAlive()) {
-                    return;
-                }
-                WeightedValue<V> retired = new WeightedValue<>(
-                        current.value,
-                        -current.weight);
-                if (compareAndSet(current, retired)) {
-                    return;
-                }
+        public synchronized void makeRetired() {
+            if (weight > 0) {
+                weight = -weight;
             }
         }
 
@@ -790,14 +1794,31 @@ public class ConcurrentLinkedHashMap<K, V> implements ConcurrentMap<K, V>, Seria
          * Atomically transitions the node to the <tt>dead</tt> state and decrements the
          * <tt>weightedSize</tt>.
          */
-        public void makeDead() {
-            for (;;) {
-                WeightedValue<V> current = get();
-                WeightedValue<V> dead = new WeightedValue<>(current.value, 0);
-                if (compareAndSet(current, dead)) {
-                    weightedSize -= Math.abs(current.weight);
-                    return;
-                }
+        public synchronized void makeDead() {
+            weightedSize -= Math.abs(weight);
+            weight = 0;
+        }
+    }
+
+    /**
+     * Completes the load once it is no longer in flight, so that the callers which retry after it
+     * failed claim a load of their own.
+     */
+    private void complete(K key, Load load, V value) {
+        loads.remove(key, load);
+        load.complete(value);
+    }
+
+    /** An in-flight load of a key, which is completed with null if the load fails. */
+    private final class Load extends CompletableFuture<V> {
+        final Thread owner = Thread.currentThread();
+
+        /** Waits for the load, and returns its value or null if it failed. */
+        V await() {
+            try {
+                return join();
+            } catch (CompletionException | CancellationException e) {
+                return null;
             }
         }
     }
@@ -809,12 +1830,12 @@ public class ConcurrentLinkedHashMap<K, V> implements ConcurrentMap<K, V>, Seria
 
         @Override
         public Iterator<K> iterator() {
-            return null;
+            return new KeyIterator();
         }
 
         @Override
         public int size() {
-            return 0;
+            return map.size();
         }
 
         @Override
@@ -823,6 +1844,37 @@ public class ConcurrentLinkedHashMap<K, V> implements ConcurrentMap<K, V>, Seria
         }
     }
 
+    /**
+     * An adapter to safely externalize the key iterator. It walks the table of the data store
+     * lazily and is weakly consistent, so it neither copies the keys nor fails if the map is
+     * concurrently modified.
+     */
+    private final class KeyIterator implements Iterator<K> {
+
+        private final Iterator<K> iterator = data.keySet().iterator();
+        K current;
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public K next() {
+            current = iterator.next();
+            return current;
+        }
+
+        @Override
+        public void remove() {
+            if (current == null) {
+                throw new IllegalStateException("Key can't be null");
+            }
+            ConcurrentLinkedHashMap.this.remove(current);
+            current = null;
+        }
+    }
+
     /** An adapter to safely externalize the entries. */
     private final class EntrySet extends AbstractSet<Entry<K, V>> {
 
@@ -872,76 +1924,8 @@ public class ConcurrentLinkedHashMap<K, V> implements ConcurrentMap<K, V>, Seria
         }
     }
 
-    /** An executor that is always terminated. */
-    private static final class DisabledExecutorService extends AbstractExecutorService {
-
-        @Override
-        public void shutdown() {
-
-        }
-
-        @Override
-        public List<Runnable> shutdownNow() {
-            return null;
-        }
-
-        public boolean isShutdown() {
-            return true;
-        }
-
-        @Override
-        public boolean isTerminated() {
-            return false;
-        }
-
-        @Override
-        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
-            return false;
-        }
-
-        @Override
-        public void execute(Runnable command) {
-
-        }
-    }
-
-    /** An operation that can be lazily applied to the page replacement policy. */
+    /** A write operation that can be lazily applied to the page replacement policy. */
     private interface Task extends Runnable {
-
-        /** The priority order. */
-        int getOrder();
-
-        /** If the task represents an add, modify, or remove operation. */
-        boolean isWrite();
-
-        /** Returns the next task on the link chain. */
-        Task getNext();
-
-        /** Sets the next task on the link chain. */
-        void setNext(Task task);
-    }
-
-    /** A skeletal implementation of the <tt>Task</tt> interface. */
-    private abstract class AbstractTask implements Task {
-
-        private final int order;
-        private Task task;
-
-        public AbstractTask() {
-            order = nextOrdering();
-        }
-
-        public int getOrder() {
-            return order;
-        }
-
-        public Task getNext() {
-            return task;
-        }
-
-        public void setNext(Task task) {
-            this.task = task;
-        }
     }
 
     /* ---------------- Serialization Support -------------- */
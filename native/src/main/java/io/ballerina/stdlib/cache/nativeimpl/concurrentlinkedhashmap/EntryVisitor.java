@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap;
+
+/**
+ * A visitor of the entries of the {@link ConcurrentLinkedHashMap}, which are visited along with
+ * the remaining time until they expire.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+public interface EntryVisitor<K, V> {
+
+    /**
+     * Visits an entry of the map.
+     *
+     * @param key the key of the entry
+     * @param value the value of the entry
+     * @param expireAfterNanos the remaining time until the entry expires, or a negative value if it
+     *        never expires
+     */
+    void visit(K key, V value, long expireAfterNanos);
+}
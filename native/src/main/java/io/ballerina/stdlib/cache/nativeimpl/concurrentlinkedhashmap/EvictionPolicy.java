@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap;
+
+/**
+ * The page replacement policies supported by the {@link ConcurrentLinkedHashMap}.
+ */
+public enum EvictionPolicy {
+
+    /** Evicts the entry that was accessed least recently. */
+    LRU,
+
+    /**
+     * Admits new entries through a small LRU window into a segmented LRU main space, where a
+     * candidate only replaces the main space's victim if it has been used more frequently.
+     */
+    TINY_LFU
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap;
+
+/**
+ * A probabilistic multiset for estimating the popularity of an element within a time window. The
+ * maximum frequency of an element is limited to 15 (4-bits) and an aging process periodically
+ * halves the popularity of all elements.
+ * <p>
+ * The sketch is a count-min sketch where each row is packed into a single <tt>long</tt> table slot
+ * holding sixteen 4-bit counters. An element selects four counters, one per hash function, and its
+ * frequency is the minimum of them. The sketch is not thread-safe and is only accessed while holding
+ * the eviction lock.
+ *
+ * @param <E> the type of elements being counted
+ */
+final class FrequencySketch<E> {
+
+    // A mixture of seeds from FNV-1a, CityHash, and Murmur3
+    static final long[] SEED = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+    static final long RESET_MASK = 0x7777777777777777L;
+    static final long ONE_MASK = 0x1111111111111111L;
+
+    int sampleSize;
+    int tableMask;
+    long[] table;
+    int size;
+
+    /**
+     * Initializes and increases the capacity of this <tt>FrequencySketch</tt> instance, if necessary,
+     * to ensure that it can accurately estimate the popularity of elements given the maximum size of
+     * the cache. This operation forgets all previous counts when resizing.
+     *
+     * @param maximumSize the maximum size of the cache
+     */
+    void ensureCapacity(long maximumSize) {
+        int maximum = (int) Math.min(Math.max(maximumSize, 1), Integer.MAX_VALUE >>> 1);
+        if ((table != null) && (table.length >= maximum)) {
+            return;
+        }
+        table = new long[ConcurrentLinkedHashMap.ceilingNextPowerOfTwo(maximum)];
+        tableMask = Math.max(0, table.length - 1);
+        sampleSize = 10 * maximum;
+        if (sampleSize <= 0) {
+            sampleSize = Integer.MAX_VALUE;
+        }
+        size = 0;
+    }
+
+    /**
+     * Returns the estimated number of occurrences of an element, up to the maximum (15).
+     *
+     * @param e the element to count occurrences of
+     * @return the estimated number of occurrences of the element
+     */
+    int frequency(E e) {
+        int hash = spread(e.hashCode());
+        int start = (hash & 3) << 2;
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < 4; i++) {
+            int index = indexOf(hash, i);
+            int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Increments the popularity of the element if it does not exceed the maximum (15). The popularity
+     * of all elements will be periodically down sampled when the observed events exceeds a threshold.
+     *
+     * @param e the element to add
+     */
+    void increment(E e) {
+        int hash = spread(e.hashCode());
+        int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            int index = indexOf(hash, i);
+            added |= incrementAt(index, start + i);
+        }
+        if (added && (++size == sampleSize)) {
+            reset();
+        }
+    }
+
+    /**
+     * Increments the specified counter by 1 if it is not already at the maximum value (15).
+     *
+     * @param i the table index (16 counters)
+     * @param j the counter to increment
+     * @return if incremented
+     */
+    private boolean incrementAt(int i, int j) {
+        int offset = j << 2;
+        long mask = (0xfL << offset);
+        if ((table[i] & mask) != mask) {
+            table[i] += (1L << offset);
+            return true;
+        }
+        return false;
+    }
+
+    /** Reduces every counter by half of its original value. */
+    private void reset() {
+        int count = 0;
+        for (int i = 0; i < table.length; i++) {
+            count += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size = (size >>> 1) - (count >>> 2);
+    }
+
+    /**
+     * Returns the table index for the counter at the specified depth.
+     *
+     * @param item the element's hash
+     * @param i the counter depth
+     * @return the table index
+     */
+    private int indexOf(int item, int i) {
+        long hash = (item + SEED[i]) * SEED[i];
+        hash += (hash >>> 32);
+        return ((int) hash) & tableMask;
+    }
+
+    /** Applies a supplemental hash function to a given hashCode, which defends against poor quality hashes. */
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+}
@@ -136,6 +136,10 @@ public class LinkedDeque<E extends Linked<E>> {
         return pollFirst();
     }
 
+    public E peekFirst() {
+        return first;
+    }
+
     public E pollFirst() {
         if (isEmpty()) {
             return null;
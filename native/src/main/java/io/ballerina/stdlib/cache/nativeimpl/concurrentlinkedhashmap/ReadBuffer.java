@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * A striped, lossy buffer that records the elements which were read so that they can be replayed
+ * against the page replacement policy in batches. Each stripe is a fixed size ring buffer, so that
+ * recording a read does not allocate. A thread selects its stripe with a probe, which is rehashed
+ * when the thread contends with another on the same stripe. The table of stripes starts with a
+ * single stripe and grows as contention is observed.
+ * <p>
+ * The buffer is lossy, so a read is discarded when the stripe is full or remains contended. This
+ * only affects the accuracy of the page replacement policy and not the consistency of the map.
+ *
+ * @param <E> the type of elements being buffered
+ */
+final class ReadBuffer<E> {
+
+    /** The element was recorded. */
+    static final int SUCCESS = 0;
+
+    /** The element was discarded because the stripe is full. */
+    static final int FULL = 1;
+
+    /** The element was discarded because the stripe was contended. */
+    static final int FAILED = -1;
+
+    /** The maximum number of elements per stripe. */
+    static final int BUFFER_SIZE = 16;
+
+    /** Mask value for indexing into a stripe. */
+    static final int BUFFER_MASK = BUFFER_SIZE - 1;
+
+    /** The maximum number of stripes. */
+    static final int MAXIMUM_TABLE_SIZE =
+            4 * ConcurrentLinkedHashMap.ceilingNextPowerOfTwo(Runtime.getRuntime().availableProcessors());
+
+    /** The number of times a thread rehashes its probe before discarding the element. */
+    static final int ATTEMPTS = 3;
+
+    private static final AtomicInteger PROBE_GENERATOR = new AtomicInteger();
+    private static final ThreadLocal<int[]> PROBE = ThreadLocal.withInitial(() -> new int[] {nextSeed()});
+
+    private final AtomicBoolean tableBusy = new AtomicBoolean();
+    private volatile RingBuffer<E>[] table;
+
+    ReadBuffer() {
+        RingBuffer<E>[] buffers = newTable(1);
+        buffers[0] = new RingBuffer<>();
+        table = buffers;
+    }
+
+    /**
+     * Records the element in the calling thread's stripe.
+     *
+     * @param e the element to record
+     * @return {@link #SUCCESS}, {@link #FULL} or {@link #FAILED}
+     */
+    int offer(E e) {
+        int[] probe = PROBE.get();
+        int h = probe[0];
+        RingBuffer<E>[] buffers = table;
+        int result = buffers[h & (buffers.length - 1)].offer(e);
+        for (int attempt = 0; (result == FAILED) && (attempt < ATTEMPTS); attempt++) {
+            // A rehashed probe that still collides indicates that there are more contending
+            // threads than stripes
+            if (attempt > 0) {
+                expand(buffers);
+            }
+            h = advanceProbe(h);
+            probe[0] = h;
+            buffers = table;
+            result = buffers[h & (buffers.length - 1)].offer(e);
+        }
+        return result;
+    }
+
+    /**
+     * Drains the recorded elements of all the stripes. Only a single thread may drain at a time.
+     *
+     * @param consumer the action to perform on each element
+     */
+    void drainTo(Consumer<E> consumer) {
+        for (RingBuffer<E> buffer : table) {
+            buffer.drainTo(consumer);
+        }
+    }
+
+    /** Doubles the number of stripes unless it is at the maximum or another thread is expanding. */
+    private void expand(RingBuffer<E>[] buffers) {
+        if ((buffers.length >= MAXIMUM_TABLE_SIZE) || !tableBusy.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            if (table == buffers) {
+                RingBuffer<E>[] expanded = Arrays.copyOf(buffers, buffers.length << 1);
+                for (int i = buffers.length; i < expanded.length; i++) {
+                    expanded[i] = new RingBuffer<>();
+                }
+                table = expanded;
+            }
+        } finally {
+            tableBusy.set(false);
+        }
+    }
+
+    /** Allocates a table of stripes, as an array of a generic type cannot be created directly. */
+    @SuppressWarnings("unchecked")
+    private static <E> RingBuffer<E>[] newTable(int length) {
+        return (RingBuffer<E>[]) new RingBuffer<?>[length];
+    }
+
+    private static int nextSeed() {
+        int seed = PROBE_GENERATOR.addAndGet(0x9e3779b9);
+        return (seed == 0) ? 1 : seed;
+    }
+
+    private static int advanceProbe(int h) {
+        // Marsaglia's xorshift
+        h ^= h << 13;
+        h ^= h >>> 17;
+        h ^= h << 5;
+        return h;
+    }
+
+    /**
+     * A multi-producer, single-consumer ring buffer which discards an element when it is full.
+     *
+     * @param <E> the type of elements being buffered
+     */
+    static final class RingBuffer<E> {
+
+        final AtomicLong readCounter = new AtomicLong();
+        final AtomicLong writeCounter = new AtomicLong();
+        final AtomicReferenceArray<E> buffer = new AtomicReferenceArray<>(BUFFER_SIZE);
+
+        int offer(E e) {
+            long head = readCounter.get();
+            long tail = writeCounter.get();
+            if ((tail - head) >= BUFFER_SIZE) {
+                return FULL;
+            }
+            if (writeCounter.compareAndSet(tail, tail + 1)) {
+                buffer.lazySet((int) (tail & BUFFER_MASK), e);
+                return SUCCESS;
+            }
+            return FAILED;
+        }
+
+        void drainTo(Consumer<E> consumer) {
+            long head = readCounter.get();
+            long tail = writeCounter.get();
+            while (head != tail) {
+                int index = (int) (head & BUFFER_MASK);
+                E e = buffer.get(index);
+                if (e == null) {
+                    // The slot was claimed, but the element is not yet published
+                    break;
+                }
+                buffer.lazySet(index, null);
+                consumer.accept(e);
+                head++;
+            }
+            readCounter.lazySet(head);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap;
+
+/**
+ * The reasons for which an entry is removed from the {@link ConcurrentLinkedHashMap}.
+ */
+public enum RemovalCause {
+
+    /** The entry was removed explicitly, by a removal of its key or by clearing the map. */
+    EXPLICIT,
+
+    /** The value of the entry was replaced by a write of its key or by a refresh. */
+    REPLACED,
+
+    /** The entry was removed because it had expired. */
+    EXPIRED,
+
+    /** The entry was evicted by the page replacement policy because the map exceeded its capacity. */
+    SIZE
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap;
+
+import java.util.List;
+
+/**
+ * A listener which is notified of the entries removed from the {@link ConcurrentLinkedHashMap}.
+ * The notifications are queued by the map and delivered in batches on its notification executor,
+ * so that the listener never runs on the threads which operate on the map.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+public interface RemovalListener<K, V> {
+
+    /**
+     * Handles a batch of removed entries, in the order in which they were queued. The batches are
+     * delivered one at a time.
+     *
+     * @param notifications the removed entries
+     */
+    void onRemoval(List<RemovalNotification<K, V>> notifications);
+}
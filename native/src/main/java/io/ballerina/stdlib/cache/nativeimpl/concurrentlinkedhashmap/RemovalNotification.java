@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap;
+
+/**
+ * An entry which was removed from the {@link ConcurrentLinkedHashMap}, along with the cause of its
+ * removal.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+public final class RemovalNotification<K, V> {
+
+    private final K key;
+    private final V value;
+    private final long expireAfterNanos;
+    private final RemovalCause cause;
+
+    RemovalNotification(K key, V value, long expireAfterNanos, RemovalCause cause) {
+        this.key = key;
+        this.value = value;
+        this.expireAfterNanos = expireAfterNanos;
+        this.cause = cause;
+    }
+
+    /** Returns the key of the removed entry. */
+    public K key() {
+        return key;
+    }
+
+    /** Returns the value of the removed entry, which is the old value if the value was replaced. */
+    public V value() {
+        return value;
+    }
+
+    /**
+     * Returns the time which was remaining until the entry would have expired when it was removed, which is zero if
+     * it had expired, or a negative value if it never expires.
+     */
+    public long expireAfterNanos() {
+        return expireAfterNanos;
+    }
+
+    /** Returns the cause of the removal. */
+    public RemovalCause cause() {
+        return cause;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap;
+
+/**
+ * Accumulates the statistics of the operations performed on a {@link ConcurrentLinkedHashMap}.
+ * The recording methods are invoked on the read and write paths of the map, so an implementation
+ * must be thread-safe and cheap.
+ */
+public interface StatsCounter {
+
+    /**
+     * Records the reads of entries that were present in the map.
+     *
+     * @param count the number of hits
+     */
+    void recordHits(int count);
+
+    /**
+     * Records the reads of entries that were absent from, or had expired in, the map.
+     *
+     * @param count the number of misses
+     */
+    void recordMisses(int count);
+
+    /** Records the removal of an entry because it had expired. */
+    void recordExpiration();
+
+    /** Records the eviction of an entry by the page replacement policy. */
+    void recordEviction();
+
+    /**
+     * Records the successful load of a value.
+     *
+     * @param loadTime the time, in nanoseconds, that was spent on loading the value
+     */
+    void recordLoadSuccess(long loadTime);
+
+    /**
+     * Records the failure to load a value.
+     *
+     * @param loadTime the time, in nanoseconds, that was spent on the failed load
+     */
+    void recordLoadFailure(long loadTime);
+
+    /**
+     * Returns a snapshot of the statistics recorded so far.
+     *
+     * @return the recorded statistics
+     */
+    CacheStats snapshot();
+
+    /**
+     * Returns a counter which does not record any statistics.
+     *
+     * @return the disabled counter
+     */
+    static StatsCounter disabled() {
+        return DisabledStatsCounter.INSTANCE;
+    }
+}
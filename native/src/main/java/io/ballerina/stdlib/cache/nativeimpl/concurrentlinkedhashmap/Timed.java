@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap;
+
+/**
+ * An element that has an expiration time and is linked on a bucket of the {@link TimerWheel}.
+ *
+ * @param <T> the type of elements held in the timer wheel
+ */
+interface Timed<T extends Timed<T>> {
+
+    /** Retrieves the time, in nanoseconds, at which the element expires. */
+    long getExpirationTime();
+
+    /**
+     * Retrieves the previous element in the timer wheel's bucket or <tt>null</tt> if the element is
+     * not scheduled.
+     */
+    T getPreviousInTimerOrder();
+
+    /** Sets the previous element in the timer wheel's bucket or <tt>null</tt> if there is no link. */
+    void setPreviousInTimerOrder(T prev);
+
+    /**
+     * Retrieves the next element in the timer wheel's bucket or <tt>null</tt> if the element is not
+     * scheduled.
+     */
+    T getNextInTimerOrder();
+
+    /** Sets the next element in the timer wheel's bucket or <tt>null</tt> if there is no link. */
+    void setNextInTimerOrder(T next);
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A hierarchical timer wheel to add, remove, and fire expiration events in amortized O(1) time.
+ * The expiration events are deferred until the timer is advanced, which is performed as part of
+ * the map's maintenance routine.
+ * <p>
+ * Each wheel is an array of buckets that span a power of two duration, so that the bucket of an
+ * element is found by shifting its expiration time. The coarser wheels hold the elements that
+ * expire further in the future, which are cascaded down to the finer wheels as time advances. A
+ * bucket is a circular doubly-linked list with a sentinel, so that an element can be unlinked
+ * without knowing the bucket that it is on. The timer wheel is not thread-safe and is only
+ * accessed while holding the eviction lock.
+ *
+ * @see <a href="http://www.cs.columbia.edu/~nahum/w6998/papers/ton97-timing-wheels.pdf">
+ *         Hashed and Hierarchical Timing Wheels</a>
+ *
+ * @param <E> the type of elements held in the timer wheel
+ */
+final class TimerWheel<E extends Timed<E>> {
+
+    static final int[] BUCKETS = {64, 64, 32, 4, 1};
+    static final long[] SPANS = {
+            ConcurrentLinkedHashMap.ceilingNextPowerOfTwo(TimeUnit.SECONDS.toNanos(1)), // 1.07s
+            ConcurrentLinkedHashMap.ceilingNextPowerOfTwo(TimeUnit.MINUTES.toNanos(1)), // 1.14m
+            ConcurrentLinkedHashMap.ceilingNextPowerOfTwo(TimeUnit.HOURS.toNanos(1)), // 1.22h
+            ConcurrentLinkedHashMap.ceilingNextPowerOfTwo(TimeUnit.DAYS.toNanos(1)), // 1.63d
+            BUCKETS[3] * ConcurrentLinkedHashMap.ceilingNextPowerOfTwo(TimeUnit.DAYS.toNanos(1)), // 6.5d
+            BUCKETS[3] * ConcurrentLinkedHashMap.ceilingNextPowerOfTwo(TimeUnit.DAYS.toNanos(1)), // 6.5d
+    };
+    static final long[] SHIFT = {
+            Long.numberOfTrailingZeros(SPANS[0]),
+            Long.numberOfTrailingZeros(SPANS[1]),
+            Long.numberOfTrailingZeros(SPANS[2]),
+            Long.numberOfTrailingZeros(SPANS[3]),
+            Long.numberOfTrailingZeros(SPANS[4]),
+    };
+
+    final Object[][] wheel;
+    long nanos;
+    // The number of the elements which the current advance may still visit
+    private int remainingVisits;
+
+    /**
+     * Creates a timer wheel whose buckets are headed by the sentinels of the given factory.
+     *
+     * @param sentinelFactory creates an element that only links a bucket and is never expired
+     */
+    TimerWheel(Supplier<E> sentinelFactory) {
+        wheel = new Object[BUCKETS.length][];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new Object[BUCKETS[i]];
+            for (int j = 0; j < wheel[i].length; j++) {
+                E sentinel = sentinelFactory.get();
+                sentinel.setPreviousInTimerOrder(sentinel);
+                sentinel.setNextInTimerOrder(sentinel);
+                wheel[i][j] = sentinel;
+            }
+        }
+    }
+
+    /**
+     * Advances the timer and evicts the elements that have expired, visiting at most the given
+     * number of elements. If the elements to be visited exceed the limit, the timer is left at its
+     * previous time with the unvisited elements at the heads of their buckets, so that the next
+     * advance resumes from them.
+     *
+     * @param currentTimeNanos the current time, in nanoseconds
+     * @param evictor the action that evicts an expired element
+     * @param maxVisits the maximum number of elements that are expired or cascaded
+     * @return whether the timer was advanced to the current time
+     */
+    boolean advance(long currentTimeNanos, Consumer<E> evictor, int maxVisits) {
+        long previousTimeNanos = nanos;
+        nanos = currentTimeNanos;
+        remainingVisits = maxVisits;
+        for (int i = 0; i < SHIFT.length; i++) {
+            long previousTicks = (previousTimeNanos >>> SHIFT[i]);
+            long currentTicks = (currentTimeNanos >>> SHIFT[i]);
+            if ((currentTicks - previousTicks) <= 0L) {
+                break;
+            }
+            if (!expire(i, previousTicks, currentTicks - previousTicks, evictor)) {
+                nanos = previousTimeNanos;
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Expires the elements of the buckets that the timer has passed, or cascades them down to a
+     * finer wheel if they have not expired yet.
+     *
+     * @param index the wheel being operated on
+     * @param previousTicks the previous number of ticks
+     * @param delta the number of ticks that the wheel advanced
+     * @param evictor the action that evicts an expired element
+     * @return whether all the elements of the buckets were visited
+     */
+    @SuppressWarnings("unchecked")
+    private boolean expire(int index, long previousTicks, long delta, Consumer<E> evictor) {
+        Object[] timerWheel = wheel[index];
+        int mask = timerWheel.length - 1;
+        int steps = (int) Math.min(1 + delta, timerWheel.length);
+        int start = (int) (previousTicks & mask);
+        int end = start + steps;
+        for (int i = start; i < end; i++) {
+            E sentinel = (E) timerWheel[i & mask];
+            E node = sentinel.getNextInTimerOrder();
+            E last = sentinel.getPreviousInTimerOrder();
+            sentinel.setPreviousInTimerOrder(sentinel);
+            sentinel.setNextInTimerOrder(sentinel);
+            while (node != sentinel) {
+                if (remainingVisits == 0) {
+                    // The unvisited elements are put ahead of the ones which were rescheduled to the
+                    // bucket, so that they are visited first
+                    linkFirst(sentinel, node, last);
+                    return false;
+                }
+                remainingVisits--;
+                E next = node.getNextInTimerOrder();
+                node.setPreviousInTimerOrder(null);
+                node.setNextInTimerOrder(null);
+                if ((node.getExpirationTime() - nanos) > 0) {
+                    schedule(node);
+                } else {
+                    evictor.accept(node);
+                }
+                node = next;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Schedules a timer event for the element.
+     *
+     * @param node the entry in the cache
+     */
+    void schedule(E node) {
+        E sentinel = findBucket(node.getExpirationTime());
+        link(sentinel, node);
+    }
+
+    /**
+     * Reschedules an active timer event for the element, or schedules it if it is not active.
+     *
+     * @param node the entry in the cache
+     */
+    void reschedule(E node) {
+        unlink(node);
+        schedule(node);
+    }
+
+    /**
+     * Removes the timer event for the element if present.
+     *
+     * @param node the entry in the cache
+     */
+    void deschedule(E node) {
+        unlink(node);
+    }
+
+    /**
+     * Determines the bucket that the timer event should be added to.
+     *
+     * @param time the time when the event fires
+     * @return the sentinel at the head of the bucket
+     */
+    @SuppressWarnings("unchecked")
+    private E findBucket(long time) {
+        long duration = time - nanos;
+        int length = wheel.length - 1;
+        for (int i = 0; i < length; i++) {
+            if (duration < SPANS[i + 1]) {
+                // An element that has already expired is added to the current bucket, so that it is
+                // evicted by the next advance instead of after a full rotation of the wheel
+                long ticks = (Math.max(time, nanos) >>> SHIFT[i]);
+                int index = (int) (ticks & (wheel[i].length - 1));
+                return (E) wheel[i][index];
+            }
+        }
+        return (E) wheel[length][0];
+    }
+
+    /** Adds the element at the tail of the bucket's list. */
+    private void link(E sentinel, E node) {
+        node.setPreviousInTimerOrder(sentinel.getPreviousInTimerOrder());
+        node.setNextInTimerOrder(sentinel);
+
+        sentinel.getPreviousInTimerOrder().setNextInTimerOrder(node);
+        sentinel.setPreviousInTimerOrder(node);
+    }
+
+    /** Adds the chain of elements from the first to the last at the head of the bucket's list. */
+    private void linkFirst(E sentinel, E first, E last) {
+        E head = sentinel.getNextInTimerOrder();
+        first.setPreviousInTimerOrder(sentinel);
+        last.setNextInTimerOrder(head);
+        head.setPreviousInTimerOrder(last);
+        sentinel.setNextInTimerOrder(first);
+    }
+
+    /** Removes the element from its bucket, if it is scheduled. */
+    private void unlink(E node) {
+        E next = node.getNextInTimerOrder();
+        if (next != null) {
+            E prev = node.getPreviousInTimerOrder();
+            next.setPreviousInTimerOrder(prev);
+            prev.setNextInTimerOrder(next);
+            node.setNextInTimerOrder(null);
+            node.setPreviousInTimerOrder(null);
+        }
+    }
+}
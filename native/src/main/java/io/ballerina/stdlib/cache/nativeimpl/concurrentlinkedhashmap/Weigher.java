@@ -23,7 +23,7 @@ package io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap;
  *
  * @param <V> the type of values to weigh
  */
-interface Weigher<V> {
+public interface Weigher<V> {
 
     /**
      * Measures an object's weight to determine how many units of capacity that the value
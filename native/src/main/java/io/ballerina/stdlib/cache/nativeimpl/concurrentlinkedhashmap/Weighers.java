@@ -21,7 +21,7 @@ package io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap;
  * A common set of {@link Weigher} implementations.
  *
  */
-final class Weighers {
+public final class Weighers {
 
     private Weighers() {}
 
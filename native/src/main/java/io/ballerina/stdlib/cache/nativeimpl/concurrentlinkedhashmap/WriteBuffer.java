@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * A bounded, array-based buffer that records the write operations so that they can be applied to
+ * the page replacement policy in batches. It has multiple producers and a single consumer, and
+ * keeps the elements in the order in which the producers claimed their slots.
+ * <p>
+ * Unlike the {@link ReadBuffer}, the buffer is not lossy, so an element is rejected when the buffer
+ * is full and the producer is expected to drain it before offering the element again. This bounds
+ * the number of pending writes, and with it the memory of the buffer and how far the page
+ * replacement policy can fall behind the map.
+ *
+ * @param <E> the type of elements being buffered
+ */
+final class WriteBuffer<E> {
+
+    private final int mask;
+    private final AtomicLong readCounter = new AtomicLong();
+    private final AtomicLong writeCounter = new AtomicLong();
+    private final AtomicReferenceArray<E> buffer;
+
+    /**
+     * Creates a buffer of the given capacity.
+     *
+     * @param capacity the maximum number of elements, which must be a power of two
+     */
+    WriteBuffer(int capacity) {
+        mask = capacity - 1;
+        buffer = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Records the element, unless the buffer is full. A producer which loses the race for a slot
+     * retries with the next one.
+     *
+     * @param e the element to record
+     * @return if the element was recorded
+     */
+    boolean offer(E e) {
+        while (true) {
+            long head = readCounter.get();
+            long tail = writeCounter.get();
+            if ((tail - head) > mask) {
+                return false;
+            }
+            if (writeCounter.compareAndSet(tail, tail + 1)) {
+                buffer.lazySet((int) (tail & mask), e);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Drains the recorded elements in the order of their slots. The drain stops at a slot which was
+     * claimed but is not yet published, which is left for the next drain. Only a single thread may
+     * drain at a time.
+     *
+     * @param consumer the action to perform on each element
+     * @param maxToDrain the maximum number of elements to drain
+     * @return the number of elements drained
+     */
+    int drainTo(Consumer<E> consumer, int maxToDrain) {
+        long head = readCounter.get();
+        long tail = Math.min(writeCounter.get(), head + maxToDrain);
+        int drained = 0;
+        while (head != tail) {
+            int index = (int) (head & mask);
+            E e = buffer.get(index);
+            if (e == null) {
+                break;
+            }
+            // The slot is cleared before the read counter is advanced, so that a producer which
+            // observes the counter finds the slot free
+            buffer.lazySet(index, null);
+            readCounter.lazySet(++head);
+            consumer.accept(e);
+            drained++;
+        }
+        return drained;
+    }
+
+    /** Returns if there are elements which are claimed and not yet drained. */
+    boolean isEmpty() {
+        return readCounter.get() == writeCounter.get();
+    }
+
+    /** Returns the maximum number of elements. */
+    int capacity() {
+        return mask + 1;
+    }
+}
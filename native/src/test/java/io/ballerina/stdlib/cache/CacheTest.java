@@ -18,11 +18,48 @@
 
 package io.ballerina.stdlib.cache;
 
+import io.ballerina.stdlib.cache.nativeimpl.CacheSegments;
+import io.ballerina.stdlib.cache.nativeimpl.CacheSnapshot;
+import io.ballerina.stdlib.cache.nativeimpl.DiskStore;
+import io.ballerina.stdlib.cache.nativeimpl.IntCacheMap;
+import io.ballerina.stdlib.cache.nativeimpl.KeyIndex;
+import io.ballerina.stdlib.cache.nativeimpl.MaintenanceScheduler;
+import io.ballerina.stdlib.cache.nativeimpl.OffHeapStore;
+import io.ballerina.stdlib.cache.nativeimpl.WriteBehindWriter;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.CacheStats;
 import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.ConcurrentStatsCounter;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.EvictionPolicy;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.RemovalListener;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.StatsCounter;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.Weighers;
 import org.testng.Assert;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
 /**
  * Test native functions for concurrent linked hash map call.
  */
@@ -70,4 +107,920 @@ public class CacheTest {
     public void negativeTestContainValue() {
         Assert.assertFalse(cacheMap.containsValue("value1"));
     }
+
+    @Test()
+    public void testTinyLfuRetainsFrequentlyUsedEntry() {
+        ConcurrentLinkedHashMap<String, String> tinyLfuMap = new ConcurrentLinkedHashMap<>(10,
+                EvictionPolicy.TINY_LFU);
+        for (int i = 0; i < 10; i++) {
+            tinyLfuMap.put("key" + i, "value" + i);
+        }
+        for (int i = 0; i < 3; i++) {
+            tinyLfuMap.get("key0");
+        }
+        for (int i = 0; i < 20; i++) {
+            tinyLfuMap.setCapacity(9);
+            tinyLfuMap.setCapacity(10);
+            tinyLfuMap.put("scan" + i, "value");
+        }
+        Assert.assertTrue(tinyLfuMap.containsKey("key0"));
+        Assert.assertEquals(tinyLfuMap.size(), 10);
+    }
+
+    @Test()
+    public void testConcurrentReadsRetainRecency() throws InterruptedException {
+        ConcurrentLinkedHashMap<String, String> lruMap = new ConcurrentLinkedHashMap<>(10);
+        for (int i = 0; i < 10; i++) {
+            lruMap.put("key" + i, "value" + i);
+        }
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread reader = new Thread(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    Assert.assertEquals(lruMap.get("key0"), "value0");
+                }
+            });
+            readers.add(reader);
+            reader.start();
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        lruMap.setCapacity(9);
+        lruMap.setCapacity(10);
+        Assert.assertTrue(lruMap.containsKey("key0"));
+        Assert.assertFalse(lruMap.containsKey("key1"));
+    }
+
+    @Test()
+    public void testExpiredEntriesRemovedOnCleanUp() throws InterruptedException {
+        ConcurrentLinkedHashMap<String, String> expiringMap = new ConcurrentLinkedHashMap<>(10);
+        expiringMap.put("short", "value", TimeUnit.MILLISECONDS.toNanos(200));
+        expiringMap.put("long", "value", TimeUnit.HOURS.toNanos(1));
+        expiringMap.put("eternal", "value");
+        Thread.sleep(1500);
+        Assert.assertFalse(expiringMap.containsKey("short"));
+        Assert.assertEquals(expiringMap.size(), 3);
+        expiringMap.cleanUp();
+        Assert.assertEquals(expiringMap.size(), 2);
+        Assert.assertEquals(expiringMap.get("long"), "value");
+        Assert.assertEquals(expiringMap.get("eternal"), "value");
+    }
+
+    @Test()
+    public void testExpirationsAreBatched() throws InterruptedException {
+        // The map expires at most 1024 entries in a cleanup
+        int batch = 1024;
+        int count = 3 * batch;
+        ConcurrentLinkedHashMap<Integer, String> expiringMap = new ConcurrentLinkedHashMap<>(2 * count);
+        for (int i = 0; i < count; i++) {
+            expiringMap.put(i, "value", TimeUnit.MILLISECONDS.toNanos(200));
+        }
+        expiringMap.put(-1, "value");
+        Thread.sleep(1500);
+        Assert.assertFalse(expiringMap.tryCleanUp());
+        Assert.assertTrue(expiringMap.size() >= count + 1 - batch);
+        int cleanUps = 2;
+        while (!expiringMap.tryCleanUp()) {
+            cleanUps++;
+        }
+        Assert.assertTrue(cleanUps >= 3);
+        Assert.assertEquals(expiringMap.size(), 1);
+        Assert.assertEquals(expiringMap.get(-1), "value");
+    }
+
+    @Test()
+    public void testMaintenanceScheduler() throws InterruptedException {
+        AtomicLong ticker = new AtomicLong();
+        MaintenanceScheduler scheduler = new MaintenanceScheduler(ticker::get, 0);
+        ConcurrentLinkedHashMap<String, String> firstMap = new ConcurrentLinkedHashMap<>(10);
+        ConcurrentLinkedHashMap<String, String> secondMap = new ConcurrentLinkedHashMap<>(10);
+        firstMap.put("key", "value", TimeUnit.MILLISECONDS.toNanos(200));
+        secondMap.put("key", "value", TimeUnit.MILLISECONDS.toNanos(200));
+        Thread.sleep(1500);
+        scheduler.register(firstMap, 10);
+        scheduler.register(secondMap, 20);
+        scheduler.register(new ConcurrentLinkedHashMap<String, String>(10), 30);
+        Assert.assertEquals(scheduler.registeredCount(), 3);
+
+        ticker.set(5);
+        Assert.assertEquals(scheduler.tick(), 0);
+        Assert.assertEquals(firstMap.size(), 1);
+
+        // The time slice runs out after the first cache, and the others which are due are cleaned up in the next
+        // ticks
+        ticker.set(20);
+        Assert.assertEquals(scheduler.tick(), 1);
+        Assert.assertEquals(scheduler.tick(), 1);
+        Assert.assertEquals(firstMap.size() + secondMap.size(), 0);
+
+        for (int i = 0; i < 50 && scheduler.registeredCount() > 2; i++) {
+            System.gc();
+            ticker.addAndGet(20);
+            scheduler.tick();
+            scheduler.tick();
+        }
+        Assert.assertEquals(scheduler.registeredCount(), 2);
+        Assert.assertTrue(firstMap.isEmpty() && secondMap.isEmpty());
+    }
+
+    @Test()
+    public void testMaintenanceSchedulerContainsFailures() throws InterruptedException {
+        AtomicLong ticker = new AtomicLong();
+        MaintenanceScheduler scheduler = new MaintenanceScheduler(ticker::get, Long.MAX_VALUE);
+        ConcurrentLinkedHashMap<String, String> cacheMap = new ConcurrentLinkedHashMap<>(10);
+        cacheMap.put("key", "value", TimeUnit.MILLISECONDS.toNanos(100));
+        Thread.sleep(1500);
+
+        // A cache is registered while a tick holds the scheduler
+        CountDownLatch ticking = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread tickThread = new Thread(() -> {
+            synchronized (scheduler) {
+                ticking.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        tickThread.start();
+        ticking.await();
+        Thread registerThread = new Thread(() -> {
+            scheduler.register(new Object(), target -> {
+                throw new IllegalStateException("failed");
+            }, 10);
+            scheduler.register(cacheMap, 10);
+        });
+        registerThread.start();
+        registerThread.join(5000);
+        Assert.assertFalse(registerThread.isAlive());
+        release.countDown();
+        tickThread.join();
+
+        // The failure of the maintenance of a cache is reported, and the other caches are still maintained
+        List<Throwable> failures = new ArrayList<>();
+        Thread.UncaughtExceptionHandler handler = Thread.currentThread().getUncaughtExceptionHandler();
+        Thread.currentThread().setUncaughtExceptionHandler((thread, e) -> failures.add(e));
+        try {
+            ticker.set(10);
+            Assert.assertEquals(scheduler.tick(), 2);
+        } finally {
+            Thread.currentThread().setUncaughtExceptionHandler(handler);
+        }
+        Assert.assertEquals(failures.size(), 1);
+        Assert.assertEquals(failures.get(0).getMessage(), "failed");
+        Assert.assertTrue(cacheMap.isEmpty());
+        Assert.assertEquals(scheduler.tick(), 0);
+    }
+
+    @Test()
+    public void testRemovalListenerWithoutNotificationExecutor() {
+        // The listener of a map created without a notification executor is notified by the removals themselves
+        ConcurrentLinkedHashMap<String, String> listenedMap = new ConcurrentLinkedHashMap<>(10);
+        List<String> removedKeys = new ArrayList<>();
+        listenedMap.addRemovalListener(notifications -> notifications.forEach(
+                notification -> removedKeys.add(notification.key())));
+        listenedMap.put("key", "value", -1);
+        listenedMap.remove("key");
+        Assert.assertEquals(removedKeys, List.of("key"));
+    }
+
+    @Test()
+    public void testUpdateReplacesValueAndExpiry() throws InterruptedException {
+        ConcurrentLinkedHashMap<String, String> expiringMap = new ConcurrentLinkedHashMap<>(10);
+        expiringMap.put("key", "value1", TimeUnit.MILLISECONDS.toNanos(200));
+        Assert.assertEquals(expiringMap.put("key", "value2", TimeUnit.HOURS.toNanos(1)), "value1");
+        Thread.sleep(500);
+        expiringMap.cleanUp();
+        Assert.assertEquals(expiringMap.get("key"), "value2");
+        Assert.assertEquals(expiringMap.size(), 1);
+    }
+
+    @Test()
+    public void testComputeIfAbsentLoadsOncePerKey() throws InterruptedException {
+        ConcurrentLinkedHashMap<String, String> loadingMap = new ConcurrentLinkedHashMap<>(10);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                String value = loadingMap.computeIfAbsent("key", k -> {
+                    loads.incrementAndGet();
+                    try {
+                        Thread.sleep(100);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "loaded";
+                });
+                synchronized (values) {
+                    values.add(value);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertEquals(loads.get(), 1);
+        Assert.assertEquals(values.size(), 8);
+        Assert.assertTrue(values.stream().allMatch("loaded"::equals));
+        Assert.assertEquals(loadingMap.size(), 1);
+    }
+
+    @Test()
+    public void testComputeIfAbsentReplacesExpiredEntry() throws InterruptedException {
+        ConcurrentLinkedHashMap<String, String> loadingMap = new ConcurrentLinkedHashMap<>(10);
+        loadingMap.put("key", "stale", TimeUnit.MILLISECONDS.toNanos(100));
+        Assert.assertEquals(loadingMap.computeIfAbsent("key", k -> "fresh"), "stale");
+        Thread.sleep(300);
+        Assert.assertEquals(loadingMap.computeIfAbsent("key", k -> "fresh"), "fresh");
+        Assert.assertNull(loadingMap.computeIfAbsent("missing", k -> null));
+        loadingMap.cleanUp();
+        Assert.assertEquals(loadingMap.size(), 1);
+        Assert.assertEquals(loadingMap.get("key"), "fresh");
+    }
+
+    @Test()
+    public void testComputeIfAbsentLoaderReentersTheMap() {
+        ConcurrentLinkedHashMap<String, String> loadingMap = new ConcurrentLinkedHashMap<>(10);
+        // The loader loads and updates the other keys of the map, which may share the bin of the loaded key
+        String value = loadingMap.computeIfAbsent("key", k -> {
+            loadingMap.put("other", "put");
+            return loadingMap.computeIfAbsent("dependency", d -> "loaded") + "+" + loadingMap.get("other");
+        });
+        Assert.assertEquals(value, "loaded+put");
+        Assert.assertEquals(loadingMap.get("key"), "loaded+put");
+        Assert.assertEquals(loadingMap.size(), 3);
+        // A value which is put while the key is being loaded is kept instead of the loaded value
+        Assert.assertEquals(loadingMap.computeIfAbsent("raced", k -> {
+            loadingMap.put(k, "put");
+            return "loaded";
+        }), "put");
+        try {
+            loadingMap.computeIfAbsent("recursive", k -> loadingMap.computeIfAbsent(k, r -> "loaded"));
+            Assert.fail("A recursive load of the same key should fail");
+        } catch (IllegalStateException e) {
+            Assert.assertFalse(loadingMap.containsKey("recursive"));
+        }
+        Assert.assertEquals(loadingMap.computeIfAbsent("recursive", k -> "loaded"), "loaded");
+    }
+
+    @Test()
+    public void testRefreshIsClaimedOnceAndKeepsNewerWrites() throws InterruptedException {
+        ConcurrentLinkedHashMap<String, String> refreshingMap = new ConcurrentLinkedHashMap<>(10);
+        refreshingMap.put("key", "value1");
+        Assert.assertFalse(refreshingMap.tryStartRefresh("key", TimeUnit.MILLISECONDS.toNanos(100)));
+        Thread.sleep(200);
+        Assert.assertTrue(refreshingMap.tryStartRefresh("key", TimeUnit.MILLISECONDS.toNanos(100)));
+        Assert.assertFalse(refreshingMap.tryStartRefresh("key", TimeUnit.MILLISECONDS.toNanos(100)));
+        Assert.assertTrue(refreshingMap.completeRefresh("key", "value2", -1));
+        Assert.assertEquals(refreshingMap.get("key"), "value2");
+
+        Thread.sleep(200);
+        Assert.assertTrue(refreshingMap.tryStartRefresh("key", TimeUnit.MILLISECONDS.toNanos(100)));
+        refreshingMap.put("key", "value3");
+        Assert.assertFalse(refreshingMap.completeRefresh("key", "value4", -1));
+        Assert.assertEquals(refreshingMap.get("key"), "value3");
+    }
+
+    @Test()
+    public void testBulkOperations() {
+        ConcurrentLinkedHashMap<String, String> bulkMap = new ConcurrentLinkedHashMap<>(10);
+        Map<String, String> entries = new LinkedHashMap<>();
+        for (int i = 0; i < 15; i++) {
+            entries.put("key" + i, "value" + i);
+        }
+        bulkMap.putAll(entries);
+        Assert.assertEquals(bulkMap.size(), 15);
+
+        Map<String, String> values = bulkMap.getAll(Arrays.asList("key14", "key13", "missing"));
+        Assert.assertEquals(values.size(), 2);
+        Assert.assertEquals(values.get("key14"), "value14");
+        Assert.assertEquals(values.get("key13"), "value13");
+
+        bulkMap.removeAll(Arrays.asList("key14", "key13", "missing"));
+        Assert.assertEquals(bulkMap.size(), 13);
+        Assert.assertFalse(bulkMap.containsKey("key14"));
+    }
+
+    @Test()
+    public void testWeightedCapacity() {
+        ConcurrentLinkedHashMap<String, String> weightedMap = new ConcurrentLinkedHashMap<>(100, EvictionPolicy.LRU,
+                String::length, StatsCounter.disabled());
+        weightedMap.put("a", "a".repeat(30));
+        weightedMap.put("b", "b".repeat(30));
+        weightedMap.put("c", "c".repeat(30));
+        Assert.assertEquals(weightedMap.weightedSize(), 90);
+
+        weightedMap.put("a", "a".repeat(50));
+        Assert.assertEquals(weightedMap.weightedSize(), 110);
+        Assert.assertEquals(weightedMap.size(), 3);
+
+        weightedMap.setCapacity(weightedMap.capacity());
+        Assert.assertEquals(weightedMap.weightedSize(), 80);
+        Assert.assertFalse(weightedMap.containsKey("b"));
+        Assert.assertTrue(weightedMap.containsKey("a"));
+        Assert.assertTrue(weightedMap.containsKey("c"));
+    }
+
+    @Test()
+    public void testBatchEviction() {
+        ConcurrentLinkedHashMap<String, String> batchMap = new ConcurrentLinkedHashMap<>(10, EvictionPolicy.LRU,
+                new ConcurrentStatsCounter());
+        for (int i = 0; i < 10; i++) {
+            batchMap.put("key" + i, "value" + i);
+        }
+        batchMap.evictIfExceeds(9, 7);
+        Assert.assertEquals(batchMap.size(), 7);
+        Assert.assertEquals(batchMap.weightedSize(), 7);
+        Assert.assertEquals(batchMap.stats().evictionCount(), 3L);
+        Assert.assertFalse(batchMap.containsKey("key2"));
+        Assert.assertTrue(batchMap.containsKey("key3"));
+
+        batchMap.evictIfExceeds(9, 5);
+        Assert.assertEquals(batchMap.size(), 7);
+        Assert.assertEquals(batchMap.capacity(), 10);
+    }
+
+    @Test()
+    public void testAsyncMaintenance() {
+        Queue<Runnable> maintenanceTasks = new ConcurrentLinkedQueue<>();
+        ConcurrentLinkedHashMap<String, String> asyncMap = new ConcurrentLinkedHashMap<>(10, EvictionPolicy.LRU,
+                Weighers.singleton(), StatsCounter.disabled(), maintenanceTasks::add);
+        for (int i = 0; i < 12; i++) {
+            asyncMap.put("key" + i, "value" + i);
+        }
+        Assert.assertEquals(asyncMap.size(), 12);
+        Assert.assertEquals(asyncMap.weightedSize(), 0);
+        Assert.assertEquals(maintenanceTasks.size(), 1);
+
+        maintenanceTasks.poll().run();
+        Assert.assertEquals(asyncMap.weightedSize(), 10);
+        Assert.assertFalse(asyncMap.containsKey("key1"));
+        Assert.assertTrue(asyncMap.containsKey("key2"));
+
+        asyncMap.evictIfExceeds(9, 8);
+        asyncMap.put("key12", "value12");
+        Assert.assertEquals(asyncMap.size(), 11);
+        maintenanceTasks.poll().run();
+        Assert.assertTrue(maintenanceTasks.isEmpty());
+        Assert.assertEquals(asyncMap.size(), 8);
+        Assert.assertTrue(asyncMap.containsKey("key12"));
+    }
+
+    @Test()
+    public void testRemovalListener() throws InterruptedException {
+        Queue<Runnable> notificationTasks = new ConcurrentLinkedQueue<>();
+        List<String> notifications = new ArrayList<>();
+        RemovalListener<String, String> listener = batch -> batch.forEach(notification ->
+                notifications.add(notification.key() + "=" + notification.value() + ":" + notification.cause()));
+        ConcurrentLinkedHashMap<String, String> notifyingMap = new ConcurrentLinkedHashMap<>(2, EvictionPolicy.LRU,
+                Weighers.singleton(), StatsCounter.disabled(), null, listener, notificationTasks::add);
+        notifyingMap.put("a", "1");
+        notifyingMap.put("b", "2");
+        notifyingMap.put("a", "3");
+        notifyingMap.remove("b");
+        notifyingMap.put("c", "4");
+        notifyingMap.put("d", "5");
+        notifyingMap.evictIfExceeds(2, 2);
+        notifyingMap.put("e", "6", 1);
+        Thread.sleep(1);
+        Assert.assertNull(notifyingMap.get("e"));
+        // The notifications are delivered by a single pending task, off the threads which removed the entries
+        Assert.assertTrue(notifications.isEmpty());
+        Assert.assertEquals(notificationTasks.size(), 1);
+
+        notificationTasks.poll().run();
+        Assert.assertEquals(notifications, Arrays.asList("a=1:REPLACED", "b=2:EXPLICIT", "a=3:SIZE", "e=6:EXPIRED"));
+
+        notifications.clear();
+        notifyingMap.clear();
+        notificationTasks.poll().run();
+        Assert.assertTrue(notificationTasks.isEmpty());
+        Assert.assertEquals(notifications.size(), 2);
+        Assert.assertTrue(notifications.containsAll(Arrays.asList("c=4:EXPLICIT", "d=5:EXPLICIT")));
+    }
+
+    @Test()
+    public void testWriteBehindWriter() {
+        Queue<Runnable> flushTasks = new ConcurrentLinkedQueue<>();
+        List<Map<String, Integer>> batches = new ArrayList<>();
+        AtomicBoolean failing = new AtomicBoolean(true);
+        WriteBehindWriter<String, Integer> writer = new WriteBehindWriter<>(3, batch -> {
+            if (failing.get()) {
+                return false;
+            }
+            batches.add(batch);
+            return true;
+        }, flushTasks::add);
+        writer.write("a", 1);
+        writer.write("b", 1);
+        writer.write("a", 2);
+        // The repeated write of a key is coalesced, so a flush is not triggered until three keys are dirty
+        Assert.assertTrue(flushTasks.isEmpty());
+        writer.write("c", 1);
+        writer.write("d", 1);
+        Assert.assertEquals(flushTasks.size(), 1);
+
+        // A batch which fails to be written stays dirty
+        flushTasks.poll().run();
+        Assert.assertTrue(batches.isEmpty());
+        Assert.assertEquals(writer.dirtyCount(), 4);
+
+        failing.set(false);
+        writer.scheduleFlush();
+        flushTasks.poll().run();
+        Assert.assertTrue(flushTasks.isEmpty());
+        Assert.assertEquals(batches.size(), 2);
+        Assert.assertEquals(batches.get(0).size(), 3);
+        Assert.assertEquals(batches.get(1).size(), 1);
+        Map<String, Integer> written = new LinkedHashMap<>();
+        batches.forEach(written::putAll);
+        Assert.assertEquals(written.get("a"), Integer.valueOf(2));
+        Assert.assertEquals(written.size(), 4);
+        Assert.assertEquals(writer.dirtyCount(), 0);
+        Assert.assertFalse(writer.isDirty("a"));
+
+        writer.scheduleFlush();
+        Assert.assertTrue(flushTasks.isEmpty());
+
+        // The dirty values of the removed keys are discarded without being written
+        writer.write("e", 1);
+        writer.write("f", 1);
+        writer.discard("e");
+        Assert.assertFalse(writer.isDirty("e"));
+        writer.write("g", 1);
+        writer.clear();
+        Assert.assertEquals(writer.dirtyCount(), 0);
+        writer.scheduleFlush();
+        Assert.assertTrue(flushTasks.isEmpty());
+        Assert.assertEquals(batches.size(), 2);
+    }
+
+    @Test()
+    public void testOffHeapStore() {
+        OffHeapStore store = new OffHeapStore();
+        byte[] value = "Ballerina".getBytes(StandardCharsets.UTF_8);
+        OffHeapStore.Address address = store.allocate(value);
+        Assert.assertEquals(address.length(), value.length);
+        Assert.assertTrue(Arrays.equals(store.read(address), value));
+
+        // A freed chunk is reused by the next value of its size, and the stale address no longer reads it
+        store.free(address);
+        Assert.assertNull(store.read(address));
+        byte[] otherValue = "Cache".getBytes(StandardCharsets.UTF_8);
+        OffHeapStore.Address otherAddress = store.allocate(otherValue);
+        Assert.assertNull(store.read(address));
+        store.free(address);
+        Assert.assertTrue(Arrays.equals(store.read(otherAddress), otherValue));
+
+        byte[] largeValue = new byte[OffHeapStore.maxValueLength()];
+        Arrays.fill(largeValue, (byte) 1);
+        OffHeapStore.Address largeAddress = store.allocate(largeValue);
+        Assert.assertTrue(Arrays.equals(store.read(largeAddress), largeValue));
+        Assert.assertEquals(store.allocatedBytes(), 2L << 20);
+    }
+
+    @Test()
+    public void testOffHeapStoreIsBounded() {
+        OffHeapStore store = new OffHeapStore(2L << 20);
+        byte[] largeValue = new byte[OffHeapStore.maxValueLength()];
+        OffHeapStore.Address first = store.allocate(largeValue);
+        OffHeapStore.Address second = store.allocate(largeValue);
+        byte[] value = "Ballerina".getBytes(StandardCharsets.UTF_8);
+        Assert.assertNull(store.allocate(value));
+        Assert.assertEquals(store.allocatedBytes(), 2L << 20);
+
+        // The slab of the freed value is released, and its memory is reused by the values of another size
+        store.free(first);
+        Assert.assertEquals(store.allocatedBytes(), 1L << 20);
+        OffHeapStore.Address address = store.allocate(value);
+        Assert.assertTrue(Arrays.equals(store.read(address), value));
+        Assert.assertNull(store.read(first));
+        store.free(first);
+        Assert.assertEquals(store.allocatedBytes(), 2L << 20);
+
+        // The slab from which the values of a size are allocated is kept for the next value of the size
+        store.free(second);
+        Assert.assertEquals(store.allocatedBytes(), 2L << 20);
+        Assert.assertNotNull(store.allocate(largeValue));
+        store.free(address);
+        Assert.assertEquals(store.allocatedBytes(), 2L << 20);
+    }
+
+    @Test()
+    public void testCacheSnapshot() throws IOException, InterruptedException {
+        ConcurrentLinkedHashMap<String, String> snapshotMap = new ConcurrentLinkedHashMap<>(10);
+        snapshotMap.put("a", "1");
+        snapshotMap.put("b", "2");
+        snapshotMap.put("c", "3", TimeUnit.HOURS.toNanos(1));
+        snapshotMap.put("d", "4", TimeUnit.MILLISECONDS.toNanos(1));
+        snapshotMap.get("a");
+        Thread.sleep(20);
+
+        // The entries are written from the next victim to the most recently used one, without the expired entries
+        Path directory = Files.createTempDirectory("cache-snapshot");
+        Path path = directory.resolve("cache.snapshot");
+        try (CacheSnapshot.Writer writer = CacheSnapshot.create(path)) {
+            snapshotMap.forEachInEvictionOrder((key, value, expireAfterNanos) -> {
+                try {
+                    writer.write(key, (byte) 0, value.getBytes(StandardCharsets.UTF_8), expireAfterNanos);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            Assert.assertEquals(writer.commit(), 3);
+        }
+        List<String> keys = new ArrayList<>();
+        List<Long> expiries = new ArrayList<>();
+        int count = CacheSnapshot.read(path, (key, format, value, expireAfterNanos) -> {
+            Assert.assertEquals(new String(value, StandardCharsets.UTF_8), snapshotMap.get(key));
+            keys.add(key);
+            expiries.add(expireAfterNanos);
+        });
+        Assert.assertEquals(count, 3);
+        Assert.assertEquals(keys, Arrays.asList("b", "c", "a"));
+        Assert.assertEquals(expiries.get(0), Long.valueOf(-1));
+        Assert.assertTrue(expiries.get(1) > 0 && expiries.get(1) <= TimeUnit.HOURS.toNanos(1));
+
+        // A snapshot which is not committed neither replaces the previous snapshot nor is left behind
+        try (CacheSnapshot.Writer writer = CacheSnapshot.create(path)) {
+            writer.write("e", (byte) 0, new byte[0], -1);
+        }
+        Assert.assertEquals(CacheSnapshot.read(path, (key, format, value, expireAfterNanos) -> { }), 3);
+        try (Stream<Path> files = Files.list(directory)) {
+            Assert.assertEquals(files.count(), 1L);
+        }
+        // A truncated snapshot is rejected before any of its entries are consumed
+        byte[] snapshot = Files.readAllBytes(path);
+        Path truncatedPath = directory.resolve("truncated.snapshot");
+        AtomicInteger consumed = new AtomicInteger();
+        for (int length : new int[]{snapshot.length - Integer.BYTES, snapshot.length / 2}) {
+            Files.write(truncatedPath, Arrays.copyOf(snapshot, length));
+            try {
+                CacheSnapshot.read(truncatedPath, (key, format, value, expireAfterNanos) -> consumed.incrementAndGet());
+                Assert.fail("A truncated snapshot was read");
+            } catch (IOException e) {
+                Assert.assertEquals(consumed.get(), 0);
+            }
+        }
+    }
+
+    @Test()
+    public void testDiskStore() throws IOException, InterruptedException {
+        Path path = Files.createTempDirectory("cache-disk").resolve("cache.data");
+        DiskStore store = new DiskStore(path, 3, 0.5f);
+        byte[] value = "Ballerina".getBytes(StandardCharsets.UTF_8);
+        store.put("a", (byte) 0, value, -1);
+        store.put("b", (byte) 1, value, TimeUnit.HOURS.toNanos(1));
+        store.put("c", (byte) 0, value, TimeUnit.MILLISECONDS.toNanos(1));
+        Thread.sleep(20);
+        Assert.assertTrue(store.containsKey("a"));
+        Assert.assertFalse(store.containsKey("c"));
+        Assert.assertEquals(store.keys(), Arrays.asList("a", "b"));
+
+        // A taken entry is removed from the store along with its remaining time to live
+        DiskStore.Entry entry = store.take("b");
+        Assert.assertEquals(entry.format(), (byte) 1);
+        Assert.assertTrue(Arrays.equals(entry.value(), value));
+        Assert.assertTrue(entry.expireAfterNanos() > 0 && entry.expireAfterNanos() <= TimeUnit.HOURS.toNanos(1));
+        Assert.assertNull(store.take("b"));
+        Assert.assertNull(store.take("c"));
+
+        // The entries stored first are evicted once the store is full
+        store.put("d", (byte) 0, value, -1);
+        store.put("e", (byte) 0, value, -1);
+        store.put("f", (byte) 0, value, -1);
+        Assert.assertEquals(store.keys(), Arrays.asList("d", "e", "f"));
+
+        // The file is compacted by the next put once half of it is stale, and the live entries are kept
+        long recordLength = Integer.BYTES * 2 + 1 + value.length;
+        Assert.assertEquals(store.fileSize(), 4 * recordLength);
+        Assert.assertEquals(store.take("d").expireAfterNanos(), -1L);
+        Assert.assertTrue(Arrays.equals(store.take("e").value(), value));
+        store.put("g", (byte) 0, value, -1);
+        Assert.assertEquals(store.fileSize(), 2 * recordLength);
+        Assert.assertEquals(Files.size(path), 2 * recordLength);
+        Assert.assertTrue(Arrays.equals(store.take("f").value(), value));
+        Assert.assertTrue(Arrays.equals(store.take("g").value(), value));
+        store.clear();
+        Assert.assertEquals(store.size(), 0);
+        Assert.assertEquals(Files.size(path), 0L);
+    }
+
+    @Test()
+    public void testDiskStoreCompactionFailure() throws IOException {
+        Path path = Files.createTempDirectory("cache-disk").resolve("cache.data");
+        DiskStore store = new DiskStore(path, 3, 0.5f);
+        byte[] value = "Ballerina".getBytes(StandardCharsets.UTF_8);
+        store.put("a", (byte) 0, value, -1);
+        store.put("b", (byte) 0, value, -1);
+        store.put("c", (byte) 0, value, -1);
+        store.remove("a");
+        store.remove("b");
+
+        // A compaction which fails leaves the store with its file as it was
+        Path compactedPath = path.resolveSibling("cache.data.compact");
+        Files.createDirectory(compactedPath);
+        long recordLength = Integer.BYTES * 2 + 1 + value.length;
+        try {
+            store.put("d", (byte) 0, value, -1);
+            Assert.fail("The compaction should fail");
+        } catch (IOException e) {
+            Assert.assertTrue(Files.isDirectory(compactedPath));
+        }
+        Assert.assertEquals(store.fileSize(), 4 * recordLength);
+        Assert.assertTrue(Arrays.equals(store.take("c").value(), value));
+        Assert.assertTrue(Arrays.equals(store.take("d").value(), value));
+
+        Files.delete(compactedPath);
+        store.put("e", (byte) 0, value, -1);
+        Assert.assertEquals(store.keys(), Arrays.asList("e"));
+        Assert.assertEquals(store.fileSize(), recordLength);
+        Assert.assertEquals(Files.size(path), recordLength);
+        Assert.assertTrue(Arrays.equals(store.take("e").value(), value));
+        Assert.assertFalse(Files.exists(compactedPath));
+    }
+
+    @Test()
+    public void testDiskStoreVersions() throws IOException {
+        DiskStore store = new DiskStore(Files.createTempDirectory("cache-disk").resolve("cache.data"), 3, 0.5f);
+        byte[] value = "Ballerina".getBytes(StandardCharsets.UTF_8);
+        long version = store.version("a");
+        Assert.assertTrue(store.putIfNotRemoved("a", (byte) 0, value, -1, version));
+
+        // An entry read before its key was removed, or before the store was cleared, is not stored
+        version = store.version("a");
+        store.remove("a");
+        Assert.assertFalse(store.putIfNotRemoved("a", (byte) 0, value, -1, version));
+        Assert.assertFalse(store.containsKey("a"));
+        version = store.version("a");
+        store.clear();
+        Assert.assertFalse(store.putIfNotRemoved("a", (byte) 0, value, -1, version));
+        Assert.assertTrue(store.putIfNotRemoved("a", (byte) 0, value, -1, store.version("a")));
+        Assert.assertTrue(store.containsKey("a"));
+    }
+
+    @Test()
+    public void testCacheSegments() {
+        StatsCounter statsCounter = new ConcurrentStatsCounter();
+        CacheSegments<String, String> segments = new CacheSegments<>(4, 10,
+                capacity -> new ConcurrentLinkedHashMap<>(capacity, EvictionPolicy.LRU, statsCounter));
+        Assert.assertEquals(segments.segmentCount(), 4);
+        int totalCapacity = 0;
+        for (ConcurrentLinkedHashMap<String, String> segment : segments) {
+            totalCapacity += segment.capacity();
+        }
+        Assert.assertEquals(totalCapacity, 10);
+        Assert.assertEquals(new CacheSegments<String, String>(4, 2, ConcurrentLinkedHashMap::new).segmentCount(), 2);
+
+        for (int i = 0; i < 8; i++) {
+            segments.segmentFor("key" + i).put("key" + i, "value" + i);
+        }
+        Assert.assertEquals(segments.size(), 8);
+        Assert.assertEquals(segments.keys(String[]::new).size(), 8);
+        Map<String, String> values = segments.getAll(List.of("key5", "missing", "key1", "key3"));
+        Assert.assertEquals(new ArrayList<>(values.keySet()), List.of("key5", "key1", "key3"));
+        segments.segmentFor("missing").get("missing");
+        Assert.assertEquals(segments.stats().hitCount(), 3L);
+        Assert.assertEquals(segments.stats().missCount(), 2L);
+
+        segments.removeAll(List.of("key1", "key2"));
+        Assert.assertEquals(segments.size(), 6);
+        Assert.assertFalse(segments.segmentFor("key1").containsKey("key1"));
+        segments.clear();
+        Assert.assertEquals(segments.size(), 0);
+    }
+
+    @Test()
+    public void testKeyIterator() {
+        CacheSegments<String, String> segments = new CacheSegments<>(4, 100, ConcurrentLinkedHashMap::new);
+        Assert.assertFalse(segments.keyIterator().hasNext());
+        for (int i = 0; i < 50; i++) {
+            segments.segmentFor("key" + i).put("key" + i, "value" + i);
+        }
+        List<String> keys = new ArrayList<>();
+        segments.keyIterator().forEachRemaining(keys::add);
+        Assert.assertEquals(keys.size(), 50);
+        Assert.assertEquals(new HashSet<>(keys).size(), 50);
+
+        ConcurrentLinkedHashMap<String, String> segment = segments.segmentFor("key0");
+        Iterator<String> iterator = segment.keySet().iterator();
+        int segmentSize = segment.keySet().size();
+        iterator.next();
+        iterator.remove();
+        Assert.assertEquals(segment.size(), segmentSize - 1);
+        Assert.assertEquals(segments.size(), 49);
+    }
+
+    @Test()
+    public void testKeyIndex() {
+        Map<String, String> cache = new ConcurrentHashMap<>();
+        KeyIndex index = new KeyIndex(true, cache::get);
+        for (String key : List.of("user:1", "user:2", "user:10", "item:1")) {
+            cache.put(key, "value");
+        }
+        index.put("user:1", new String[]{"tenant:a"}, "value");
+        index.put("user:2", new String[]{"tenant:a", "tenant:b"}, "value");
+        index.put("user:10", new String[0], "value");
+        index.put("item:1", new String[]{"tenant:b"}, "value");
+        Assert.assertEquals(new HashSet<>(index.keysOfTag("tenant:a")), Set.of("user:1", "user:2"));
+        Assert.assertEquals(index.keysWithPrefix("user:1"), List.of("user:1", "user:10"));
+        Assert.assertEquals(index.keysWithPrefix("order:"), List.of());
+        Assert.assertEquals(index.keysAfter(null, "", 2), List.of("item:1", "user:1"));
+        Assert.assertEquals(index.keysAfter("user:1", "user:", 10), List.of("user:10", "user:2"));
+        Assert.assertEquals(index.keysAfter("item:0", "user:", 1), List.of("user:1"));
+        Assert.assertEquals(index.keysAfter("user:2", "", 10), List.of());
+
+        // The tags of a key are replaced when it is put again
+        index.put("user:2", new String[]{"tenant:b"}, "value");
+        Assert.assertEquals(index.keysOfTag("tenant:a"), List.of("user:1"));
+        Assert.assertEquals(new HashSet<>(index.keysOfTag("tenant:b")), Set.of("user:2", "item:1"));
+
+        // A put which was overtaken by a later put or a removal of the key is not recorded
+        cache.put("user:1", "newValue");
+        index.put("user:1", new String[]{"tenant:c"}, "value");
+        Assert.assertEquals(index.keysOfTag("tenant:c"), List.of());
+        Assert.assertEquals(index.keysOfTag("tenant:a"), List.of("user:1"));
+        index.put("order:1", new String[]{"tenant:c"}, "value");
+        Assert.assertEquals(index.keysOfTag("tenant:c"), List.of());
+        Assert.assertEquals(index.keysWithPrefix("order:"), List.of());
+
+        // A removal is ignored if the key is still present in the cache
+        index.remove("item:1");
+        Assert.assertEquals(index.keysOfTag("tenant:b").size(), 2);
+        cache.remove("item:1");
+        index.remove("item:1");
+        Assert.assertEquals(index.keysOfTag("tenant:b"), List.of("user:2"));
+        Assert.assertEquals(index.keysWithPrefix("item:"), List.of());
+        Assert.assertNull(new KeyIndex(false, cache::get).keysWithPrefix("user:"));
+        Assert.assertNull(new KeyIndex(false, cache::get).keysAfter(null, "", 10));
+
+        // The listener of the removals is only added once, however many puts with tags start tracking them
+        AtomicInteger listenersAdded = new AtomicInteger();
+        index.trackRemovals(listenersAdded::incrementAndGet);
+        index.trackRemovals(listenersAdded::incrementAndGet);
+        Assert.assertEquals(listenersAdded.get(), 1);
+    }
+
+    @Test()
+    public void testWriteBufferIsBounded() throws InterruptedException {
+        // The drains scheduled on the executor never run, so the map is only drained and evicted by the writers which
+        // find the write buffer full
+        ConcurrentLinkedHashMap<String, String> burstMap = new ConcurrentLinkedHashMap<>(10, EvictionPolicy.LRU,
+                Weighers.singleton(), StatsCounter.disabled(), task -> { });
+        Thread[] writers = new Thread[4];
+        for (int i = 0; i < writers.length; i++) {
+            int writer = i;
+            writers[i] = new Thread(() -> {
+                for (int j = 0; j < 25_000; j++) {
+                    burstMap.put(writer + "-" + j, "value");
+                }
+            });
+            writers[i].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        // The entries beyond the capacity are the ones whose additions are still buffered, which the writers that find
+        // the buffer full help to drain
+        Assert.assertTrue(burstMap.size() <= burstMap.capacity() + ConcurrentLinkedHashMap.WRITE_BUFFER_SIZE);
+        Assert.assertTrue(burstMap.weightedSize() <= burstMap.capacity());
+    }
+
+    @Test()
+    public void testStatsRecording() throws InterruptedException {
+        ConcurrentLinkedHashMap<String, String> statsMap =
+                new ConcurrentLinkedHashMap<>(2, EvictionPolicy.LRU, new ConcurrentStatsCounter());
+        statsMap.put("a", "1");
+        statsMap.put("b", "2", TimeUnit.MILLISECONDS.toNanos(100));
+        statsMap.computeIfAbsent("c", k -> "3");
+        statsMap.computeIfAbsent("d", k -> null);
+        statsMap.setCapacity(2);
+        Thread.sleep(200);
+        statsMap.get("b");
+        statsMap.get("c");
+        statsMap.get("missing");
+
+        CacheStats stats = statsMap.stats();
+        Assert.assertEquals(stats.hitCount(), 1L);
+        Assert.assertEquals(stats.missCount(), 4L);
+        Assert.assertEquals(stats.evictionCount(), 1L);
+        Assert.assertEquals(stats.expirationCount(), 1L);
+        Assert.assertEquals(stats.loadSuccessCount(), 1L);
+        Assert.assertEquals(stats.loadFailureCount(), 1L);
+        Assert.assertTrue(stats.totalLoadTime() > 0);
+    }
+
+    @Test()
+    public void testIntCacheMap() throws InterruptedException {
+        IntCacheMap intMap = new IntCacheMap(1, 8, 0.25f, new ConcurrentStatsCounter());
+        for (long key = 0; key < 8; key++) {
+            intMap.put(key * 1024, "value" + key, -1);
+        }
+        intMap.put(-1, "expiring", TimeUnit.MILLISECONDS.toNanos(100));
+        // The two least recently used entries are evicted by the eviction factor to make space for the new key
+        Assert.assertEquals(intMap.size(), 7);
+        Assert.assertNull(intMap.get(0));
+        Assert.assertNull(intMap.get(1024));
+        Assert.assertEquals(intMap.get(2048), "value2");
+        intMap.put(3072, "replaced", -1);
+        Assert.assertEquals(intMap.get(3072), "replaced");
+        Assert.assertTrue(intMap.remove(4096));
+        Assert.assertFalse(intMap.remove(4096));
+        Assert.assertEquals(intMap.keys(), new long[]{5120, 6144, 7168, -1, 2048, 3072});
+        Thread.sleep(200);
+        Assert.assertFalse(intMap.containsKey(-1));
+        Assert.assertNull(intMap.get(-1));
+        Assert.assertEquals(intMap.size(), 5);
+
+        // The keys which collide are still found once the entries before them in the table are removed
+        IntCacheMap collidingMap = new IntCacheMap(1, 1000, 0.25f, StatsCounter.disabled());
+        for (long key = 0; key < 1000; key++) {
+            collidingMap.put(key << 40, key, -1);
+        }
+        for (long key = 0; key < 1000; key += 2) {
+            Assert.assertTrue(collidingMap.remove(key << 40));
+        }
+        for (long key = 1; key < 1000; key += 2) {
+            Assert.assertEquals(collidingMap.get(key << 40), key);
+        }
+        Assert.assertEquals(collidingMap.size(), 500);
+        collidingMap.clear();
+        Assert.assertEquals(collidingMap.keys().length, 0);
+
+        CacheStats stats = intMap.stats();
+        Assert.assertEquals(stats.hitCount(), 2L);
+        Assert.assertEquals(stats.missCount(), 3L);
+        Assert.assertEquals(stats.evictionCount(), 2L);
+        Assert.assertEquals(stats.expirationCount(), 1L);
+    }
+
+    @Test()
+    public void testIntCacheMapSegments() throws InterruptedException {
+        IntCacheMap intMap = new IntCacheMap(4, 20000, 0.25f, new ConcurrentStatsCounter());
+        Assert.assertEquals(intMap.segmentCount(), 4);
+        Assert.assertEquals(intMap.capacity(), 20000);
+        for (long key = 0; key < 16000; key++) {
+            intMap.put(key, key, key % 2 == 0 ? TimeUnit.MILLISECONDS.toNanos(100) : -1);
+        }
+        Assert.assertEquals(intMap.keys().length, 16000);
+        Thread.sleep(200);
+
+        // The expired entries are swept by the cleanup in batches, until the cleanup is complete
+        int cleanUps = 1;
+        while (!intMap.tryCleanUp()) {
+            cleanUps++;
+        }
+        Assert.assertTrue(cleanUps > 1);
+        Assert.assertEquals(intMap.stats().expirationCount(), 8000L);
+        Assert.assertEquals(intMap.size(), 8000);
+        Assert.assertTrue(intMap.tryCleanUp());
+
+        // The expired entries which are not yet swept are not counted
+        intMap.put(-1, "expiring", TimeUnit.MILLISECONDS.toNanos(50));
+        Assert.assertEquals(intMap.size(), 8001);
+        Thread.sleep(100);
+        Assert.assertEquals(intMap.size(), 8000);
+
+        // The reads which are concurrent with the writes of the same segments find the present entries
+        int threadCount = 4;
+        CountDownLatch latch = new CountDownLatch(threadCount);
+        AtomicInteger failures = new AtomicInteger();
+        for (int i = 0; i < threadCount; i++) {
+            int thread = i;
+            new Thread(() -> {
+                for (int round = 0; round < 1000; round++) {
+                    for (long key = 1; key < 200; key += 2) {
+                        if (!Long.valueOf(key).equals(intMap.get(key))) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                    intMap.put(100000L + thread * 1000L + round, round, -1);
+                }
+                latch.countDown();
+            }).start();
+        }
+        latch.await();
+        Assert.assertEquals(failures.get(), 0);
+        Assert.assertTrue(intMap.size() <= 20000);
+        intMap.clear();
+        Assert.assertEquals(intMap.size(), 0);
+        Assert.assertTrue(intMap.tryCleanUp());
+
+        // The capacity of a segment is capped at half the maximum table size
+        IntCacheMap largeMap = new IntCacheMap(2, Integer.MAX_VALUE, 0.25f, StatsCounter.disabled());
+        Assert.assertEquals(largeMap.capacity(), 1 << 30);
+    }
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.cache.nativeimpl;
+
+import io.ballerina.runtime.observability.metrics.Counter;
+import io.ballerina.runtime.observability.metrics.DefaultMetricProvider;
+import io.ballerina.runtime.observability.metrics.DefaultMetricRegistry;
+import io.ballerina.runtime.observability.metrics.Metric;
+import io.ballerina.runtime.observability.metrics.MetricRegistry;
+import io.ballerina.runtime.observability.metrics.PolledGauge;
+import io.ballerina.runtime.observability.metrics.Tag;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.ConcurrentStatsCounter;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.EvictionPolicy;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.StatsCounter;
+import io.ballerina.stdlib.cache.nativeimpl.concurrentlinkedhashmap.Weighers;
+import org.testng.Assert;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the metrics which are published for a named cache.
+ */
+public class CacheMetricsTest {
+
+    private static final String CACHE_NAME = "orders";
+
+    @BeforeTest
+    public void setup() {
+        // The default registry does not record the metrics unless the metrics are enabled
+        DefaultMetricRegistry.setInstance(new MetricRegistry(new DefaultMetricProvider()));
+    }
+
+    @Test()
+    public void testMetricsOfNamedCache() {
+        Object cache = new Object();
+        CacheMetrics metrics = new CacheMetrics(CACHE_NAME);
+        CacheSegments<String, Object> segments = createSegments(metrics);
+        metrics.register(cache, segments, 10, false);
+        ConcurrentLinkedHashMap<String, Object> cacheMap = segments.segmentFor("A");
+        cacheMap.put("A", 1, -1);
+        metrics.recordPut(1000);
+        Assert.assertEquals(cacheMap.get("A"), 1);
+        Assert.assertNull(cacheMap.get("B"));
+        metrics.recordGet(2000);
+        metrics.recordGet(3000);
+
+        Assert.assertEquals(((Counter) lookup("cache_hits")).getValue(), 1L);
+        Assert.assertEquals(((Counter) lookup("cache_misses")).getValue(), 1L);
+        Assert.assertEquals(((Counter) lookup("cache_gets")).getValue(), 2L);
+        Assert.assertEquals(((Counter) lookup("cache_puts")).getValue(), 1L);
+        Assert.assertEquals(((PolledGauge) lookup("cache_size")).getValue(), 1.0);
+        Assert.assertEquals(((PolledGauge) lookup("cache_capacity")).getValue(), 10.0);
+        Assert.assertEquals(((PolledGauge) lookup("cache_hit_ratio")).getValue(), 0.5);
+        Assert.assertEquals(((PolledGauge) lookup("cache_get_time_seconds")).getValue(), 5000 / 1e9);
+        Assert.assertEquals(((PolledGauge) lookup("cache_put_time_seconds")).getValue(), 1000 / 1e9);
+
+        // The metrics of the previous cache are unregistered once another cache takes its name
+        Metric previousHits = lookup("cache_hits");
+        Metric previousSize = lookup("cache_size");
+        CacheMetrics replacingMetrics = new CacheMetrics(CACHE_NAME);
+        replacingMetrics.register(new Object(), createSegments(replacingMetrics), 20, false);
+        Assert.assertFalse(isRegistered(previousHits));
+        Assert.assertFalse(isRegistered(previousSize));
+        Assert.assertEquals(((Counter) lookup("cache_hits")).getValue(), 0L);
+        Assert.assertEquals(((PolledGauge) lookup("cache_size")).getValue(), 0.0);
+        Assert.assertEquals(((PolledGauge) lookup("cache_capacity")).getValue(), 20.0);
+
+        // The collection of the previous cache does not unregister the metrics which replaced its own
+        metrics.unregister();
+        Assert.assertNotNull(lookup("cache_hits"));
+        replacingMetrics.unregister();
+        Assert.assertNull(lookup("cache_hits"));
+        Assert.assertNull(lookup("cache_size"));
+    }
+
+    private static CacheSegments<String, Object> createSegments(CacheMetrics metrics) {
+        StatsCounter statsCounter = metrics.countStats(new ConcurrentStatsCounter());
+        return new CacheSegments<>(1, 10, capacity -> new ConcurrentLinkedHashMap<>(capacity, EvictionPolicy.LRU,
+                Weighers.singleton(), statsCounter));
+    }
+
+    // Returns the registered metric with the name whose cache name tag is the one of the cache, or null
+    private static Metric lookup(String name) {
+        for (Metric metric : DefaultMetricRegistry.getInstance().getMetrics()) {
+            if (!metric.getId().getName().equals(name)) {
+                continue;
+            }
+            for (Tag tag : metric.getId().getTags()) {
+                if (tag.getKey().equals("cache_name") && tag.getValue().equals(CACHE_NAME)) {
+                    return metric;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean isRegistered(Metric metric) {
+        for (Metric registered : DefaultMetricRegistry.getInstance().getMetrics()) {
+            if (registered == metric) {
+                return true;
+            }
+        }
+        return false;
+    }
+}